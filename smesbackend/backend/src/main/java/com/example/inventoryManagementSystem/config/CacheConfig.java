@@ -0,0 +1,26 @@
+package com.example.inventoryManagementSystem.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    @Bean
+    public ReportCacheManager cacheManager(
+            @Value("${app.reports.cache.max-entries:500}") int maxEntries,
+            @Value("${app.reports.cache.open-range-ttl-seconds:60}") long openRangeTtlSeconds) {
+        return new ReportCacheManager(maxEntries, Duration.ofSeconds(openRangeTtlSeconds));
+    }
+
+    @Bean
+    public KeyGenerator reportCacheKeyGenerator() {
+        return ReportCacheManager::generateKey;
+    }
+}
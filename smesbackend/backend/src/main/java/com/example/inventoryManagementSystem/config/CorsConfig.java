@@ -21,7 +21,7 @@ public class CorsConfig {
                         .allowedOrigins(frontendUrl)
                         .allowedMethods("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS")
                         .allowedHeaders("*")
-                        .exposedHeaders("Authorization")
+                        .exposedHeaders("Authorization", ReportPlanRecorder.HEADER, IdempotencyStore.REPLAYED_HEADER)
                         .allowCredentials(true)
                         .maxAge(3600);
             }
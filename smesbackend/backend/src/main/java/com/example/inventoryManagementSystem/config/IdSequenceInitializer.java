@@ -0,0 +1,77 @@
+package com.example.inventoryManagementSystem.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Moves tables that used IDENTITY ids onto the pooled sequences their entities now draw
+ * from. Each sequence is raised past the highest id already in its table, and the old
+ * identity or serial default is dropped so nothing keeps handing out ids from it. A fresh
+ * sequence is advanced past its start value so its values line up with whole id blocks.
+ * Safe to run on every start; on a fresh schema there is nothing to move.
+ */
+@Component
+// After the schema update, which creates the tables and sequences on a fresh database
+@DependsOn("entityManagerFactory")
+public class IdSequenceInitializer {
+    private static final Logger logger = LoggerFactory.getLogger(IdSequenceInitializer.class);
+
+    // Must match allocationSize on the entities' @SequenceGenerator
+    public static final int ALLOCATION_SIZE = 50;
+
+    private static final Map<String, String> SEQUENCES = new LinkedHashMap<>();
+
+    static {
+        SEQUENCES.put("sales", "sales_seq");
+        SEQUENCES.put("sale_items", "sale_items_seq");
+        SEQUENCES.put("purchases", "purchases_seq");
+        SEQUENCES.put("purchase_items", "purchase_items_seq");
+        SEQUENCES.put("inventory_adjustments", "inventory_adjustments_seq");
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdSequenceInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void init() {
+        SEQUENCES.forEach(this::migrate);
+    }
+
+    private void migrate(String table, String sequence) {
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + sequence
+                + " START WITH 1 INCREMENT BY " + ALLOCATION_SIZE);
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " INCREMENT BY " + ALLOCATION_SIZE);
+        jdbcTemplate.execute("ALTER TABLE IF EXISTS " + table + " ALTER COLUMN id DROP IDENTITY IF EXISTS");
+        jdbcTemplate.execute("ALTER TABLE IF EXISTS " + table + " ALTER COLUMN id DROP DEFAULT");
+
+        // The pooled optimizer hands out (value - allocation, value], so once the sequence
+        // stands at the current maximum every new block starts above the existing rows
+        Long raisedTo = jdbcTemplate.query("SELECT setval('" + sequence + "', ids.max_id) " +
+                        "FROM (SELECT MAX(id) AS max_id FROM " + table + ") ids " +
+                        "WHERE ids.max_id >= (SELECT last_value FROM " + sequence + ")",
+                rs -> rs.next() ? rs.getLong(1) : null);
+        if (raisedTo != null) {
+            logger.info("Moved {} ids onto {}, continuing after {}", table, sequence, raisedTo);
+        }
+
+        // Hibernate treats a first value equal to the start value specially and takes a second
+        // value, which would overlap the block reserveIds derives from the first. Using up the
+        // start value here means every value anyone sees stands for a whole block.
+        Long skipped = jdbcTemplate.query("SELECT nextval('" + sequence + "') FROM " + sequence
+                        + " WHERE NOT is_called",
+                rs -> rs.next() ? rs.getLong(1) : null);
+        if (skipped != null) {
+            logger.info("Advanced fresh sequence {} past its start value", sequence);
+        }
+    }
+}
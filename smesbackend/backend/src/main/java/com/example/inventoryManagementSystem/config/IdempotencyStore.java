@@ -0,0 +1,220 @@
+package com.example.inventoryManagementSystem.config;
+
+import com.example.inventoryManagementSystem.exception.IdempotencyConflictException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicates retried writes that carry an Idempotency-Key header. The first request for
+ * a key runs; duplicates arriving while it runs wait for its result, and later ones get the
+ * stored response back with Idempotent-Replayed set. Only successful responses are kept,
+ * so a request that failed can be retried under the same key. Keys are scoped per
+ * operation and user, and a key reused with a different request body is rejected.
+ */
+@Component
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    private final ObjectMapper objectMapper;
+    private final int maxEntries;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+
+    // Access-ordered so the least recently used response is dropped first when full
+    private final LinkedHashMap<String, StoredResponse> completed = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+            if (size() > maxEntries) {
+                sizeEvictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    };
+    private final ConcurrentMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong executions = new AtomicLong();
+    private final AtomicLong replays = new AtomicLong();
+    private final AtomicLong waits = new AtomicLong();
+    private final AtomicLong sizeEvictions = new AtomicLong();
+
+    public IdempotencyStore(ObjectMapper objectMapper,
+                            @Value("${app.idempotency.max-entries:10000}") int maxEntries,
+                            @Value("${app.idempotency.ttl-minutes:60}") long ttlMinutes,
+                            @Value("${app.idempotency.wait-timeout-seconds:30}") long waitTimeoutSeconds) {
+        this.objectMapper = objectMapper;
+        this.maxEntries = Math.max(maxEntries, 1);
+        this.ttl = Duration.ofMinutes(Math.max(ttlMinutes, 1));
+        this.waitTimeout = Duration.ofSeconds(Math.max(waitTimeoutSeconds, 1));
+    }
+
+    // Runs the action once per (operation, user, key); without a key it simply runs
+    @SuppressWarnings("unchecked")
+    public <T> ResponseEntity<T> execute(String operation, String username, String idempotencyKey,
+                                         Object request, Supplier<ResponseEntity<T>> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        String key = operation + ":" + (username != null ? username : "anonymous") + ":" + idempotencyKey.trim();
+        String fingerprint = fingerprint(request);
+
+        StoredResponse stored = lookup(key);
+        if (stored != null) {
+            checkFingerprint(stored.fingerprint, fingerprint, idempotencyKey);
+            replays.incrementAndGet();
+            return (ResponseEntity<T>) replay(stored.response);
+        }
+
+        InFlight running = new InFlight(fingerprint);
+        InFlight existing = inFlight.putIfAbsent(key, running);
+        if (existing != null) {
+            checkFingerprint(existing.fingerprint, fingerprint, idempotencyKey);
+            waits.incrementAndGet();
+            return (ResponseEntity<T>) replay(await(existing, idempotencyKey));
+        }
+
+        try {
+            // The first request may have finished between the lookup and claiming the key
+            stored = lookup(key);
+            if (stored != null) {
+                checkFingerprint(stored.fingerprint, fingerprint, idempotencyKey);
+                replays.incrementAndGet();
+                running.result.complete(stored.response);
+                return (ResponseEntity<T>) replay(stored.response);
+            }
+
+            executions.incrementAndGet();
+            ResponseEntity<T> response = action.get();
+            if (response.getStatusCode().is2xxSuccessful()) {
+                synchronized (completed) {
+                    completed.put(key, new StoredResponse(response, fingerprint,
+                            System.currentTimeMillis() + ttl.toMillis()));
+                }
+            }
+            running.result.complete(response);
+            return response;
+        } catch (RuntimeException | Error e) {
+            running.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, running);
+        }
+    }
+
+    public Map<String, Long> getStatistics() {
+        Map<String, Long> statistics = new LinkedHashMap<>();
+        synchronized (completed) {
+            statistics.put("entries", (long) completed.size());
+        }
+        statistics.put("inFlight", (long) inFlight.size());
+        statistics.put("executions", executions.get());
+        statistics.put("replays", replays.get());
+        statistics.put("waits", waits.get());
+        statistics.put("sizeEvictions", sizeEvictions.get());
+        return statistics;
+    }
+
+    private StoredResponse lookup(String key) {
+        long now = System.currentTimeMillis();
+        synchronized (completed) {
+            StoredResponse stored = completed.get(key);
+            if (stored != null && now >= stored.expiresAtMillis) {
+                completed.remove(key);
+                return null;
+            }
+            return stored;
+        }
+    }
+
+    // Duplicates see the first request's failure too, rather than starting a second attempt alongside it
+    private ResponseEntity<?> await(InFlight running, String idempotencyKey) {
+        try {
+            return running.result.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotencyConflictException(
+                    "A request with Idempotency-Key " + idempotencyKey + " is still being processed");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new CompletionException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException(
+                    "Interrupted while waiting for the request with Idempotency-Key " + idempotencyKey);
+        }
+    }
+
+    // SHA-256 of the serialized body, so distinct bodies practically never share a fingerprint
+    private String fingerprint(Object request) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Request body cannot be fingerprinted", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static void checkFingerprint(String expected, String actual, String idempotencyKey) {
+        if (!expected.equals(actual)) {
+            logger.warn("Idempotency-Key {} reused with a different request body", idempotencyKey);
+            throw new IdempotencyConflictException(
+                    "Idempotency-Key " + idempotencyKey + " was already used for a different request");
+        }
+    }
+
+    private static ResponseEntity<?> replay(ResponseEntity<?> response) {
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .header(REPLAYED_HEADER, "true")
+                .body(response.getBody());
+    }
+
+    private static final class StoredResponse {
+        private final ResponseEntity<?> response;
+        private final String fingerprint;
+        private final long expiresAtMillis;
+
+        private StoredResponse(ResponseEntity<?> response, String fingerprint, long expiresAtMillis) {
+            this.response = response;
+            this.fingerprint = fingerprint;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    private static final class InFlight {
+        private final String fingerprint;
+        private final CompletableFuture<ResponseEntity<?>> result = new CompletableFuture<>();
+
+        private InFlight(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+}
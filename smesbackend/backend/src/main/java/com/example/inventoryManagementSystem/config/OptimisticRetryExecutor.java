@@ -0,0 +1,121 @@
+package com.example.inventoryManagementSystem.config;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Runs a write in its own transaction and repeats it when a versioned entity was changed
+ * by someone else in the meantime, waiting a jittered, exponentially growing pause between
+ * attempts. Inside an existing transaction the write runs once and the conflict is left
+ * to the outermost caller, since only a fresh transaction sees the newer rows.
+ */
+@Component
+public class OptimisticRetryExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(OptimisticRetryExecutor.class);
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final ConcurrentMap<String, Counters> counters = new ConcurrentHashMap<>();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public OptimisticRetryExecutor(PlatformTransactionManager transactionManager,
+                                   @Value("${app.concurrency.retry.max-attempts:4}") int maxAttempts,
+                                   @Value("${app.concurrency.retry.initial-backoff-ms:20}") long initialBackoffMs,
+                                   @Value("${app.concurrency.retry.max-backoff-ms:500}") long maxBackoffMs) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = Math.max(maxAttempts, 1);
+        this.initialBackoffMs = Math.max(initialBackoffMs, 1);
+        this.maxBackoffMs = Math.max(maxBackoffMs, this.initialBackoffMs);
+    }
+
+    public <T> T execute(String operation, Supplier<T> action) {
+        Counters stats = counters.computeIfAbsent(operation, key -> new Counters());
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            stats.attempts.incrementAndGet();
+            return action.get();
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            stats.attempts.incrementAndGet();
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                stats.conflicts.incrementAndGet();
+                if (attempt >= maxAttempts) {
+                    stats.exhausted.incrementAndGet();
+                    logger.warn("{} still conflicting after {} attempts", operation, attempt);
+                    throw e;
+                }
+                stats.retries.incrementAndGet();
+                logger.debug("{} hit a concurrent update on attempt {}, retrying", operation, attempt);
+                // An open-in-view entity manager outlives the failed transaction and would
+                // hand the stale entities straight back
+                entityManager.clear();
+                pause(attempt, e);
+            }
+        }
+    }
+
+    public void execute(String operation, Runnable action) {
+        execute(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    // Per operation: attempts, conflicts, retries and exhausted (gave up after max attempts)
+    public Map<String, Map<String, Long>> getStatistics() {
+        Map<String, Map<String, Long>> statistics = new TreeMap<>();
+        counters.forEach((operation, stats) -> {
+            Map<String, Long> values = new TreeMap<>();
+            values.put("attempts", stats.attempts.get());
+            values.put("conflicts", stats.conflicts.get());
+            values.put("retries", stats.retries.get());
+            values.put("exhausted", stats.exhausted.get());
+            statistics.put(operation, values);
+        });
+        return statistics;
+    }
+
+    // Equal jitter: half the backoff is fixed, the other half random, so tills that collided
+    // once do not wake up together and collide again
+    private void pause(int attempt, RuntimeException conflict) {
+        long backoff = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+        long delay = backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw conflict;
+        }
+    }
+
+    private static final class Counters {
+        private final AtomicLong attempts = new AtomicLong();
+        private final AtomicLong conflicts = new AtomicLong();
+        private final AtomicLong retries = new AtomicLong();
+        private final AtomicLong exhausted = new AtomicLong();
+    }
+}
@@ -0,0 +1,297 @@
+package com.example.inventoryManagementSystem.config;
+
+import com.example.inventoryManagementSystem.event.ReportDataChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size-bounded cache for report results keyed by method arguments and the business-date
+ * range they cover. Entries are evicted when a {@link ReportDataChangedEvent} overlaps
+ * their range; ranges that end before today never expire on their own, ranges that reach
+ * today also expire after a short TTL because not every current-state change is evented.
+ */
+public class ReportCacheManager implements CacheManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportCacheManager.class);
+
+    private final int maxEntriesPerCache;
+    private final Duration openRangeTtl;
+    private final ConcurrentMap<String, ReportCache> caches = new ConcurrentHashMap<>();
+
+    public ReportCacheManager(int maxEntriesPerCache, Duration openRangeTtl) {
+        this.maxEntriesPerCache = maxEntriesPerCache;
+        this.openRangeTtl = openRangeTtl;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, ReportCache::new);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReportDataChanged(ReportDataChangedEvent event) {
+        int evicted = 0;
+        for (ReportCache cache : caches.values()) {
+            evicted += cache.evictOverlapping(event.getStartDate(), event.getEndDate());
+        }
+        if (evicted > 0) {
+            logger.debug("Evicted {} cached reports overlapping {} - {}", evicted, event.getStartDate(), event.getEndDate());
+        }
+    }
+
+    public Map<String, Map<String, Long>> getStatistics() {
+        Map<String, Map<String, Long>> statistics = new TreeMap<>();
+        caches.forEach((name, cache) -> statistics.put(name, cache.statistics()));
+        return statistics;
+    }
+
+    public void clearAll() {
+        caches.values().forEach(ReportCache::clear);
+    }
+
+    /**
+     * Builds keys that carry the date range of the call: the first two LocalDate arguments
+     * are the range, a null start means all history and a null end means today. Calls
+     * without a range describe current state and are treated as open through today.
+     */
+    public static Object generateKey(Object target, Method method, Object... params) {
+        LocalDate start = null;
+        LocalDate end = null;
+        int dateArgs = 0;
+        for (int i = 0; i < method.getParameterCount() && dateArgs < 2; i++) {
+            if (method.getParameterTypes()[i] == LocalDate.class) {
+                if (dateArgs == 0) {
+                    start = (LocalDate) params[i];
+                } else {
+                    end = (LocalDate) params[i];
+                }
+                dateArgs++;
+            }
+        }
+        if (dateArgs < 2) {
+            start = null;
+            end = null;
+        }
+        return new ReportCacheKey(method.getName(), Arrays.asList(params),
+                start != null ? start : LocalDate.MIN,
+                end != null ? end : LocalDate.now());
+    }
+
+    static final class ReportCacheKey {
+        private final String method;
+        private final List<Object> params;
+        private final LocalDate rangeStart;
+        private final LocalDate rangeEnd;
+
+        ReportCacheKey(String method, List<Object> params, LocalDate rangeStart, LocalDate rangeEnd) {
+            this.method = method;
+            this.params = params;
+            this.rangeStart = rangeStart;
+            this.rangeEnd = rangeEnd;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ReportCacheKey)) return false;
+            ReportCacheKey that = (ReportCacheKey) o;
+            return method.equals(that.method) && params.equals(that.params)
+                    && rangeStart.equals(that.rangeStart) && rangeEnd.equals(that.rangeEnd);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(method, params, rangeStart, rangeEnd);
+        }
+
+        @Override
+        public String toString() {
+            return method + params;
+        }
+    }
+
+    private static final class CacheEntry {
+        private final Object value;
+        private final LocalDate rangeStart;
+        private final LocalDate rangeEnd;
+        private final long expiresAtMillis;
+
+        private CacheEntry(Object value, LocalDate rangeStart, LocalDate rangeEnd, long expiresAtMillis) {
+            this.value = value;
+            this.rangeStart = rangeStart;
+            this.rangeEnd = rangeEnd;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        private boolean isExpired(long now) {
+            return expiresAtMillis > 0 && now >= expiresAtMillis;
+        }
+    }
+
+    private final class ReportCache extends AbstractValueAdaptingCache {
+        private final String name;
+        // Access-ordered so the least recently read report is dropped first when full
+        private final LinkedHashMap<Object, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, CacheEntry> eldest) {
+                if (size() > maxEntriesPerCache) {
+                    sizeEvictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+        private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+        private final AtomicLong invalidations = new AtomicLong();
+        private final AtomicLong sizeEvictions = new AtomicLong();
+
+        private ReportCache(String name) {
+            super(true);
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return entries;
+        }
+
+        @Override
+        protected Object lookup(Object key) {
+            long now = System.currentTimeMillis();
+            synchronized (entries) {
+                CacheEntry entry = entries.get(key);
+                if (entry != null && entry.isExpired(now)) {
+                    entries.remove(key);
+                    entry = null;
+                }
+                if (entry == null) {
+                    misses.incrementAndGet();
+                    return null;
+                }
+                hits.incrementAndGet();
+                ReportPlanRecorder.record(key + ": CACHE (" + name + ")");
+                return entry.value;
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T get(Object key, java.util.concurrent.Callable<T> valueLoader) {
+            ValueWrapper cached = get(key);
+            if (cached != null) {
+                return (T) cached.get();
+            }
+
+            // Concurrent callers for the same report wait for the first one instead of re-running it
+            CompletableFuture<Object> loading = new CompletableFuture<>();
+            CompletableFuture<Object> existing = inFlight.putIfAbsent(key, loading);
+            if (existing != null) {
+                try {
+                    return (T) fromStoreValue(existing.join());
+                } catch (CompletionException e) {
+                    throw new ValueRetrievalException(key, valueLoader, e.getCause());
+                }
+            }
+
+            long invalidationsBefore = invalidations.get();
+            try {
+                T value = valueLoader.call();
+                // Skip storing if a write invalidated this cache while the report was being computed
+                if (invalidations.get() == invalidationsBefore) {
+                    put(key, value);
+                }
+                loading.complete(toStoreValue(value));
+                return value;
+            } catch (Exception e) {
+                loading.completeExceptionally(e);
+                throw new ValueRetrievalException(key, valueLoader, e);
+            } finally {
+                inFlight.remove(key, loading);
+            }
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            LocalDate rangeStart = LocalDate.MIN;
+            LocalDate rangeEnd = LocalDate.now();
+            if (key instanceof ReportCacheKey) {
+                rangeStart = ((ReportCacheKey) key).rangeStart;
+                rangeEnd = ((ReportCacheKey) key).rangeEnd;
+            }
+            long expiresAt = rangeEnd.isBefore(LocalDate.now()) ? 0 : System.currentTimeMillis() + openRangeTtl.toMillis();
+            synchronized (entries) {
+                entries.put(key, new CacheEntry(toStoreValue(value), rangeStart, rangeEnd, expiresAt));
+            }
+        }
+
+        @Override
+        public void evict(Object key) {
+            invalidations.incrementAndGet();
+            synchronized (entries) {
+                entries.remove(key);
+            }
+        }
+
+        @Override
+        public void clear() {
+            invalidations.incrementAndGet();
+            synchronized (entries) {
+                entries.clear();
+            }
+        }
+
+        private int evictOverlapping(LocalDate start, LocalDate end) {
+            invalidations.incrementAndGet();
+            int evicted = 0;
+            synchronized (entries) {
+                Iterator<CacheEntry> iterator = entries.values().iterator();
+                while (iterator.hasNext()) {
+                    CacheEntry entry = iterator.next();
+                    if (!entry.rangeEnd.isBefore(start) && !entry.rangeStart.isAfter(end)) {
+                        iterator.remove();
+                        evicted++;
+                    }
+                }
+            }
+            return evicted;
+        }
+
+        private Map<String, Long> statistics() {
+            Map<String, Long> statistics = new LinkedHashMap<>();
+            synchronized (entries) {
+                statistics.put("size", (long) entries.size());
+            }
+            statistics.put("hits", hits.get());
+            statistics.put("misses", misses.get());
+            statistics.put("invalidations", invalidations.get());
+            statistics.put("sizeEvictions", sizeEvictions.get());
+            return statistics;
+        }
+    }
+}
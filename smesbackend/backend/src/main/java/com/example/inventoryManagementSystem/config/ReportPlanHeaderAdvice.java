@@ -0,0 +1,45 @@
+package com.example.inventoryManagementSystem.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.List;
+
+/**
+ * Adds the report plans recorded while handling a request as the X-Report-Plan header,
+ * e.g. "totals: ROLLUP[2024-01-01..2024-06-29] + RAW[2024-06-30..2024-06-30] (...)".
+ */
+@RestControllerAdvice
+public class ReportPlanHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    private final boolean enabled;
+
+    public ReportPlanHeaderAdvice(@Value("${app.reports.planner.debug-header:false}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return enabled;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest) {
+            List<String> entries = ReportPlanRecorder.entries(((ServletServerHttpRequest) request).getServletRequest());
+            if (!entries.isEmpty()) {
+                response.getHeaders().set(ReportPlanRecorder.HEADER, String.join("; ", entries));
+            }
+        }
+        return body;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.inventoryManagementSystem.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Collects how each report of the current request was answered (cache hit or query plan)
+ * as request attributes, so nothing outlives the request. Calls outside a web request are
+ * ignored.
+ */
+public final class ReportPlanRecorder {
+
+    public static final String HEADER = "X-Report-Plan";
+    private static final String ATTRIBUTE = ReportPlanRecorder.class.getName() + ".entries";
+    // Keeps the header well under common proxy limits for composite reports
+    private static final int MAX_ENTRIES = 20;
+
+    private ReportPlanRecorder() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static void record(String entry) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return;
+        }
+        // Composite reports record from several report-query threads at once
+        synchronized (attributes) {
+            List<String> entries = (List<String>) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (entries == null) {
+                entries = new ArrayList<>();
+                attributes.setAttribute(ATTRIBUTE, entries, RequestAttributes.SCOPE_REQUEST);
+            }
+            if (entries.size() < MAX_ENTRIES) {
+                entries.add(entry);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static List<String> entries(HttpServletRequest request) {
+        List<String> entries = (List<String>) request.getAttribute(ATTRIBUTE);
+        return entries != null ? entries : Collections.emptyList();
+    }
+}
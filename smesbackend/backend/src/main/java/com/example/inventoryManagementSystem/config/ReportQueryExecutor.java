@@ -0,0 +1,75 @@
+package com.example.inventoryManagementSystem.config;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Supplier;
+
+/**
+ * Runs the independent parts of composite reports in parallel, each in its own read-only
+ * transaction. When the pool is saturated the caller runs the part itself, so a busy
+ * server degrades to sequential execution instead of rejecting reports.
+ */
+@Component
+public class ReportQueryExecutor {
+
+    private final ThreadPoolTaskExecutor executor;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ReportQueryExecutor(PlatformTransactionManager transactionManager,
+                               @Value("${app.reports.query.threads:4}") int threads,
+                               @Value("${app.reports.query.queue-capacity:50}") int queueCapacity) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+
+        // Not registered as a bean so Boot keeps its own applicationTaskExecutor
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(threads);
+        this.executor.setMaxPoolSize(threads);
+        this.executor.setQueueCapacity(queueCapacity);
+        this.executor.setThreadNamePrefix("report-query-");
+        this.executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> query) {
+        // Carried over so report plans recorded by the worker reach the caller's response
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        return CompletableFuture.supplyAsync(() -> {
+            // Under CallerRunsPolicy this is the caller's own thread, so restore rather than reset
+            RequestAttributes previous = RequestContextHolder.getRequestAttributes();
+            RequestContextHolder.setRequestAttributes(requestAttributes);
+            try {
+                return readOnlyTransaction.execute(status -> query.get());
+            } finally {
+                RequestContextHolder.setRequestAttributes(previous);
+            }
+        }, executor);
+    }
+
+    // Unwraps the CompletionException so callers see the exception the query threw
+    public static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
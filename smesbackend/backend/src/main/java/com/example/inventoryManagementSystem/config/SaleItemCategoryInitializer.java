@@ -0,0 +1,36 @@
+package com.example.inventoryManagementSystem.config;
+
+import com.example.inventoryManagementSystem.repository.SaleItemRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class SaleItemCategoryInitializer {
+    private static final Logger logger = LoggerFactory.getLogger(SaleItemCategoryInitializer.class);
+    private static final long BATCH_SIZE = 10_000;
+
+    private final SaleItemRepository saleItemRepository;
+
+    // Sale items recorded before category snapshots existed take the product's current
+    // category, which is what the rollup and sales cube filed them under until now
+    @PostConstruct
+    public void init() {
+        Object[] range = saleItemRepository.findCategorySnapshotIdRange().get(0);
+        if (range[0] == null) {
+            return;
+        }
+        long minId = ((Number) range[0]).longValue();
+        long maxId = ((Number) range[1]).longValue();
+
+        int updated = 0;
+        // Id-range batches keep each update transaction short on large tables
+        for (long fromId = minId; fromId <= maxId; fromId += BATCH_SIZE) {
+            updated += saleItemRepository.backfillCategorySnapshot(fromId, Math.min(fromId + BATCH_SIZE - 1, maxId));
+        }
+        logger.info("Backfilled category snapshots on {} sale items", updated);
+    }
+}
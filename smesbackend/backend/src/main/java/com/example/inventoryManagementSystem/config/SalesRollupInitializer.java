@@ -0,0 +1,27 @@
+package com.example.inventoryManagementSystem.config;
+
+import com.example.inventoryManagementSystem.repository.DailySalesRollupRepository;
+import com.example.inventoryManagementSystem.repository.SaleRepository;
+import com.example.inventoryManagementSystem.service.SalesRollupService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+@Component
+// The rollup reads sale item cost and category snapshots, so those are backfilled first
+@DependsOn({"saleItemCostInitializer", "saleItemCategoryInitializer"})
+@RequiredArgsConstructor
+public class SalesRollupInitializer {
+    private final DailySalesRollupRepository rollupRepository;
+    private final SaleRepository saleRepository;
+    private final SalesRollupService salesRollupService;
+
+    // Backfill the rollup once for databases that predate it
+    @PostConstruct
+    public void init() {
+        if (rollupRepository.count() == 0 && saleRepository.count() > 0) {
+            salesRollupService.rebuild(null, null);
+        }
+    }
+}
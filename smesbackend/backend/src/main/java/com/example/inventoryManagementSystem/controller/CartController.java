@@ -1,5 +1,6 @@
 package com.example.inventoryManagementSystem.controller;
 
+import com.example.inventoryManagementSystem.config.IdempotencyStore;
 import com.example.inventoryManagementSystem.dto.request.*;
 import com.example.inventoryManagementSystem.dto.response.CartItemResponse;
 import com.example.inventoryManagementSystem.dto.response.CartResponse;
@@ -14,6 +15,7 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -21,10 +23,12 @@ import java.util.stream.Collectors;
 public class CartController {
     private final CartService cartService;
     private final SaleService saleService;
+    private final IdempotencyStore idempotencyStore;
 
-    public CartController(CartService cartService, SaleService saleService) {
+    public CartController(CartService cartService, SaleService saleService, IdempotencyStore idempotencyStore) {
         this.cartService = cartService;
         this.saleService = saleService;
+        this.idempotencyStore = idempotencyStore;
     }
 
     @GetMapping
@@ -41,6 +45,15 @@ public class CartController {
         return ResponseEntity.ok(cartService.addItemsToCart(username, requests));
     }
 
+    // Available-to-sell per product for this cart, answered from the reservation ledger
+    @GetMapping("/availability")
+    public ResponseEntity<Map<Long, Integer>> getAvailability(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam List<Long> productIds) {
+        String username = userDetails.getUsername();
+        return ResponseEntity.ok(cartService.getAvailability(username, productIds));
+    }
+
     @PutMapping("/{productId}")
     public ResponseEntity<CartItemResponse> updateCartItemQuantity(
             @AuthenticationPrincipal UserDetails userDetails,
@@ -70,8 +83,15 @@ public class CartController {
     @PostMapping("/checkout")
     public ResponseEntity<SaleResponse> checkout(
             @AuthenticationPrincipal UserDetails userDetails,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody CheckoutRequest request) {
         String username = userDetails.getUsername();
+        // A retried checkout finds the cart already cleared, so it must replay rather than rerun
+        return idempotencyStore.execute("cart.checkout", username, idempotencyKey, request,
+                () -> checkoutCart(username, request));
+    }
+
+    private ResponseEntity<SaleResponse> checkoutCart(String username, CheckoutRequest request) {
         CartResponse cart = cartService.getCart(username);
 
         if (cart.getItems().isEmpty()) {
@@ -0,0 +1,39 @@
+package com.example.inventoryManagementSystem.controller;
+
+import com.example.inventoryManagementSystem.config.IdempotencyStore;
+import com.example.inventoryManagementSystem.config.OptimisticRetryExecutor;
+import com.example.inventoryManagementSystem.service.StockReservationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/concurrency")
+@RequiredArgsConstructor
+public class ConcurrencyController {
+    private final OptimisticRetryExecutor optimisticRetryExecutor;
+    private final StockReservationService stockReservationService;
+    private final IdempotencyStore idempotencyStore;
+
+    // Attempt, conflict and retry counters of versioned writes, per operation
+    @GetMapping("/retry/stats")
+    public ResponseEntity<Map<String, Map<String, Long>>> getRetryStatistics() {
+        return ResponseEntity.ok(optimisticRetryExecutor.getStatistics());
+    }
+
+    // Tracked products, live cart holds and expiry/refusal counters of the reservation ledger
+    @GetMapping("/reservations/stats")
+    public ResponseEntity<Map<String, Object>> getReservationStatistics() {
+        return ResponseEntity.ok(stockReservationService.getStatistics());
+    }
+
+    // Stored responses, in-flight keys, replays and waits of the Idempotency-Key store
+    @GetMapping("/idempotency/stats")
+    public ResponseEntity<Map<String, Long>> getIdempotencyStatistics() {
+        return ResponseEntity.ok(idempotencyStore.getStatistics());
+    }
+}
@@ -6,6 +6,7 @@ import com.example.inventoryManagementSystem.model.Discount;
 import com.example.inventoryManagementSystem.model.Product;
 import com.example.inventoryManagementSystem.repository.DiscountRepository;
 import com.example.inventoryManagementSystem.repository.ProductRepository;
+import com.example.inventoryManagementSystem.service.DiscountIndex;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -20,6 +21,7 @@ import java.util.stream.Collectors;
 public class DiscountController {
     private final DiscountRepository discountRepository;
     private final ProductRepository productRepository;
+    private final DiscountIndex discountIndex;
 
     @PostMapping
     public ResponseEntity<Discount> createDiscount(@RequestBody DiscountRequest request) {
@@ -36,7 +38,9 @@ public class DiscountController {
                 .collect(Collectors.toSet());
 
         discount.setApplicableProducts(products);
-        return ResponseEntity.ok(discountRepository.save(discount));
+        Discount saved = discountRepository.save(discount);
+        discountIndex.refresh();
+        return ResponseEntity.ok(saved);
     }
 
     @GetMapping("/active")
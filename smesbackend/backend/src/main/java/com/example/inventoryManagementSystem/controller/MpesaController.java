@@ -1,5 +1,6 @@
 package com.example.inventoryManagementSystem.controller;
 
+import com.example.inventoryManagementSystem.config.IdempotencyStore;
 import com.example.inventoryManagementSystem.exception.MpesaAuthorization;
 import com.example.inventoryManagementSystem.model.MpesaTransactions;
 import com.example.inventoryManagementSystem.repository.MpesaTransactionRepository;
@@ -18,6 +19,8 @@ import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.io.IOException;
@@ -39,6 +42,7 @@ public class MpesaController {
 
     private final MpesaTransactionRepository mpesaTransactionsRepository;
     private final ObjectMapper objectMapper;
+    private final IdempotencyStore idempotencyStore;
 
 
     @Value("${mpesa.consumer.key}")
@@ -76,16 +80,26 @@ public class MpesaController {
     // Buffer time before actual expiry to refresh the token (e.g., 5 minutes)
     private static final long EXPIRY_BUFFER_SECONDS = 300;
 
-    public MpesaController(MpesaTransactionRepository mpesaTransactionsRepository, ObjectMapper objectMapper) {
+    public MpesaController(MpesaTransactionRepository mpesaTransactionsRepository, ObjectMapper objectMapper,
+                           IdempotencyStore idempotencyStore) {
         this.mpesaTransactionsRepository = mpesaTransactionsRepository;
         this.objectMapper = objectMapper;
+        this.idempotencyStore = idempotencyStore;
     }
 
     // New endpoint or integrated into a payment initiation method
     @PostMapping("/stkpush/initiate")
     public ResponseEntity<String> initiateStkPush(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
             @RequestBody StkPushInitiateRequest initiateRequest) {
+        String username = userDetails != null ? userDetails.getUsername() : null;
+        // A retried initiation must not send the customer a second payment prompt
+        return idempotencyStore.execute("mpesa.stkpush", username, idempotencyKey, initiateRequest,
+                () -> sendStkPush(initiateRequest));
+    }
 
+    private ResponseEntity<String> sendStkPush(StkPushInitiateRequest initiateRequest) {
         try {
             String accessToken = getAccessToken();
             if (accessToken == null) {
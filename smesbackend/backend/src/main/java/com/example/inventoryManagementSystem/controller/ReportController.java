@@ -1,8 +1,12 @@
 package com.example.inventoryManagementSystem.controller;
 
+import com.example.inventoryManagementSystem.config.ReportCacheManager;
 import com.example.inventoryManagementSystem.dto.request.ExportReportRequest;
 import com.example.inventoryManagementSystem.dto.response.*;
+import com.example.inventoryManagementSystem.service.PeriodCloseService;
 import com.example.inventoryManagementSystem.service.ReportService;
+import com.example.inventoryManagementSystem.service.SalesCubeService;
+import com.example.inventoryManagementSystem.service.SalesRollupService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.io.Resource;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -11,9 +15,12 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/reports")
@@ -21,6 +28,10 @@ import java.util.List;
 public class ReportController {
 
     private final ReportService reportService;
+    private final SalesRollupService salesRollupService;
+    private final ReportCacheManager reportCacheManager;
+    private final SalesCubeService salesCubeService;
+    private final PeriodCloseService periodCloseService;
 
     // Sales Reports
     @GetMapping("/sales/daily")
@@ -43,8 +54,9 @@ public class ReportController {
     public ResponseEntity<List<ProductPerformanceResponse>> getProductPerformanceReport(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
-            @RequestParam(required = false) Long categoryId) {
-        return ResponseEntity.ok(reportService.generateProductPerformanceReport(startDate, endDate, categoryId));
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(reportService.generateProductPerformanceReport(startDate, endDate, categoryId, limit));
     }
 
     @GetMapping("/products/sales-trend")
@@ -57,8 +69,15 @@ public class ReportController {
 
     // Inventory Reports
     @GetMapping("/inventory/valuation")
-    public ResponseEntity<List<InventoryValuationResponse>> getInventoryValuationReport() {
-        return ResponseEntity.ok(reportService.generateInventoryValuationReport());
+    public ResponseEntity<?> getInventoryValuationReport(
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sortBy,
+            @RequestParam(required = false) String direction) {
+        if (page == null || size == null) {
+            return ResponseEntity.ok(reportService.generateInventoryValuationReport(sortBy, direction));
+        }
+        return ResponseEntity.ok(reportService.generateInventoryValuationReport(page, size, sortBy, direction));
     }
 
     @GetMapping("/inventory/low-stock")
@@ -129,22 +148,78 @@ public class ReportController {
         return ResponseEntity.ok(reportService.generateSalesTrendReport(startDate, endDate, period));
     }
 
+    // Rebuild the daily sales rollup for a date range (defaults to all history)
+    @PostMapping("/rollup/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildSalesRollup(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        int rows = salesRollupService.rebuild(startDate, endDate);
+        return ResponseEntity.ok(Map.of("rowsWritten", rows));
+    }
+
+    // Hit/miss/eviction counters for the report and dashboard caches
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Map<String, Long>>> getCacheStatistics() {
+        return ResponseEntity.ok(reportCacheManager.getStatistics());
+    }
+
+    @DeleteMapping("/cache")
+    public ResponseEntity<Void> clearCache() {
+        reportCacheManager.clearAll();
+        return ResponseEntity.noContent().build();
+    }
+
+    // Load state, size and query counters of the in-memory sales cube
+    @GetMapping("/cube/stats")
+    public ResponseEntity<Map<String, Object>> getCubeStatistics() {
+        return ResponseEntity.ok(salesCubeService.getStatistics());
+    }
+
+    // Reload the sales cube from the database, e.g. after it went over its memory cap
+    @PostMapping("/cube/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildCube() {
+        int facts = salesCubeService.rebuild();
+        return ResponseEntity.ok(Map.of("factsLoaded", facts));
+    }
+
+    // Closed and reopened months, newest first
+    @GetMapping("/periods")
+    public ResponseEntity<List<PeriodSnapshotResponse>> getPeriods() {
+        return ResponseEntity.ok(periodCloseService.getPeriods());
+    }
+
+    // Freeze the P&L and cash-flow figures of an ended month, e.g. 2024-05
+    @PostMapping("/periods/{month}/close")
+    public ResponseEntity<PeriodSnapshotResponse> closePeriod(
+            @PathVariable @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
+        return ResponseEntity.ok(periodCloseService.closePeriod(month));
+    }
+
+    @PostMapping("/periods/{month}/reopen")
+    public ResponseEntity<PeriodSnapshotResponse> reopenPeriod(
+            @PathVariable @DateTimeFormat(pattern = "yyyy-MM") YearMonth month,
+            @RequestParam(required = false) String reason) {
+        return ResponseEntity.ok(periodCloseService.reopenPeriod(month, reason));
+    }
+
     // Export Functionality
     @PostMapping("/export")
-    public ResponseEntity<Resource> exportReport(@RequestBody ExportReportRequest request) {
+    public ResponseEntity<StreamingResponseBody> exportReport(@RequestBody ExportReportRequest request) {
         return reportService.exportReport(request);
     }
 
     @GetMapping("/export/sales")
-    public ResponseEntity<Resource> exportSalesReport(
+    public ResponseEntity<StreamingResponseBody> exportSalesReport(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
-            @RequestParam String format) {
+            @RequestParam String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
         ExportReportRequest request = new ExportReportRequest();
         request.setReportType(ExportReportRequest.ReportType.SALES);
         request.setStartDate(startDate);
         request.setEndDate(endDate);
         request.setFormat(ExportReportRequest.FormatType.valueOf(format.toUpperCase()));
+        request.setGzip(gzip);
         return reportService.exportReport(request);
     }
 
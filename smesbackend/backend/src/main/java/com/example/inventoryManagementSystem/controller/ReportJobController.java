@@ -0,0 +1,67 @@
+package com.example.inventoryManagementSystem.controller;
+
+import com.example.inventoryManagementSystem.dto.request.ExportReportRequest;
+import com.example.inventoryManagementSystem.dto.response.ReportJobResponse;
+import com.example.inventoryManagementSystem.service.ReportJobService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/reports/jobs")
+@RequiredArgsConstructor
+public class ReportJobController {
+
+    private final ReportJobService reportJobService;
+
+    @PostMapping
+    public ResponseEntity<ReportJobResponse> submitReport(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestBody ExportReportRequest request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(reportJobService.submitReport(userDetails.getUsername(), request));
+    }
+
+    @PostMapping("/dashboard")
+    public ResponseEntity<ReportJobResponse> submitDashboardPdf(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(reportJobService.submitDashboardPdf(userDetails.getUsername(), startDate, endDate));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ReportJobResponse>> getJobs(@AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.ok(reportJobService.getJobs(userDetails.getUsername()));
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ReportJobResponse> getJob(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @PathVariable String jobId) {
+        return ResponseEntity.ok(reportJobService.getJob(userDetails.getUsername(), jobId));
+    }
+
+    @GetMapping("/{jobId}/download")
+    public ResponseEntity<Resource> downloadResult(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @PathVariable String jobId) {
+        return reportJobService.downloadResult(userDetails.getUsername(), jobId);
+    }
+
+    @DeleteMapping("/{jobId}")
+    public ResponseEntity<ReportJobResponse> cancelJob(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @PathVariable String jobId) {
+        return ResponseEntity.ok(reportJobService.cancelJob(userDetails.getUsername(), jobId));
+    }
+}
@@ -1,15 +1,20 @@
 package com.example.inventoryManagementSystem.controller;
 
+import com.example.inventoryManagementSystem.config.IdempotencyStore;
 import com.example.inventoryManagementSystem.dto.request.ApplyDiscountRequest;
 import com.example.inventoryManagementSystem.dto.request.SaleRequest;
+import com.example.inventoryManagementSystem.dto.response.BatchSaleResponse;
 import com.example.inventoryManagementSystem.dto.response.DailySummaryResponse;
 import com.example.inventoryManagementSystem.dto.response.ReceiptResponse;
+import com.example.inventoryManagementSystem.dto.response.SalePageResponse;
 import com.example.inventoryManagementSystem.dto.response.SaleResponse;
 import com.example.inventoryManagementSystem.dto.response.SalesTrendResponse;
 import com.example.inventoryManagementSystem.service.SaleService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
@@ -21,6 +26,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class SaleController {
     private final SaleService saleService;
+    private final IdempotencyStore idempotencyStore;
 
     @GetMapping
     public ResponseEntity<List<SaleResponse>> getAllSales(
@@ -29,9 +35,39 @@ public class SaleController {
         return ResponseEntity.ok(saleService.getAllSales(startDate, endDate));
     }
 
+    // Keyset-paginated list rows without line items; follow nextCursor for older sales
+    @GetMapping("/page")
+    public ResponseEntity<SalePageResponse> getSalesPage(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long customerId,
+            @RequestParam(required = false) String cashier,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(saleService.getSalesPage(startDate, endDate, status, customerId, cashier, cursor, size));
+    }
+
+    // A POS retrying with the same Idempotency-Key gets the first sale back instead of a duplicate
     @PostMapping
-    public ResponseEntity<SaleResponse> createSale(@RequestBody SaleRequest saleRequest) {
-        return ResponseEntity.ok(saleService.createSale(saleRequest));
+    public ResponseEntity<SaleResponse> createSale(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            @RequestBody SaleRequest saleRequest) {
+        String username = userDetails != null ? userDetails.getUsername() : null;
+        return idempotencyStore.execute("sale.create", username, idempotencyKey, saleRequest,
+                () -> ResponseEntity.ok(saleService.createSale(saleRequest)));
+    }
+
+    // Offline tills upload their queued sales here; rejected sales are reported per index
+    @PostMapping("/batch")
+    public ResponseEntity<BatchSaleResponse> createSalesBatch(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            @RequestBody List<SaleRequest> saleRequests) {
+        String username = userDetails != null ? userDetails.getUsername() : null;
+        return idempotencyStore.execute("sale.batch", username, idempotencyKey, saleRequests,
+                () -> ResponseEntity.ok(saleService.createSalesBatch(saleRequests)));
     }
 
     @GetMapping("/{id}")
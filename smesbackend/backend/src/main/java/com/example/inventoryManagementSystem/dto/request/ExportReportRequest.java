@@ -15,6 +15,9 @@ public class ExportReportRequest {
     private LocalDate startDate;
     private LocalDate endDate;
 
+    // CSV only: gzip the stream and send it as a .csv.gz attachment
+    private boolean gzip;
+
     public enum ReportType {
         PROFIT_LOSS,
         SALES,
@@ -4,6 +4,7 @@ import lombok.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.NotEmpty;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Data
@@ -22,4 +23,7 @@ public class SaleRequest {
     private BigDecimal discountAmount;
     private BigDecimal total;
     private String appliedDiscountCode;
+
+    // When the till made the sale; only offline batches use it, live sales are dated on arrival
+    private LocalDateTime saleDate;
 }
\ No newline at end of file
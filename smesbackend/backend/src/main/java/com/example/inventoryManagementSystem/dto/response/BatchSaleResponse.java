@@ -0,0 +1,15 @@
+package com.example.inventoryManagementSystem.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BatchSaleResponse {
+    private int received;
+    private int created;
+    private int rejected;
+    private List<BatchSaleResultResponse> results;
+}
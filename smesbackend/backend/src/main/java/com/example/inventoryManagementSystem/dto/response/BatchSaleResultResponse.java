@@ -0,0 +1,17 @@
+package com.example.inventoryManagementSystem.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+public class BatchSaleResultResponse {
+    // Position of the sale in the submitted batch
+    private int index;
+    private String status;
+    private Long saleId;
+    private BigDecimal total;
+    private String error;
+}
@@ -11,5 +11,6 @@ public class InventoryValuationResponse {
     private int quantity;
     private BigDecimal unitCost;
     private BigDecimal totalValue;
+    private long unitsSold;
     private BigDecimal inventoryTurnover;
 }
\ No newline at end of file
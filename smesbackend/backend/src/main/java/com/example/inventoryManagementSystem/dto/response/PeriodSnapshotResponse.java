@@ -0,0 +1,26 @@
+package com.example.inventoryManagementSystem.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class PeriodSnapshotResponse {
+    private LocalDate periodStart;
+    private LocalDate periodEnd;
+    private String status;
+    private BigDecimal salesRevenue;
+    private BigDecimal discountAmount;
+    private BigDecimal cost;
+    private long unitsSold;
+    private BigDecimal expenses;
+    private BigDecimal purchases;
+    private BigDecimal netProfit;
+    private LocalDateTime closedAt;
+    private LocalDateTime reopenedAt;
+    private String reopenReason;
+}
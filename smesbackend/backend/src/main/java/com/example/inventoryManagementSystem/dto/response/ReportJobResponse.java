@@ -0,0 +1,22 @@
+package com.example.inventoryManagementSystem.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class ReportJobResponse {
+    private String jobId;
+    private String reportType;
+    private String status;
+    private String filename;
+    private long bytesWritten;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private LocalDateTime expiresAt;
+    private String error;
+    private String downloadUrl;
+}
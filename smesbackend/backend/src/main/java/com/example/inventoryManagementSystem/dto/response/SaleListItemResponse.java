@@ -0,0 +1,23 @@
+package com.example.inventoryManagementSystem.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class SaleListItemResponse {
+    private Long id;
+    private LocalDateTime saleDate;
+    private Long customerId;
+    private String customerName;
+    private String cashier;
+    private String status;
+    private long itemCount;
+    private BigDecimal subtotal;
+    private BigDecimal discountAmount;
+    private BigDecimal total;
+    private BigDecimal profit;
+}
@@ -0,0 +1,15 @@
+package com.example.inventoryManagementSystem.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class SalePageResponse {
+    private List<SaleListItemResponse> sales;
+    // Pass back as the cursor parameter for the next page; null on the last page
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -13,6 +13,7 @@ public class SaleResponse {
     private Long id;
     private LocalDateTime saleDate;
     private String customerName;
+    private String cashier;
     private List<SaleItemResponse> items;
     private BigDecimal subtotal;
     private BigDecimal taxAmount;
@@ -0,0 +1,34 @@
+package com.example.inventoryManagementSystem.event;
+
+import java.time.LocalDate;
+
+/**
+ * Published when a write changes data that reports aggregate over the given
+ * business-date range (inclusive). Cached reports overlapping the range are dropped
+ * once the publishing transaction commits.
+ */
+public class ReportDataChangedEvent {
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+
+    public ReportDataChangedEvent(LocalDate startDate, LocalDate endDate) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    public static ReportDataChangedEvent forDay(LocalDate day) {
+        return new ReportDataChangedEvent(day, day);
+    }
+
+    public static ReportDataChangedEvent forAllTime() {
+        return new ReportDataChangedEvent(LocalDate.MIN, LocalDate.MAX);
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+}
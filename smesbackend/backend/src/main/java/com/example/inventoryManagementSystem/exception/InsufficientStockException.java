@@ -1,24 +1,46 @@
 package com.example.inventoryManagementSystem.exception;
 
+import com.example.inventoryManagementSystem.service.StockMutationService.StockChange;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
 @ResponseStatus(HttpStatus.BAD_REQUEST)
 public class InsufficientStockException extends RuntimeException {
 
+    private final List<StockChange> failedChanges;
+
     public InsufficientStockException() {
         super();
+        this.failedChanges = Collections.emptyList();
     }
 
     public InsufficientStockException(String message) {
         super(message);
+        this.failedChanges = Collections.emptyList();
     }
 
     public InsufficientStockException(String message, Throwable cause) {
         super(message, cause);
+        this.failedChanges = Collections.emptyList();
     }
 
     public InsufficientStockException(Throwable cause) {
         super(cause);
+        this.failedChanges = Collections.emptyList();
+    }
+
+    public InsufficientStockException(List<StockChange> failedChanges) {
+        super("Insufficient stock for: " + failedChanges.stream()
+                .map(StockChange::toString)
+                .collect(Collectors.joining(", ")));
+        this.failedChanges = Collections.unmodifiableList(failedChanges);
+    }
+
+    public List<StockChange> getFailedChanges() {
+        return failedChanges;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,64 @@
+package com.example.inventoryManagementSystem.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated sales facts, one row per day x product x category x status.
+ * Maintained incrementally by the sale lifecycle and rebuildable from sale_items.
+ */
+@Entity
+@Table(name = "daily_sales_rollup",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"sale_day", "product_id", "category_id", "status"}),
+        indexes = @Index(name = "idx_daily_sales_rollup_day_status", columnList = "sale_day, status"))
+@Data
+public class DailySalesRollup {
+    // Category key for products without a category; a NULL key would never match the unique constraint
+    public static final long UNCATEGORIZED = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "sale_day", nullable = false)
+    private LocalDate saleDay;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId = UNCATEGORIZED;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Sale.SaleStatus status;
+
+    @Column(nullable = false)
+    private long quantity;
+
+    @Column(name = "line_count", nullable = false)
+    private long lineCount;
+
+    @Column(name = "revenue", precision = 19, scale = 2, nullable = false)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    @Column(name = "discount_amount", precision = 19, scale = 2, nullable = false)
+    private BigDecimal discountAmount = BigDecimal.ZERO;
+
+    @Column(name = "cost", precision = 19, scale = 2, nullable = false)
+    private BigDecimal cost = BigDecimal.ZERO;
+
+    // Category key a sale line is recorded under: the snapshot taken at sale time, so a refund
+    // or cancel after the product moved category lands on the same row. Lines that predate the
+    // snapshot fall back to the product's current category.
+    public static long categoryAtSale(SaleItem item) {
+        if (item.getCategoryId() != null) {
+            return item.getCategoryId();
+        }
+        Product product = item.getProduct();
+        return product.getCategory() != null ? product.getCategory().getId() : UNCATEGORIZED;
+    }
+}
@@ -6,6 +6,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
+@Table(indexes = @Index(name = "idx_expenses_date", columnList = "date"))
 @Data
 public class Expense {
     @Id
@@ -16,7 +16,8 @@ import java.time.LocalDate;
 @Table(name = "inventory_adjustments")
 public class InventoryAdjustment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_adjustment_id_gen")
+    @SequenceGenerator(name = "inventory_adjustment_id_gen", sequenceName = "inventory_adjustments_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
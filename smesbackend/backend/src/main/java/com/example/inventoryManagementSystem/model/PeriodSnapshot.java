@@ -0,0 +1,67 @@
+package com.example.inventoryManagementSystem.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Additive P&L and cash-flow figures of one closed calendar month. Reports covering a
+ * closed month read these instead of recomputing it; a write dated inside the month
+ * reopens it, after which it is recomputed from live data until closed again.
+ */
+@Entity
+@Table(name = "period_snapshots",
+        uniqueConstraints = @UniqueConstraint(columnNames = "period_start"))
+@Data
+public class PeriodSnapshot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(name = "period_end", nullable = false)
+    private LocalDate periodEnd;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private PeriodStatus status;
+
+    // Completed-sale subtotals before discounts
+    @Column(name = "sales_revenue", precision = 19, scale = 2, nullable = false)
+    private BigDecimal salesRevenue = BigDecimal.ZERO;
+
+    @Column(name = "discount_amount", precision = 19, scale = 2, nullable = false)
+    private BigDecimal discountAmount = BigDecimal.ZERO;
+
+    @Column(name = "cost", precision = 19, scale = 2, nullable = false)
+    private BigDecimal cost = BigDecimal.ZERO;
+
+    @Column(name = "units_sold", nullable = false)
+    private long unitsSold;
+
+    @Column(name = "expenses", precision = 19, scale = 2, nullable = false)
+    private BigDecimal expenses = BigDecimal.ZERO;
+
+    // Received purchases ordered in the month
+    @Column(name = "purchases", precision = 19, scale = 2, nullable = false)
+    private BigDecimal purchases = BigDecimal.ZERO;
+
+    @Column(name = "closed_at")
+    private LocalDateTime closedAt;
+
+    @Column(name = "reopened_at")
+    private LocalDateTime reopenedAt;
+
+    @Column(name = "reopen_reason")
+    private String reopenReason;
+
+    public enum PeriodStatus {
+        CLOSED,
+        REOPENED
+    }
+}
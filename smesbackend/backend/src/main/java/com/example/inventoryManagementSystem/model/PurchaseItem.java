@@ -10,7 +10,8 @@ import java.math.BigDecimal;
 @Data
 public class PurchaseItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "purchase_item_id_gen")
+    @SequenceGenerator(name = "purchase_item_id_gen", sequenceName = "purchase_items_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -1,5 +1,6 @@
 package com.example.inventoryManagementSystem.model;
 
+import com.example.inventoryManagementSystem.util.MoneyAccumulator;
 import jakarta.persistence.*;
 import lombok.Data;
 
@@ -9,16 +10,31 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "sales")
+@Table(name = "sales", indexes = {
+        // Range scans over completed sales for trends and reports
+        @Index(name = "idx_sales_status_date", columnList = "status, sale_date"),
+        // Keyset pagination of the sales list, newest first
+        @Index(name = "idx_sales_date_id", columnList = "sale_date, id")
+})
 @Data
 public class Sale {
+    // Pooled sequence ids let Hibernate batch inserts; IDENTITY forces one round trip per row
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sale_id_gen")
+    @SequenceGenerator(name = "sale_id_gen", sequenceName = "sales_seq", allocationSize = 50)
     private Long id;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     @Column(name = "applied_discount_code")
     private String appliedDiscountCode;
 
+    // Username of the user who rang up the sale
+    @Column(name = "cashier", length = 100)
+    private String cashier;
+
     @ManyToOne
     @JoinColumn(name = "customer_id", nullable = false)
     private Customer customer;
@@ -52,25 +68,19 @@ public class Sale {
     }
 
     public void calculateTotals() {
-        this.subtotal = items.stream()
-                .map(item -> item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        this.discountAmount = items.stream()
-                .map(SaleItem::getDiscountAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
+        MoneyAccumulator subtotalCents = new MoneyAccumulator();
+        MoneyAccumulator discountCents = new MoneyAccumulator();
+        MoneyAccumulator costCents = new MoneyAccumulator();
+        for (SaleItem item : items) {
+            subtotalCents.addLine(item.getUnitPrice(), item.getQuantity());
+            discountCents.add(item.getDiscountAmount());
+            costCents.add(item.getCostAmount());
+        }
+
+        this.subtotal = subtotalCents.toBigDecimal();
+        this.discountAmount = discountCents.toBigDecimal();
         this.total = subtotal.subtract(discountAmount);
-
-        this.profit = items.stream()
-                .map(item -> {
-                    BigDecimal revenue = item.getUnitPrice()
-                            .multiply(BigDecimal.valueOf(item.getQuantity()));
-                    BigDecimal cost = BigDecimal.valueOf(item.getProduct().getCostPrice())
-                            .multiply(BigDecimal.valueOf(item.getQuantity()));
-                    return revenue.subtract(cost);
-                })
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        this.profit = MoneyAccumulator.toBigDecimal(Math.subtractExact(subtotalCents.cents(), costCents.cents()));
     }
 
     public BigDecimal getTotalAmount() {
@@ -7,11 +7,15 @@ import java.math.BigDecimal;
 
 
 @Entity
-@Table(name = "sale_items")
+@Table(name = "sale_items", indexes = {
+        // Covers the profit and COGS aggregates so they never need the products table
+        @Index(name = "idx_sale_items_sale_totals", columnList = "sale_id, total_price, cost_amount")
+})
 @Data
 public class SaleItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sale_item_id_gen")
+    @SequenceGenerator(name = "sale_item_id_gen", sequenceName = "sale_items_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -26,6 +30,18 @@ public class SaleItem {
     @Column(name = "total_price", precision = 19, scale = 2)
     private BigDecimal totalPrice;
 
+    // Product cost at the time of sale, so later cost changes leave historical margins alone
+    @Column(name = "unit_cost", precision = 19, scale = 2)
+    private BigDecimal unitCost;
+
+    @Column(name = "cost_amount", precision = 19, scale = 2)
+    private BigDecimal costAmount;
+
+    // Product category at the time of sale, or DailySalesRollup.UNCATEGORIZED, so moving a
+    // product to another category leaves its past sales where they were recorded
+    @Column(name = "category_id")
+    private Long categoryId;
+
     @ManyToOne
     @JoinColumn(name = "sale_id", nullable = false)
     private Sale sale;
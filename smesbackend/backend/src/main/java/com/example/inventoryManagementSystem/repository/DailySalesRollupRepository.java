@@ -0,0 +1,114 @@
+package com.example.inventoryManagementSystem.repository;
+
+import com.example.inventoryManagementSystem.model.DailySalesRollup;
+import com.example.inventoryManagementSystem.model.Sale.SaleStatus;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+@Repository
+public interface DailySalesRollupRepository extends JpaRepository<DailySalesRollup, Long> {
+
+    String UPSERT_ADD = "quantity = daily_sales_rollup.quantity + EXCLUDED.quantity, " +
+            "line_count = daily_sales_rollup.line_count + EXCLUDED.line_count, " +
+            "revenue = daily_sales_rollup.revenue + EXCLUDED.revenue, " +
+            "discount_amount = daily_sales_rollup.discount_amount + EXCLUDED.discount_amount, " +
+            "cost = daily_sales_rollup.cost + EXCLUDED.cost";
+
+    // Adds a delta to the rollup row, creating it if missing, in one statement so concurrent
+    // first sales of a product on the same day cannot both insert
+    @Modifying
+    @Query(value = "INSERT INTO daily_sales_rollup " +
+            "(sale_day, product_id, category_id, status, quantity, line_count, revenue, discount_amount, cost) " +
+            "VALUES (:saleDay, :productId, :categoryId, :status, :quantity, :lineCount, :revenue, :discountAmount, :cost) " +
+            "ON CONFLICT (sale_day, product_id, category_id, status) DO UPDATE SET " + UPSERT_ADD,
+            nativeQuery = true)
+    int upsertDelta(@Param("saleDay") LocalDate saleDay,
+                    @Param("productId") Long productId,
+                    @Param("categoryId") Long categoryId,
+                    @Param("status") String status,
+                    @Param("quantity") long quantity,
+                    @Param("lineCount") long lineCount,
+                    @Param("revenue") BigDecimal revenue,
+                    @Param("discountAmount") BigDecimal discountAmount,
+                    @Param("cost") BigDecimal cost);
+
+    @Modifying
+    @Query("DELETE FROM DailySalesRollup r WHERE r.saleDay BETWEEN :startDate AND :endDate")
+    int deleteBySaleDayBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // Range totals: revenue, discounts, cost, units
+    @Query("SELECT COALESCE(SUM(r.revenue), 0), COALESCE(SUM(r.discountAmount), 0), " +
+            "COALESCE(SUM(r.cost), 0), COALESCE(SUM(r.quantity), 0) " +
+            "FROM DailySalesRollup r WHERE r.status = :status AND r.saleDay BETWEEN :startDate AND :endDate")
+    List<Object[]> sumTotals(@Param("status") SaleStatus status,
+                             @Param("startDate") LocalDate startDate,
+                             @Param("endDate") LocalDate endDate);
+
+    // Per-day revenue, discounts and cost
+    @Query("SELECT r.saleDay, SUM(r.revenue), SUM(r.discountAmount), SUM(r.cost) " +
+            "FROM DailySalesRollup r WHERE r.status = :status AND r.saleDay BETWEEN :startDate AND :endDate " +
+            "GROUP BY r.saleDay ORDER BY r.saleDay")
+    List<Object[]> sumByDay(@Param("status") SaleStatus status,
+                            @Param("startDate") LocalDate startDate,
+                            @Param("endDate") LocalDate endDate);
+
+    // Per-product units, revenue and cost with the product and category names; page to take the top N
+    @Query("SELECT r.productId, p.name, c.name, SUM(r.quantity), SUM(r.revenue), SUM(r.cost) " +
+            "FROM DailySalesRollup r JOIN Product p ON p.id = r.productId LEFT JOIN p.category c " +
+            "WHERE r.status = :status AND r.saleDay BETWEEN :startDate AND :endDate " +
+            "AND (:categoryId IS NULL OR r.categoryId = :categoryId) " +
+            "GROUP BY r.productId, p.name, c.name " +
+            "ORDER BY SUM(r.revenue) DESC")
+    List<Object[]> sumByProduct(@Param("status") SaleStatus status,
+                                @Param("startDate") LocalDate startDate,
+                                @Param("endDate") LocalDate endDate,
+                                @Param("categoryId") Long categoryId,
+                                Pageable pageable);
+
+    // Per-day, per-product units sold
+    @Query("SELECT r.saleDay, r.productId, p.name, SUM(r.quantity) " +
+            "FROM DailySalesRollup r JOIN Product p ON p.id = r.productId " +
+            "WHERE r.status = :status AND r.saleDay BETWEEN :startDate AND :endDate " +
+            "AND (:productId IS NULL OR r.productId = :productId) " +
+            "GROUP BY r.saleDay, r.productId, p.name " +
+            "ORDER BY r.saleDay")
+    List<Object[]> sumByDayAndProduct(@Param("status") SaleStatus status,
+                                      @Param("startDate") LocalDate startDate,
+                                      @Param("endDate") LocalDate endDate,
+                                      @Param("productId") Long productId);
+
+    // Same rows as sumByDayAndProduct, read through a server-side cursor for exports
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT r.saleDay, r.productId, p.name, SUM(r.quantity) " +
+            "FROM DailySalesRollup r JOIN Product p ON p.id = r.productId " +
+            "WHERE r.status = :status AND r.saleDay BETWEEN :startDate AND :endDate " +
+            "AND (:productId IS NULL OR r.productId = :productId) " +
+            "GROUP BY r.saleDay, r.productId, p.name " +
+            "ORDER BY r.saleDay")
+    Stream<Object[]> streamByDayAndProduct(@Param("status") SaleStatus status,
+                                           @Param("startDate") LocalDate startDate,
+                                           @Param("endDate") LocalDate endDate,
+                                           @Param("productId") Long productId);
+
+    // All-time best sellers by units
+    @Query("SELECT r.productId, p.name, p.imageUrl, SUM(r.quantity), SUM(r.revenue) " +
+            "FROM DailySalesRollup r JOIN Product p ON p.id = r.productId " +
+            "WHERE r.status = :status " +
+            "GROUP BY r.productId, p.name, p.imageUrl " +
+            "ORDER BY SUM(r.quantity) DESC")
+    List<Object[]> findTopProductsByUnits(@Param("status") SaleStatus status, Pageable pageable);
+}
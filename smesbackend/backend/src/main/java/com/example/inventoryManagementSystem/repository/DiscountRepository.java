@@ -24,6 +24,12 @@ public interface DiscountRepository extends JpaRepository<Discount, Long> {
 
     Optional<Discount> findByCode(String code);
 
+    // Every discount once per linked product, null product id if it has none:
+    // [id, code, percentage, validFrom, validTo, description, productId]
+    @Query("SELECT d.id, d.code, d.percentage, d.validFrom, d.validTo, d.description, p.id " +
+            "FROM Discount d LEFT JOIN d.applicableProducts p")
+    List<Object[]> findIndexRows();
+
     @Query("SELECT d FROM Discount d JOIN d.applicableProducts p WHERE " +
             "p = :product AND " +
             "(d.validFrom IS NULL OR CURRENT_TIMESTAMP >= d.validFrom) AND " +
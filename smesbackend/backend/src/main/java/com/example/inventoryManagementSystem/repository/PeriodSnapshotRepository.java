@@ -0,0 +1,32 @@
+package com.example.inventoryManagementSystem.repository;
+
+import com.example.inventoryManagementSystem.model.PeriodSnapshot;
+import com.example.inventoryManagementSystem.model.PeriodSnapshot.PeriodStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PeriodSnapshotRepository extends JpaRepository<PeriodSnapshot, Long> {
+
+    Optional<PeriodSnapshot> findByPeriodStart(LocalDate periodStart);
+
+    // One row per month at most, so callers filter the range in memory
+    List<PeriodSnapshot> findByStatusOrderByPeriodStart(PeriodStatus status);
+
+    List<PeriodSnapshot> findAllByOrderByPeriodStartDesc();
+
+    // [salesRevenue, discounts, cost, units, expenses, purchases] over the closed months inside a range
+    @Query("SELECT COALESCE(SUM(p.salesRevenue), 0), COALESCE(SUM(p.discountAmount), 0), COALESCE(SUM(p.cost), 0), " +
+            "COALESCE(SUM(p.unitsSold), 0), COALESCE(SUM(p.expenses), 0), COALESCE(SUM(p.purchases), 0) " +
+            "FROM PeriodSnapshot p WHERE p.status = :status " +
+            "AND p.periodStart >= :startDate AND p.periodEnd <= :endDate")
+    List<Object[]> sumFigures(@Param("status") PeriodStatus status,
+                              @Param("startDate") LocalDate startDate,
+                              @Param("endDate") LocalDate endDate);
+}
@@ -2,13 +2,23 @@ package com.example.inventoryManagementSystem.repository;
 
 import com.example.inventoryManagementSystem.model.Product;
 import com.example.inventoryManagementSystem.model.Supplier;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
@@ -55,6 +65,27 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT COUNT(p) FROM Product p")
     long countAllProducts();
 
+    // Per-product stock valuation and all-time units sold; the select aliases are the sortable keys
+    @Query("SELECT p.id AS productId, p.name AS productName, p.quantityInStock AS quantity, " +
+            "p.costPrice AS unitCost, p.costPrice * p.quantityInStock AS totalValue, " +
+            "COALESCE(SUM(si.quantity), 0) AS unitsSold " +
+            "FROM Product p LEFT JOIN SaleItem si ON si.product = p " +
+            "GROUP BY p.id, p.name, p.quantityInStock, p.costPrice")
+    List<Object[]> findInventoryValuation(Sort sort);
+
+    @Query(value = "SELECT p.id AS productId, p.name AS productName, p.quantityInStock AS quantity, " +
+            "p.costPrice AS unitCost, p.costPrice * p.quantityInStock AS totalValue, " +
+            "COALESCE(SUM(si.quantity), 0) AS unitsSold " +
+            "FROM Product p LEFT JOIN SaleItem si ON si.product = p " +
+            "GROUP BY p.id, p.name, p.quantityInStock, p.costPrice",
+            countQuery = "SELECT COUNT(p) FROM Product p")
+    Page<Object[]> findInventoryValuation(Pageable pageable);
+
+    // Returns a single [inventoryValue, belowReorderLevelCount] row
+    @Query("SELECT COALESCE(SUM(p.costPrice * p.quantityInStock), 0), " +
+            "COALESCE(SUM(CASE WHEN p.quantityInStock < p.reorderLevel THEN 1 ELSE 0 END), 0) FROM Product p")
+    List<Object[]> summarizeInventory();
+
     @Query(value = "SELECT p FROM Product p ORDER BY p.quantityInStock ASC LIMIT :limit", nativeQuery = true)
     List<Product> findTopLowStockProducts(@Param("limit") int limit);
 
@@ -66,4 +97,20 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 
     boolean existsBySku(String sku);
     boolean existsByBarcode(String barcode);
-}
\ No newline at end of file
+
+    // Flat export rows with related names joined in, read through a server-side cursor
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT p.id, p.name, p.description, p.sku, p.barcode, p.price, p.costPrice, p.quantityInStock, " +
+            "p.lowStockThreshold, s.id, s.companyName, c.id, c.name, b.id, b.name, u.id, u.name, p.expiryDate, p.imageUrl " +
+            "FROM Product p LEFT JOIN p.supplier s LEFT JOIN p.category c LEFT JOIN p.brand b LEFT JOIN p.unit u " +
+            "ORDER BY p.id")
+    Stream<Object[]> streamExportRows();
+
+    // Product and category names for a set of ids, as [id, name, categoryName]
+    @Query("SELECT p.id, p.name, c.name FROM Product p LEFT JOIN p.category c WHERE p.id IN :ids")
+    List<Object[]> findNamesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Current stock as [id, quantityInStock] for a set of ids
+    @Query("SELECT p.id, p.quantityInStock FROM Product p WHERE p.id IN :ids")
+    List<Object[]> findStockByIdIn(@Param("ids") Collection<Long> ids);
+}
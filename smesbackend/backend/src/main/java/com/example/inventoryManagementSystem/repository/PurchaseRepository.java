@@ -3,14 +3,20 @@ package com.example.inventoryManagementSystem.repository;
 import com.example.inventoryManagementSystem.model.Purchase;
 import com.example.inventoryManagementSystem.model.Purchase.PurchaseStatus;
 import com.example.inventoryManagementSystem.model.Supplier;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface PurchaseRepository extends JpaRepository<Purchase, Long> {
 
@@ -53,4 +59,16 @@ public interface PurchaseRepository extends JpaRepository<Purchase, Long> {
     Optional<Purchase> findByIdWithItems(@Param("id") Long id);
 
     List<Purchase> findBySupplierAndOrderDateBetween(Supplier supplier, LocalDateTime startDate, LocalDateTime endDate);
+
+    // [supplierId, supplierName, totalAmount, deliveryDate, expectedDeliveryDate] per purchase, optionally for
+    // one supplier, read through a server-side cursor; must be consumed inside a transaction and closed
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT s.id, s.companyName, p.totalAmount, p.deliveryDate, p.expectedDeliveryDate " +
+            "FROM Purchase p JOIN p.supplier s " +
+            "WHERE p.status = :status AND p.orderDate BETWEEN :startDate AND :endDate " +
+            "AND (:supplierId IS NULL OR s.id = :supplierId)")
+    Stream<Object[]> streamPurchaseFacts(@Param("status") PurchaseStatus status,
+                                         @Param("startDate") LocalDateTime startDate,
+                                         @Param("endDate") LocalDateTime endDate,
+                                         @Param("supplierId") Long supplierId);
 }
\ No newline at end of file
@@ -3,14 +3,23 @@ package com.example.inventoryManagementSystem.repository;
 import com.example.inventoryManagementSystem.model.Product;
 import com.example.inventoryManagementSystem.model.Sale;
 import com.example.inventoryManagementSystem.model.SaleItem;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface SaleItemRepository extends JpaRepository<SaleItem, Long> {
@@ -45,7 +54,7 @@ public interface SaleItemRepository extends JpaRepository<SaleItem, Long> {
     BigDecimal sumTotalRevenueFromCompletedSales();
 
     // Calculate total cost from completed sales
-    @Query("SELECT COALESCE(SUM(si.quantity * p.costPrice), 0) FROM SaleItem si JOIN si.product p WHERE si.sale.status = 'COMPLETED'")
+    @Query("SELECT COALESCE(SUM(si.costAmount), 0) FROM SaleItem si WHERE si.sale.status = 'COMPLETED'")
     BigDecimal sumTotalCostFromCompletedSales();
 
     // Find sale items with product details for a specific sale
@@ -53,8 +62,8 @@ public interface SaleItemRepository extends JpaRepository<SaleItem, Long> {
     List<SaleItem> findBySaleIdWithProduct(@Param("saleId") Long saleId);
 
     // Calculate profit for a specific product
-    @Query("SELECT COALESCE(SUM(si.totalPrice - (si.quantity * p.costPrice)), 0) " +
-            "FROM SaleItem si JOIN si.product p " +
+    @Query("SELECT COALESCE(SUM(si.totalPrice - si.costAmount), 0) " +
+            "FROM SaleItem si " +
             "WHERE si.product = :product AND si.sale.status = 'COMPLETED'")
     BigDecimal calculateProfitByProduct(@Param("product") Product product);
 
@@ -75,4 +84,72 @@ public interface SaleItemRepository extends JpaRepository<SaleItem, Long> {
     // Get sales items with discounts
     @Query("SELECT si FROM SaleItem si WHERE si.discountAmount > 0")
     List<SaleItem> findDiscountedItems();
-}
\ No newline at end of file
+
+    // Rollup facts per day, product, category and status; sale-level discount allocated pro rata to lines
+    @Query("SELECT CAST(s.saleDate AS LocalDate), p.id, COALESCE(si.categoryId, cat.id, 0), s.status, " +
+            "COALESCE(SUM(si.quantity), 0), COUNT(si.id), COALESCE(SUM(si.totalPrice), 0), " +
+            "COALESCE(SUM(CASE WHEN s.subtotal > 0 THEN s.discountAmount * si.totalPrice / s.subtotal ELSE 0 END), 0), " +
+            "COALESCE(SUM(si.costAmount), 0) " +
+            "FROM SaleItem si JOIN si.sale s JOIN si.product p LEFT JOIN p.category cat " +
+            "WHERE s.saleDate BETWEEN :startDate AND :endDate AND s.status IS NOT NULL " +
+            "GROUP BY CAST(s.saleDate AS LocalDate), p.id, COALESCE(si.categoryId, cat.id, 0), s.status")
+    List<Object[]> aggregateForRollup(@Param("startDate") LocalDateTime startDate,
+                                      @Param("endDate") LocalDateTime endDate);
+
+    // Range totals straight from sale lines, same layout as DailySalesRollupRepository.sumTotals
+    @Query("SELECT COALESCE(SUM(si.totalPrice), 0), " +
+            "COALESCE(SUM(CASE WHEN s.subtotal > 0 THEN s.discountAmount * si.totalPrice / s.subtotal ELSE 0 END), 0), " +
+            "COALESCE(SUM(si.costAmount), 0), COALESCE(SUM(si.quantity), 0) " +
+            "FROM SaleItem si JOIN si.sale s " +
+            "WHERE s.status = :status AND s.saleDate BETWEEN :startDate AND :endDate")
+    List<Object[]> sumTotals(@Param("status") Sale.SaleStatus status,
+                             @Param("startDate") LocalDateTime startDate,
+                             @Param("endDate") LocalDateTime endDate);
+
+    // Per-product totals straight from sale lines, same layout as DailySalesRollupRepository.sumByProduct
+    @Query("SELECT p.id, p.name, c.name, SUM(si.quantity), SUM(si.totalPrice), SUM(si.costAmount) " +
+            "FROM SaleItem si JOIN si.sale s JOIN si.product p LEFT JOIN p.category c " +
+            "WHERE s.status = :status AND s.saleDate BETWEEN :startDate AND :endDate " +
+            "AND (:categoryId IS NULL OR COALESCE(si.categoryId, c.id, 0) = :categoryId) " +
+            "GROUP BY p.id, p.name, c.name " +
+            "ORDER BY SUM(si.totalPrice) DESC")
+    List<Object[]> sumByProduct(@Param("status") Sale.SaleStatus status,
+                                @Param("startDate") LocalDateTime startDate,
+                                @Param("endDate") LocalDateTime endDate,
+                                @Param("categoryId") Long categoryId,
+                                Pageable pageable);
+
+    // Id bounds of rows still missing a cost snapshot, as a single [min, max] row
+    @Query("SELECT MIN(si.id), MAX(si.id) FROM SaleItem si WHERE si.unitCost IS NULL")
+    List<Object[]> findCostSnapshotIdRange();
+
+    // Snapshot the product's current cost onto rows that predate the unit_cost column
+    @Modifying
+    @Transactional
+    @Query("UPDATE SaleItem si SET " +
+            "si.unitCost = (SELECT p.costPrice FROM Product p WHERE p.id = si.product.id), " +
+            "si.costAmount = si.quantity * (SELECT p.costPrice FROM Product p WHERE p.id = si.product.id) " +
+            "WHERE si.unitCost IS NULL AND si.id BETWEEN :fromId AND :toId")
+    int backfillCostSnapshot(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    // Id bounds of rows still missing a category snapshot, as a single [min, max] row
+    @Query("SELECT MIN(si.id), MAX(si.id) FROM SaleItem si WHERE si.categoryId IS NULL")
+    List<Object[]> findCategorySnapshotIdRange();
+
+    // Snapshot the product's current category, or 0 for none, onto rows that predate the category_id column
+    @Modifying
+    @Transactional
+    @Query("UPDATE SaleItem si SET " +
+            "si.categoryId = COALESCE((SELECT p.category.id FROM Product p WHERE p.id = si.product.id), 0) " +
+            "WHERE si.categoryId IS NULL AND si.id BETWEEN :fromId AND :toId")
+    int backfillCategorySnapshot(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    // One row per sale line for the in-memory sales cube, ordered so each sale's lines are contiguous
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT CAST(s.saleDate AS LocalDate), s.id, c.id, p.id, COALESCE(si.categoryId, cat.id), s.status, si.quantity, si.totalPrice, " +
+            "CASE WHEN s.subtotal > 0 THEN s.discountAmount * si.totalPrice / s.subtotal ELSE 0 END, si.costAmount " +
+            "FROM SaleItem si JOIN si.sale s JOIN si.product p LEFT JOIN s.customer c LEFT JOIN p.category cat " +
+            "WHERE s.saleDate IS NOT NULL AND s.status IS NOT NULL " +
+            "ORDER BY s.saleDate, s.id")
+    Stream<Object[]> streamCubeFacts();
+}
@@ -2,8 +2,11 @@ package com.example.inventoryManagementSystem.repository;
 
 import com.example.inventoryManagementSystem.model.Sale;
 import com.example.inventoryManagementSystem.model.Sale.SaleStatus;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -11,14 +14,53 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface SaleRepository extends JpaRepository<Sale, Long> {
 
+    // [id, customerName, total, subtotal, discountAmount, saleDate, profit] per sale without loading items,
+    // read through a server-side cursor; must be consumed inside a transaction and closed
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT s.id, c.name, s.total, s.subtotal, s.discountAmount, s.saleDate, s.profit " +
+            "FROM Sale s LEFT JOIN s.customer c " +
+            "WHERE s.saleDate BETWEEN :startDate AND :endDate ORDER BY s.saleDate")
+    Stream<Object[]> streamSaleSummaries(@Param("startDate") LocalDateTime startDate,
+                                         @Param("endDate") LocalDateTime endDate);
+
     // Fetch sale with items eagerly
-    @Query("SELECT DISTINCT s FROM Sale s LEFT JOIN FETCH s.items WHERE s.id = :id")
+    @Query("SELECT DISTINCT s FROM Sale s LEFT JOIN FETCH s.customer " +
+            "LEFT JOIN FETCH s.items i LEFT JOIN FETCH i.product WHERE s.id = :id")
     Optional<Sale> findByIdWithItems(@Param("id") Long id);
 
+    // One keyset page of list rows, newest first, without loading items:
+    // [id, saleDate, customerId, customerName, cashier, status, itemCount, subtotal, discountAmount, total, profit].
+    // Null filters are ignored; pass the last row's saleDate and id as afterDate/afterId for the next page.
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    @Query("SELECT s.id, s.saleDate, c.id, c.name, s.cashier, s.status, " +
+            "(SELECT COUNT(si) FROM SaleItem si WHERE si.sale = s), " +
+            "s.subtotal, s.discountAmount, s.total, s.profit " +
+            "FROM Sale s JOIN s.customer c " +
+            "WHERE (:startDate IS NULL OR s.saleDate >= :startDate) " +
+            "AND (:endDate IS NULL OR s.saleDate <= :endDate) " +
+            "AND (:status IS NULL OR s.status = :status) " +
+            "AND (:customerId IS NULL OR c.id = :customerId) " +
+            "AND (:cashier IS NULL OR s.cashier = :cashier) " +
+            "AND (:afterDate IS NULL OR s.saleDate < :afterDate " +
+            "OR (s.saleDate = :afterDate AND s.id < :afterId)) " +
+            "ORDER BY s.saleDate DESC, s.id DESC")
+    List<Object[]> findSalePage(@Param("startDate") LocalDateTime startDate,
+                                @Param("endDate") LocalDateTime endDate,
+                                @Param("status") SaleStatus status,
+                                @Param("customerId") Long customerId,
+                                @Param("cashier") String cashier,
+                                @Param("afterDate") LocalDateTime afterDate,
+                                @Param("afterId") Long afterId,
+                                Pageable pageable);
+
     // Find sales within date range
     List<Sale> findBySaleDateBetween(LocalDateTime startDate, LocalDateTime endDate);
 
@@ -38,35 +80,6 @@ public interface SaleRepository extends JpaRepository<Sale, Long> {
     // Get recent sales by status
     List<Sale> findTop5ByStatusOrderBySaleDateDesc(SaleStatus status);
 
-    // Sales trend analysis - using native query for PostgreSQL
-    @Query(value = """
-        SELECT 
-            date_trunc(:periodType, s.sale_date) AS period,
-            COALESCE(SUM(s.subtotal), 0) AS amount,
-            COUNT(s.id) AS salesCount,
-            CASE 
-                WHEN :periodType = 'day' THEN TO_CHAR(date_trunc(:periodType, s.sale_date), 'DD Mon')
-                WHEN :periodType = 'week' THEN 'Week ' || TO_CHAR(date_trunc(:periodType, s.sale_date), 'WW, YYYY')
-                WHEN :periodType = 'month' THEN TO_CHAR(date_trunc(:periodType, s.sale_date), 'Mon YYYY')
-                ELSE TO_CHAR(date_trunc(:periodType, s.sale_date), 'YYYY-MM-DD')
-            END AS periodLabel
-        FROM sales s  
-        WHERE s.sale_date BETWEEN :startDate AND :endDate
-        AND s.status = 'COMPLETED'
-        GROUP BY date_trunc(:periodType, s.sale_date), 
-                 CASE 
-                     WHEN :periodType = 'day' THEN TO_CHAR(date_trunc(:periodType, s.sale_date), 'DD Mon')
-                     WHEN :periodType = 'week' THEN 'Week ' || TO_CHAR(date_trunc(:periodType, s.sale_date), 'WW, YYYY')
-                     WHEN :periodType = 'month' THEN TO_CHAR(date_trunc(:periodType, s.sale_date), 'Mon YYYY')
-                     ELSE TO_CHAR(date_trunc(:periodType, s.sale_date), 'YYYY-MM-DD')
-                 END
-        ORDER BY period
-        """, nativeQuery = true)
-    List<Object[]> getSalesTrendNative(
-            @Param("startDate") LocalDateTime startDate,
-            @Param("endDate") LocalDateTime endDate,
-            @Param("periodType") String periodType);
-
     // Count completed sales in date range
     @Query("SELECT COUNT(s) FROM Sale s WHERE s.status = 'COMPLETED' AND s.saleDate BETWEEN :start AND :end")
     long countCompletedSalesBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
@@ -85,9 +98,8 @@ public interface SaleRepository extends JpaRepository<Sale, Long> {
     BigDecimal getCompletedSalesRevenue();
 
     @Query(value = """
-        SELECT COALESCE(SUM(si.quantity * (si.unit_price - p.cost_price)), 0) 
-        FROM sale_items si 
-        JOIN products p ON si.product_id = p.id 
+        SELECT COALESCE(SUM(si.quantity * si.unit_price - si.cost_amount), 0)
+        FROM sale_items si
         JOIN sales s ON si.sale_id = s.id
         WHERE s.status = 'COMPLETED'
         """, nativeQuery = true)
@@ -108,9 +120,48 @@ public interface SaleRepository extends JpaRepository<Sale, Long> {
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate);
 
+    // Per-day order count, distinct customers, revenue and COGS in a single grouped query
+    @Query("SELECT CAST(s.saleDate AS LocalDate), COUNT(DISTINCT s.id), COUNT(DISTINCT s.customer.id), " +
+            "COALESCE(SUM(si.totalPrice), 0), COALESCE(SUM(si.costAmount), 0) " +
+            "FROM SaleItem si JOIN si.sale s " +
+            "WHERE s.saleDate BETWEEN :startDate AND :endDate " +
+            "AND (:status IS NULL OR s.status = :status) " +
+            "GROUP BY CAST(s.saleDate AS LocalDate) " +
+            "ORDER BY CAST(s.saleDate AS LocalDate)")
+    List<Object[]> aggregateDailySales(@Param("startDate") LocalDateTime startDate,
+                                       @Param("endDate") LocalDateTime endDate,
+                                       @Param("status") SaleStatus status);
+
+    // Same rows as aggregateDailySales, read through a server-side cursor for exports
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT CAST(s.saleDate AS LocalDate), COUNT(DISTINCT s.id), COUNT(DISTINCT s.customer.id), " +
+            "COALESCE(SUM(si.totalPrice), 0), COALESCE(SUM(si.costAmount), 0) " +
+            "FROM SaleItem si JOIN si.sale s " +
+            "WHERE s.saleDate BETWEEN :startDate AND :endDate " +
+            "AND (:status IS NULL OR s.status = :status) " +
+            "GROUP BY CAST(s.saleDate AS LocalDate) " +
+            "ORDER BY CAST(s.saleDate AS LocalDate)")
+    Stream<Object[]> streamDailySales(@Param("startDate") LocalDateTime startDate,
+                                      @Param("endDate") LocalDateTime endDate,
+                                      @Param("status") SaleStatus status);
+
+    // Range totals: order count, distinct customers, revenue, COGS, first and last sale date
+    @Query("SELECT COUNT(DISTINCT s.id), COUNT(DISTINCT s.customer.id), " +
+            "COALESCE(SUM(si.totalPrice), 0), COALESCE(SUM(si.costAmount), 0), " +
+            "MIN(s.saleDate), MAX(s.saleDate) " +
+            "FROM SaleItem si JOIN si.sale s " +
+            "WHERE s.saleDate BETWEEN :startDate AND :endDate " +
+            "AND (:status IS NULL OR s.status = :status)")
+    List<Object[]> aggregateSalesTotals(@Param("startDate") LocalDateTime startDate,
+                                        @Param("endDate") LocalDateTime endDate,
+                                        @Param("status") SaleStatus status);
+
     @Query("SELECT s FROM Sale s WHERE s.saleDate BETWEEN :startDate AND :endDate AND s.status = :status")
     List<Sale> findByDateBetweenAndStatus(
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate,
             @Param("status") SaleStatus status);
+
+    @Query("SELECT MIN(s.saleDate) FROM Sale s")
+    Optional<LocalDateTime> findEarliestSaleDate();
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import com.example.inventoryManagementSystem.dto.response.CartItemResponse;
 import com.example.inventoryManagementSystem.dto.response.CartResponse;
 
 import java.util.List;
+import java.util.Map;
 
 public interface CartService {
     CartResponse getCart(String username);
@@ -15,4 +16,6 @@ public interface CartService {
     CartResponse applyDiscount(String username, String discountCode);
     void clearCart(String username);
     CartItemResponse updateCartItemQuantity(String username, Long productId, int quantity);
+    // Units each product can still go into this user's cart, net of other carts' holds
+    Map<Long, Integer> getAvailability(String username, List<Long> productIds);
 }
\ No newline at end of file
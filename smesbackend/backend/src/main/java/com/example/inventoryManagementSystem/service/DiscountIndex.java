@@ -0,0 +1,24 @@
+package com.example.inventoryManagementSystem.service;
+
+import com.example.inventoryManagementSystem.model.Discount;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * All discounts held in memory, by product and by code, so pricing a cart or a sale checks
+ * validity windows against the clock instead of querying per line. Rebuilt after discount
+ * writes and on a timer. The discounts handed out are read-only copies without their
+ * product set.
+ */
+public interface DiscountIndex {
+
+    // Discounts on the product whose validity window contains the current time
+    List<Discount> findActiveForProduct(Long productId);
+
+    // Any discount with this code, valid or not
+    Optional<Discount> findByCode(String code);
+
+    // Reloads every discount; inside a transaction it waits for the commit
+    void refresh();
+}
@@ -2,7 +2,6 @@ package com.example.inventoryManagementSystem.service;
 
 import com.example.inventoryManagementSystem.model.Discount;
 import com.example.inventoryManagementSystem.model.Product;
-import com.example.inventoryManagementSystem.repository.DiscountRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -13,7 +12,7 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 public class DiscountService {
-    private final DiscountRepository discountRepository;
+    private final DiscountIndex discountIndex;
 
     public boolean isDiscountValid(Discount discount) {
         LocalDateTime now = LocalDateTime.now();
@@ -23,7 +22,7 @@ public class DiscountService {
     }
 
     public List<Discount> findValidDiscountsForProduct(Product product) {
-        return discountRepository.findByApplicableProductsContaining(product)
+        return discountIndex.findActiveForProduct(product.getId())
                 .stream()
                 .filter(this::isDiscountValid)
                 .collect(Collectors.toList());
@@ -0,0 +1,11 @@
+package com.example.inventoryManagementSystem.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+public interface ExpenseService {
+    BigDecimal getTotalExpenses(LocalDate startDate, LocalDate endDate);
+    // Keyed by period start; periods without expenses are absent
+    Map<LocalDate, BigDecimal> getExpensesByPeriod(LocalDate startDate, LocalDate endDate, SalesTrendService.TrendPeriod period);
+}
@@ -0,0 +1,12 @@
+package com.example.inventoryManagementSystem.service;
+
+import com.example.inventoryManagementSystem.dto.response.PeriodSnapshotResponse;
+
+import java.time.YearMonth;
+import java.util.List;
+
+public interface PeriodCloseService {
+    PeriodSnapshotResponse closePeriod(YearMonth month);
+    PeriodSnapshotResponse reopenPeriod(YearMonth month, String reason);
+    List<PeriodSnapshotResponse> getPeriods();
+}
@@ -5,6 +5,7 @@ import com.example.inventoryManagementSystem.dto.response.ProductResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -18,7 +19,7 @@ public interface ProductService {
     List<ProductResponse> searchProducts(String query);
     List<ProductResponse> getLowStockProducts();
     void importProducts(MultipartFile file);
-    byte[] exportProducts();
+    void exportProducts(OutputStream outputStream);
     List<ProductResponse> getProductsBySupplier(Long supplierId);
     List<ProductResponse> getProductsByCategory(Long categoryId);
     List<ProductResponse> getExpiringProducts(LocalDate thresholdDate);
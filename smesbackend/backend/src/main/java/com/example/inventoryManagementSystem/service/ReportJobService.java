@@ -0,0 +1,18 @@
+package com.example.inventoryManagementSystem.service;
+
+import com.example.inventoryManagementSystem.dto.request.ExportReportRequest;
+import com.example.inventoryManagementSystem.dto.response.ReportJobResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ReportJobService {
+    ReportJobResponse submitReport(String username, ExportReportRequest request);
+    ReportJobResponse submitDashboardPdf(String username, LocalDate startDate, LocalDate endDate);
+    ReportJobResponse getJob(String username, String jobId);
+    List<ReportJobResponse> getJobs(String username);
+    ResponseEntity<Resource> downloadResult(String username, String jobId);
+    ReportJobResponse cancelJob(String username, String jobId);
+}
@@ -0,0 +1,132 @@
+package com.example.inventoryManagementSystem.service;
+
+import com.example.inventoryManagementSystem.model.Sale;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Decides which stores answer a report range and runs the query against them. A plan
+ * splits the range into segments, each read from one source, and results are merged.
+ * Every executed plan is also recorded for the X-Report-Plan debug header.
+ */
+public interface ReportQueryPlanner {
+
+    // Range aggregates (totals, per product) that the daily rollup can answer
+    Plan planTotals(LocalDate startDate, LocalDate endDate);
+
+    // Queries that need per-sale facts such as order or customer counts
+    Plan planSaleDetail(LocalDate startDate, LocalDate endDate);
+
+    // P&L and cash-flow figures: closed months from their snapshots, the rest as in planTotals
+    Plan planPeriod(LocalDate startDate, LocalDate endDate);
+
+    // [revenue, discounts, cost, units]
+    Object[] sumTotals(Plan plan, Sale.SaleStatus status);
+
+    // [productId, productName, categoryName, units, revenue, cost] ordered by revenue
+    List<Object[]> sumByProduct(Plan plan, Sale.SaleStatus status, Long categoryId, Integer limit);
+
+    // [day, orders, customers, revenue, cost]; a null status means every status
+    List<Object[]> aggregateDailySales(Plan plan, Sale.SaleStatus status);
+
+    // [bucketKey, revenue, saleCount] for completed sales
+    List<Object[]> sumByTrendBucket(Plan plan, SalesTrendService.TrendPeriod period);
+
+    // Completed-sale totals plus expenses and received purchases over a period plan
+    PeriodTotals sumPeriodTotals(Plan plan);
+
+    enum Source {
+        SNAPSHOT, CUBE, ROLLUP, RAW
+    }
+
+    final class Segment {
+        private final Source source;
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+
+        public Segment(Source source, LocalDate startDate, LocalDate endDate) {
+            this.source = source;
+            this.startDate = startDate;
+            this.endDate = endDate;
+        }
+
+        public Source getSource() {
+            return source;
+        }
+
+        public LocalDate getStartDate() {
+            return startDate;
+        }
+
+        public LocalDate getEndDate() {
+            return endDate;
+        }
+
+        @Override
+        public String toString() {
+            return source + "[" + startDate + ".." + endDate + "]";
+        }
+    }
+
+    final class Plan {
+        // The requested range; a null start means all history
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+        private final List<Segment> segments;
+        private final String reason;
+
+        public Plan(LocalDate startDate, LocalDate endDate, List<Segment> segments, String reason) {
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.segments = Collections.unmodifiableList(segments);
+            this.reason = reason;
+        }
+
+        public LocalDate getStartDate() {
+            return startDate;
+        }
+
+        public LocalDate getEndDate() {
+            return endDate;
+        }
+
+        public List<Segment> getSegments() {
+            return segments;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        public boolean isEmpty() {
+            return segments.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            String route = segments.isEmpty() ? "NONE" : segments.stream()
+                    .map(Segment::toString)
+                    .collect(Collectors.joining(" + "));
+            return route + " (" + reason + ")";
+        }
+    }
+
+    @Getter
+    @Builder
+    final class PeriodTotals {
+        // Completed-sale subtotals before discounts
+        private final BigDecimal salesRevenue;
+        private final BigDecimal discountAmount;
+        private final BigDecimal cost;
+        private final long unitsSold;
+        private final BigDecimal expenses;
+        // Received purchases ordered in the period
+        private final BigDecimal purchases;
+    }
+}
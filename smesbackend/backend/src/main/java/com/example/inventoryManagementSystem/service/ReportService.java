@@ -3,8 +3,12 @@ package com.example.inventoryManagementSystem.service;
 import com.example.inventoryManagementSystem.dto.request.ExportReportRequest;
 import com.example.inventoryManagementSystem.dto.response.*;
 import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -12,8 +16,11 @@ public interface ReportService {
     List<SalesReportResponse> generateSalesReport(LocalDate startDate, LocalDate endDate, String statusFilter);
     SalesSummaryResponse generateSalesSummaryReport(LocalDate startDate, LocalDate endDate);
     List<ProductPerformanceResponse> generateProductPerformanceReport(LocalDate startDate, LocalDate endDate, Long categoryId);
+    List<ProductPerformanceResponse> generateProductPerformanceReport(LocalDate startDate, LocalDate endDate, Long categoryId, Integer limit);
     List<ProductSalesTrendResponse> generateProductSalesTrendReport(LocalDate startDate, LocalDate endDate, Long productId);
     List<InventoryValuationResponse> generateInventoryValuationReport();
+    List<InventoryValuationResponse> generateInventoryValuationReport(String sortBy, String direction);
+    Page<InventoryValuationResponse> generateInventoryValuationReport(int page, int size, String sortBy, String direction);
     List<LowStockReportResponse> generateLowStockReport(int threshold);
     List<ExpiringItemsReportResponse> generateExpiringItemsReport(LocalDate cutoffDate);
     ProfitLossResponse generateProfitLossReport(LocalDate startDate, LocalDate endDate);
@@ -23,6 +30,10 @@ public interface ReportService {
     BusinessPerformanceResponse generateBusinessPerformanceReport(LocalDate startDate, LocalDate endDate);
     DashboardResponse generateDashboardSummary(LocalDate startDate, LocalDate endDate);
     List<SalesTrendResponse> generateSalesTrendReport(LocalDate startDate, LocalDate endDate, String period);
-    ResponseEntity<Resource> exportReport(ExportReportRequest request);
+    ResponseEntity<StreamingResponseBody> exportReport(ExportReportRequest request);
     ResponseEntity<Resource> exportDashboardAsPdf(LocalDate startDate, LocalDate endDate);
+    void writeReport(ExportReportRequest request, OutputStream outputStream) throws IOException;
+    void writeDashboardPdf(LocalDate startDate, LocalDate endDate, OutputStream outputStream) throws IOException;
+    String getExportContentType(ExportReportRequest request);
+    String getExportFilename(ExportReportRequest request);
 }
\ No newline at end of file
@@ -10,7 +10,10 @@ import java.util.List;
 
 public interface SaleService {
     SaleResponse createSale(SaleRequest request);
+    BatchSaleResponse createSalesBatch(List<SaleRequest> requests);
     List<SaleResponse> getAllSales(LocalDate startDate, LocalDate endDate);
+    SalePageResponse getSalesPage(LocalDate startDate, LocalDate endDate, String status,
+                                  Long customerId, String cashier, String cursor, int size);
     SaleResponse getSaleById(Long id);
     SaleResponse cancelSale(Long id);
     SaleResponse refundSale(Long saleId);
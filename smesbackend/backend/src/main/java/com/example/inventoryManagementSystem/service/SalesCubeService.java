@@ -0,0 +1,34 @@
+package com.example.inventoryManagementSystem.service;
+
+import com.example.inventoryManagementSystem.model.Sale;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Optional in-memory copy of sale-item facts for report queries. Every query returns
+ * empty when the cube is disabled, still loading or over its memory cap, so callers fall
+ * back to SQL; rows use the same layout as the repository query they replace.
+ */
+public interface SalesCubeService {
+    void recordSale(Sale sale);
+    void removeSale(Sale sale);
+    int rebuild();
+    boolean isLoaded();
+    Map<String, Object> getStatistics();
+
+    // [revenue, discount, cost, quantity], as DailySalesRollupRepository.sumTotals
+    Optional<Object[]> sumTotals(Sale.SaleStatus status, LocalDate startDate, LocalDate endDate);
+
+    // [productId, productName, categoryName, quantity, revenue, cost] by revenue, as DailySalesRollupRepository.sumByProduct
+    Optional<List<Object[]>> sumByProduct(Sale.SaleStatus status, LocalDate startDate, LocalDate endDate,
+                                          Long categoryId, Integer limit);
+
+    // [day, orders, customers, revenue, cost], as SaleRepository.aggregateDailySales; a null status matches all
+    Optional<List<Object[]>> aggregateDailySales(LocalDate startDate, LocalDate endDate, Sale.SaleStatus status);
+
+    // [bucketKey, revenue, saleCount] for completed sales, as the sales trend query
+    Optional<List<Object[]>> sumByTrendBucket(LocalDate startDate, LocalDate endDate, SalesTrendService.TrendPeriod period);
+}
@@ -0,0 +1,11 @@
+package com.example.inventoryManagementSystem.service;
+
+import com.example.inventoryManagementSystem.model.Sale;
+
+import java.time.LocalDate;
+
+public interface SalesRollupService {
+    void recordSale(Sale sale);
+    void retractSale(Sale sale);
+    int rebuild(LocalDate startDate, LocalDate endDate);
+}
@@ -0,0 +1,38 @@
+package com.example.inventoryManagementSystem.service;
+
+import com.example.inventoryManagementSystem.dto.response.SalesTrendResponse;
+import com.example.inventoryManagementSystem.exception.BusinessException;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SalesTrendService {
+    List<SalesTrendResponse> getSalesTrend(LocalDate startDate, LocalDate endDate, TrendPeriod period);
+
+    enum TrendPeriod {
+        DAY, WEEK, MONTH, YEAR;
+
+        // Accepts both the "day"/"week" and the "DAILY"/"WEEKLY" spellings used by the endpoints
+        public static TrendPeriod parse(String value) {
+            if (value == null || value.isBlank()) {
+                return DAY;
+            }
+            switch (value.trim().toUpperCase()) {
+                case "DAY":
+                case "DAILY":
+                    return DAY;
+                case "WEEK":
+                case "WEEKLY":
+                    return WEEK;
+                case "MONTH":
+                case "MONTHLY":
+                    return MONTH;
+                case "YEAR":
+                case "YEARLY":
+                    return YEAR;
+                default:
+                    throw new BusinessException("Invalid period type. Must be 'day', 'week', 'month' or 'year'");
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.inventoryManagementSystem.service;
+
+import com.example.inventoryManagementSystem.model.Product;
+
+import java.util.List;
+
+/**
+ * The single write path for product stock. Each change is a conditional update on the
+ * products row (quantity = quantity + delta, and for decrements only while enough stock
+ * remains), sent together as one JDBC batch inside the caller's transaction, so concurrent
+ * writers cannot lose updates and stock never goes negative.
+ */
+public interface StockMutationService {
+
+    // Applies every change or none; throws InsufficientStockException listing the failed changes
+    void apply(List<StockChange> changes);
+
+    // Applies the changes that can be applied and returns the ones that could not
+    List<StockChange> tryApply(List<StockChange> changes);
+
+    final class StockChange {
+        private final Long productId;
+        private final int delta;
+        // Managed instance whose in-memory quantity is brought up to date, if the caller holds one
+        private final Product product;
+
+        private StockChange(Long productId, int delta, Product product) {
+            this.productId = productId;
+            this.delta = delta;
+            this.product = product;
+        }
+
+        public static StockChange of(Product product, int delta) {
+            return new StockChange(product.getId(), delta, product);
+        }
+
+        public static StockChange decrement(Product product, int quantity) {
+            return of(product, -quantity);
+        }
+
+        public static StockChange increment(Product product, int quantity) {
+            return of(product, quantity);
+        }
+
+        public Long getProductId() {
+            return productId;
+        }
+
+        public int getDelta() {
+            return delta;
+        }
+
+        public Product getProduct() {
+            return product;
+        }
+
+        @Override
+        public String toString() {
+            String name = product != null && product.getName() != null ? product.getName() : "product " + productId;
+            return name + " (" + (delta > 0 ? "+" : "") + delta + ")";
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.inventoryManagementSystem.service;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Soft holds that carts take against product stock, so two carts cannot both count on the
+ * same last units. Holds expire after a TTL and are only advisory: checkout still goes
+ * through the conditional stock update, which is what actually prevents overselling.
+ */
+public interface StockReservationService {
+
+    // Sets the holder's holds to these quantities (0 releases). Applies all or none and
+    // returns, for each product that fell short, the quantity the holder could have
+    Map<Long, Integer> reserve(String holder, Map<Long, Integer> quantities);
+
+    void release(String holder, Long productId);
+
+    void releaseAll(String holder);
+
+    // Stock on hand minus other holders' live holds, never negative
+    Map<Long, Integer> getAvailable(String holder, Collection<Long> productIds);
+
+    // Committed stock delta from the stock write path; applied once the transaction commits
+    void stockChanged(Long productId, int delta);
+
+    // Drops the cached on-hand quantity after a direct product edit
+    void evict(Long productId);
+
+    Map<String, Object> getStatistics();
+}
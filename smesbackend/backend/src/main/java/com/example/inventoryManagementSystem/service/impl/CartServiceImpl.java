@@ -7,9 +7,11 @@ import com.example.inventoryManagementSystem.exception.BusinessException;
 import com.example.inventoryManagementSystem.exception.ResourceNotFoundException;
 import com.example.inventoryManagementSystem.model.Discount;
 import com.example.inventoryManagementSystem.model.Product;
-import com.example.inventoryManagementSystem.repository.DiscountRepository;
 import com.example.inventoryManagementSystem.repository.ProductRepository;
 import com.example.inventoryManagementSystem.service.CartService;
+import com.example.inventoryManagementSystem.service.DiscountIndex;
+import com.example.inventoryManagementSystem.service.StockReservationService;
+import com.example.inventoryManagementSystem.util.MoneyAccumulator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -25,7 +27,8 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class CartServiceImpl implements CartService {
     private final ProductRepository productRepository;
-    private final DiscountRepository discountRepository;
+    private final DiscountIndex discountIndex;
+    private final StockReservationService stockReservationService;
 
 
     // Store carts in memory with username as key
@@ -82,7 +85,6 @@ public class CartServiceImpl implements CartService {
     @Transactional
     public CartResponse addItemsToCart(String username, List<CartItemRequest> requests) {
         UserCart userCart = getUserCart(username);
-        validateQuantitiesAgainstStock(username, requests);
 
         Map<Long, Integer> quantityMap = requests.stream()
                 .collect(Collectors.toMap(
@@ -91,11 +93,20 @@ public class CartServiceImpl implements CartService {
                         Integer::sum
                 ));
 
+        // One query for every product in the request instead of one lookup per line
+        Map<Long, Product> products = productRepository.findAllById(quantityMap.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, product -> product));
+        for (Long productId : quantityMap.keySet()) {
+            if (!products.containsKey(productId)) {
+                throw new ResourceNotFoundException("Product not found with id: " + productId);
+            }
+        }
+        reserveStock(username, userCart, quantityMap, products);
+
         quantityMap.forEach((productId, quantity) -> {
-            Product product = productRepository.findById(productId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + productId));
+            Product product = products.get(productId);
 
-            List<Discount> discounts = discountRepository.findActiveDiscountsForProduct(product);
+            List<Discount> discounts = discountIndex.findActiveForProduct(product.getId());
             BigDecimal itemDiscount = calculateMaxDiscount(BigDecimal.valueOf(product.getPrice()), discounts)
                     .multiply(BigDecimal.valueOf(quantity));
 
@@ -126,34 +137,30 @@ public class CartServiceImpl implements CartService {
         return getCart(username);
     }
 
-    private void validateQuantitiesAgainstStock(String username, List<CartItemRequest> requests) {
-        UserCart userCart = getUserCart(username);
-        Map<Long, Integer> requestedQuantities = requests.stream()
-                .collect(Collectors.groupingBy(
-                        CartItemRequest::getProductId,
-                        Collectors.summingInt(CartItemRequest::getQuantity)
-                ));
-
-        for (Map.Entry<Long, Integer> entry : requestedQuantities.entrySet()) {
-            Long productId = entry.getKey();
-            int requestedQuantity = entry.getValue();
-
-            Product product = productRepository.findById(productId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + productId));
-
-            int currentQuantityInCart = userCart.items.containsKey(productId) ?
-                    userCart.items.get(productId).getQuantity() : 0;
-            int totalQuantityAfterAddition = currentQuantityInCart + requestedQuantity;
-
-            if (totalQuantityAfterAddition > product.getQuantityInStock()) {
-                throw new BusinessException(String.format(
-                        "Cannot add %d items of product '%s' to cart. Only %d items available in stock. You already have %d in your cart.",
-                        requestedQuantity, product.getName(), product.getQuantityInStock(), currentQuantityInCart
-                ));
-            }
+    // Holds the cart's new totals against stock; on a shortfall nothing is held and the cart is unchanged
+    private void reserveStock(String username, UserCart userCart, Map<Long, Integer> requestedQuantities,
+                              Map<Long, Product> products) {
+        Map<Long, Integer> totals = new HashMap<>();
+        requestedQuantities.forEach((productId, quantity) ->
+                totals.put(productId, quantityInCart(userCart, productId) + quantity));
+
+        Map<Long, Integer> shortfalls = stockReservationService.reserve(username, totals);
+        if (!shortfalls.isEmpty()) {
+            Map.Entry<Long, Integer> shortfall = shortfalls.entrySet().iterator().next();
+            Long productId = shortfall.getKey();
+            throw new BusinessException(String.format(
+                    "Cannot add %d items of product '%s' to cart. Only %d items available in stock. You already have %d in your cart.",
+                    requestedQuantities.get(productId), products.get(productId).getName(), shortfall.getValue(),
+                    quantityInCart(userCart, productId)
+            ));
         }
     }
 
+    private int quantityInCart(UserCart userCart, Long productId) {
+        CartItemResponse item = userCart.items.get(productId);
+        return item != null ? item.getQuantity() : 0;
+    }
+
     private BigDecimal calculateMaxDiscount(BigDecimal itemPrice, List<Discount> discounts) {
         return discounts.stream()
                 .map(d -> itemPrice.multiply(BigDecimal.valueOf(d.getPercentage() / 100)))
@@ -171,14 +178,15 @@ public class CartServiceImpl implements CartService {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
 
-        if (product.getQuantityInStock() < newQuantity) {
+        Map<Long, Integer> shortfalls = stockReservationService.reserve(username, Map.of(productId, newQuantity));
+        if (!shortfalls.isEmpty()) {
             throw new BusinessException(String.format(
                     "Not enough stock available for product '%s'. Only %d items available.",
-                    product.getName(), product.getQuantityInStock()
+                    product.getName(), shortfalls.get(productId)
             ));
         }
 
-        List<Discount> discounts = discountRepository.findActiveDiscountsForProduct(product);
+        List<Discount> discounts = discountIndex.findActiveForProduct(product.getId());
         BigDecimal itemDiscount = calculateMaxDiscount(BigDecimal.valueOf(product.getPrice()), discounts)
                 .multiply(BigDecimal.valueOf(newQuantity));
 
@@ -200,13 +208,14 @@ public class CartServiceImpl implements CartService {
     public CartResponse removeItemFromCart(String username, Long productId) {
         UserCart userCart = getUserCart(username);
         userCart.items.remove(productId);
+        stockReservationService.release(username, productId);
         return getCart(username);
     }
 
     @Override
     public CartResponse applyDiscount(String username, String discountCode) {
         UserCart userCart = getUserCart(username);
-        Discount discount = discountRepository.findByCode(discountCode)
+        Discount discount = discountIndex.findByCode(discountCode)
                 .orElseThrow(() -> new ResourceNotFoundException("Discount not found"));
 
         if (!discount.isActive() ||
@@ -224,29 +233,40 @@ public class CartServiceImpl implements CartService {
         UserCart userCart = getUserCart(username);
         userCart.items.clear();
         userCart.appliedDiscountCode = null;
+        // After checkout the sold units have left stock, so dropping the holds converts them
+        stockReservationService.releaseAll(username);
+    }
+
+    @Override
+    public Map<Long, Integer> getAvailability(String username, List<Long> productIds) {
+        return stockReservationService.getAvailable(username, productIds);
     }
 
     private BigDecimal calculateSubtotal(List<CartItemResponse> items) {
-        return items.stream()
-                .map(CartItemResponse::getTotalPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        MoneyAccumulator subtotal = new MoneyAccumulator();
+        for (CartItemResponse item : items) {
+            subtotal.add(item.getTotalPrice());
+        }
+        return subtotal.toBigDecimal();
     }
 
     private BigDecimal calculateDiscount(UserCart userCart, List<CartItemResponse> items) {
         // Calculate product-level discounts
-        BigDecimal productDiscounts = items.stream()
-                .map(CartItemResponse::getDiscountAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        MoneyAccumulator productDiscountCents = new MoneyAccumulator();
+        MoneyAccumulator preTaxCents = new MoneyAccumulator();
+        for (CartItemResponse item : items) {
+            productDiscountCents.add(item.getDiscountAmount());
+            preTaxCents.addLine(item.getUnitPrice(), item.getQuantity());
+        }
+        BigDecimal productDiscounts = productDiscountCents.toBigDecimal();
 
         // Apply cart-level discount if exists
         if (userCart.appliedDiscountCode != null) {
-            Discount discount = discountRepository.findByCode(userCart.appliedDiscountCode)
+            Discount discount = discountIndex.findByCode(userCart.appliedDiscountCode)
                     .orElseThrow(() -> new ResourceNotFoundException("Discount not found"));
 
             // Calculate discount on pre-tax amount
-            BigDecimal discountAmount = items.stream()
-                    .map(item -> item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
-                    .reduce(BigDecimal.ZERO, BigDecimal::add)
+            BigDecimal discountAmount = preTaxCents.toBigDecimal()
                     .multiply(BigDecimal.valueOf(discount.getPercentage() / 100));
 
             return productDiscounts.add(discountAmount);
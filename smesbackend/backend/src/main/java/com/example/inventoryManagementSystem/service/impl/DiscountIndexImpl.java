@@ -0,0 +1,132 @@
+package com.example.inventoryManagementSystem.service.impl;
+
+import com.example.inventoryManagementSystem.model.Discount;
+import com.example.inventoryManagementSystem.repository.DiscountRepository;
+import com.example.inventoryManagementSystem.service.DiscountIndex;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * The index is an immutable snapshot swapped in whole, so readers never lock. Each product's
+ * discounts are sorted by the start of their validity window, which lets a lookup stop at the
+ * first discount that has not started yet.
+ */
+@Service
+@RequiredArgsConstructor
+public class DiscountIndexImpl implements DiscountIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(DiscountIndexImpl.class);
+
+    // Open-ended starts sort first
+    private static final Comparator<Discount> BY_VALID_FROM = Comparator.comparing(Discount::getValidFrom,
+            Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final DiscountRepository discountRepository;
+
+    private volatile Snapshot snapshot = new Snapshot(Collections.emptyMap(), Collections.emptyMap());
+
+    @PostConstruct
+    public void init() {
+        reload();
+    }
+
+    @Override
+    public List<Discount> findActiveForProduct(Long productId) {
+        Discount[] discounts = snapshot.byProduct.get(productId);
+        if (discounts == null) {
+            return Collections.emptyList();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Discount> active = new ArrayList<>(discounts.length);
+        for (Discount discount : discounts) {
+            if (discount.getValidFrom() != null && now.isBefore(discount.getValidFrom())) {
+                break;
+            }
+            if (discount.getValidTo() == null || !now.isAfter(discount.getValidTo())) {
+                active.add(discount);
+            }
+        }
+        return active;
+    }
+
+    @Override
+    public Optional<Discount> findByCode(String code) {
+        return code != null ? Optional.ofNullable(snapshot.byCode.get(code)) : Optional.empty();
+    }
+
+    @Override
+    public void refresh() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reload();
+            return;
+        }
+        // Reloading before the commit would miss the write that asked for it
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reload();
+            }
+        });
+    }
+
+    // Catches writes made by other instances or straight to the database
+    @Scheduled(fixedDelayString = "${app.discounts.index.refresh-interval-ms:300000}",
+            initialDelayString = "${app.discounts.index.refresh-interval-ms:300000}")
+    public void scheduledRefresh() {
+        reload();
+    }
+
+    // One query for every discount and product link; synchronized so overlapping reloads
+    // cannot swap an older snapshot in over a newer one
+    private synchronized void reload() {
+        Map<Long, Discount> discounts = new HashMap<>();
+        Map<Long, List<Discount>> byProduct = new HashMap<>();
+        for (Object[] row : discountRepository.findIndexRows()) {
+            Long discountId = ((Number) row[0]).longValue();
+            Discount discount = discounts.computeIfAbsent(discountId, id -> {
+                Discount copy = new Discount();
+                copy.setId(id);
+                copy.setCode((String) row[1]);
+                copy.setPercentage(((Number) row[2]).doubleValue());
+                copy.setValidFrom((LocalDateTime) row[3]);
+                copy.setValidTo((LocalDateTime) row[4]);
+                copy.setDescription((String) row[5]);
+                return copy;
+            });
+            if (row[6] != null) {
+                byProduct.computeIfAbsent(((Number) row[6]).longValue(), id -> new ArrayList<>()).add(discount);
+            }
+        }
+
+        Map<Long, Discount[]> sortedByProduct = new HashMap<>(byProduct.size() * 2);
+        byProduct.forEach((productId, productDiscounts) -> {
+            Discount[] sorted = productDiscounts.toArray(new Discount[0]);
+            Arrays.sort(sorted, BY_VALID_FROM);
+            sortedByProduct.put(productId, sorted);
+        });
+        Map<String, Discount> byCode = new HashMap<>(discounts.size() * 2);
+        discounts.values().forEach(discount -> byCode.put(discount.getCode(), discount));
+
+        snapshot = new Snapshot(sortedByProduct, byCode);
+        logger.debug("Discount index loaded {} discounts over {} products", byCode.size(), sortedByProduct.size());
+    }
+
+    private static final class Snapshot {
+        private final Map<Long, Discount[]> byProduct;
+        private final Map<String, Discount> byCode;
+
+        private Snapshot(Map<Long, Discount[]> byProduct, Map<String, Discount> byCode) {
+            this.byProduct = byProduct;
+            this.byCode = byCode;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.inventoryManagementSystem.service.impl;
+
+import com.example.inventoryManagementSystem.repository.ExpenseRepository;
+import com.example.inventoryManagementSystem.service.ExpenseService;
+import com.example.inventoryManagementSystem.service.SalesTrendService.TrendPeriod;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Service
+@RequiredArgsConstructor
+public class ExpenseServiceImpl implements ExpenseService {
+    private final ExpenseRepository expenseRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public BigDecimal getTotalExpenses(LocalDate startDate, LocalDate endDate) {
+        LocalDate effectiveStartDate = startDate != null ? startDate : LocalDate.MIN;
+        LocalDate effectiveEndDate = endDate != null ? endDate : LocalDate.now();
+        return expenseRepository.sumAmountByDateBetween(effectiveStartDate, effectiveEndDate);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<LocalDate, BigDecimal> getExpensesByPeriod(LocalDate startDate, LocalDate endDate, TrendPeriod period) {
+        LocalDate effectiveStartDate = startDate != null ? startDate : LocalDate.MIN;
+        LocalDate effectiveEndDate = endDate != null ? endDate : LocalDate.now();
+
+        // One grouped query for the whole range instead of one lookup per period
+        String bucket = TrendBuckets.expression(period, "e.date");
+        List<Object[]> rows = entityManager.createQuery(
+                        "SELECT " + bucket + ", COALESCE(SUM(e.amount), 0) FROM Expense e " +
+                                "WHERE e.date BETWEEN :startDate AND :endDate GROUP BY " + bucket, Object[].class)
+                .setParameter("startDate", effectiveStartDate)
+                .setParameter("endDate", effectiveEndDate)
+                .getResultList();
+
+        Map<LocalDate, BigDecimal> expenses = new TreeMap<>();
+        for (Object[] row : rows) {
+            BigDecimal amount = row[1] instanceof BigDecimal
+                    ? (BigDecimal) row[1]
+                    : BigDecimal.valueOf(((Number) row[1]).doubleValue());
+            expenses.put(TrendBuckets.start(((Number) row[0]).longValue(), period), amount);
+        }
+        return expenses;
+    }
+}
@@ -3,11 +3,15 @@ package com.example.inventoryManagementSystem.service.impl;
 import com.example.inventoryManagementSystem.dto.request.InventoryAdjustmentRequest;
 import com.example.inventoryManagementSystem.dto.response.InventoryStatusResponse;
 import com.example.inventoryManagementSystem.dto.response.LowStockSuggestionResponse;
+import com.example.inventoryManagementSystem.event.ReportDataChangedEvent;
 import com.example.inventoryManagementSystem.exception.ResourceNotFoundException;
 import com.example.inventoryManagementSystem.model.*;
 import com.example.inventoryManagementSystem.repository.*;
 import com.example.inventoryManagementSystem.service.InventoryService;
+import com.example.inventoryManagementSystem.service.StockMutationService;
+import com.example.inventoryManagementSystem.service.StockMutationService.StockChange;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -25,10 +29,12 @@ import java.util.stream.Collectors;
 public class InventoryServiceImpl implements InventoryService {
 
     private final ProductRepository productRepository;
+    private final StockMutationService stockMutationService;
     private final InventoryAdjustmentRepository inventoryAdjustmentRepository;
     private final PurchaseRepository purchaseRepository;
     private final PurchaseItemRepository purchaseItemRepository;
     private final SupplierRepository supplierRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public Page<InventoryStatusResponse> getInventoryStatus(
@@ -52,6 +58,7 @@ public class InventoryServiceImpl implements InventoryService {
         if (Boolean.TRUE.equals(request.getCreateSupplierOrder())) {
             createSupplierOrder(product, request.getOrderQuantity(), request.getReason());
         }
+        eventPublisher.publishEvent(ReportDataChangedEvent.forDay(LocalDate.now()));
     }
 
     @Override
@@ -59,16 +66,21 @@ public class InventoryServiceImpl implements InventoryService {
     public void removeExpiredProducts() {
         List<Product> expiredProducts = productRepository.findByExpiryDateBefore(LocalDate.now());
 
-        expiredProducts.forEach(product -> {
+        // A product whose stock moved since it was read is left for the next run
+        List<StockChange> removals = expiredProducts.stream()
+                .map(product -> StockChange.decrement(product, product.getQuantityInStock()))
+                .collect(Collectors.toList());
+        List<StockChange> skipped = stockMutationService.tryApply(removals);
+
+        removals.stream().filter(removal -> !skipped.contains(removal)).forEach(removal -> {
             InventoryAdjustment adjustment = new InventoryAdjustment();
-            adjustment.setProduct(product);
-            adjustment.setAdjustmentAmount(-product.getQuantityInStock());
+            adjustment.setProduct(removal.getProduct());
+            adjustment.setAdjustmentAmount(removal.getDelta());
             adjustment.setReason("Expired product removal");
             adjustment.setAdjustmentDate(LocalDate.now());
             inventoryAdjustmentRepository.save(adjustment);
-            product.setQuantityInStock(0);
-            productRepository.save(product);
         });
+        eventPublisher.publishEvent(ReportDataChangedEvent.forDay(LocalDate.now()));
     }
 
     @Override
@@ -84,12 +96,9 @@ public class InventoryServiceImpl implements InventoryService {
     }
 
     private void adjustProductStock(Product product, int adjustmentAmount, String reason) {
-        int newQuantity = product.getQuantityInStock() + adjustmentAmount;
-        if (newQuantity < 0) {
+        if (!stockMutationService.tryApply(List.of(StockChange.of(product, adjustmentAmount))).isEmpty()) {
             throw new IllegalArgumentException("Cannot adjust stock below zero");
         }
-        product.setQuantityInStock(newQuantity);
-        productRepository.save(product);
         InventoryAdjustment adjustment = new InventoryAdjustment();
         adjustment.setProduct(product);
         adjustment.setAdjustmentAmount(adjustmentAmount);
@@ -0,0 +1,131 @@
+package com.example.inventoryManagementSystem.service.impl;
+
+import com.example.inventoryManagementSystem.dto.response.PeriodSnapshotResponse;
+import com.example.inventoryManagementSystem.event.ReportDataChangedEvent;
+import com.example.inventoryManagementSystem.exception.BusinessException;
+import com.example.inventoryManagementSystem.exception.ResourceNotFoundException;
+import com.example.inventoryManagementSystem.model.PeriodSnapshot;
+import com.example.inventoryManagementSystem.model.PeriodSnapshot.PeriodStatus;
+import com.example.inventoryManagementSystem.repository.PeriodSnapshotRepository;
+import com.example.inventoryManagementSystem.service.PeriodCloseService;
+import com.example.inventoryManagementSystem.service.ReportQueryPlanner;
+import com.example.inventoryManagementSystem.service.ReportQueryPlanner.PeriodTotals;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class PeriodCloseServiceImpl implements PeriodCloseService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PeriodCloseServiceImpl.class);
+
+    private final PeriodSnapshotRepository periodSnapshotRepository;
+    private final ReportQueryPlanner reportQueryPlanner;
+
+    @Override
+    public PeriodSnapshotResponse closePeriod(YearMonth month) {
+        LocalDate periodStart = month.atDay(1);
+        LocalDate periodEnd = month.atEndOfMonth();
+        if (!periodEnd.isBefore(LocalDate.now())) {
+            throw new BusinessException("Cannot close " + month + " before it has ended");
+        }
+
+        PeriodSnapshot snapshot = periodSnapshotRepository.findByPeriodStart(periodStart)
+                .orElseGet(PeriodSnapshot::new);
+        if (snapshot.getStatus() == PeriodStatus.CLOSED) {
+            throw new BusinessException("Period " + month + " is already closed");
+        }
+
+        // Planned while the month is still open, so the figures come from live data
+        PeriodTotals totals = reportQueryPlanner.sumPeriodTotals(
+                reportQueryPlanner.planPeriod(periodStart, periodEnd));
+
+        snapshot.setPeriodStart(periodStart);
+        snapshot.setPeriodEnd(periodEnd);
+        snapshot.setStatus(PeriodStatus.CLOSED);
+        snapshot.setSalesRevenue(totals.getSalesRevenue());
+        snapshot.setDiscountAmount(totals.getDiscountAmount());
+        snapshot.setCost(totals.getCost());
+        snapshot.setUnitsSold(totals.getUnitsSold());
+        snapshot.setExpenses(totals.getExpenses());
+        snapshot.setPurchases(totals.getPurchases());
+        snapshot.setClosedAt(LocalDateTime.now());
+        snapshot.setReopenedAt(null);
+        snapshot.setReopenReason(null);
+
+        logger.info("Closed period {}: revenue {}, cost {}, expenses {}",
+                month, totals.getSalesRevenue(), totals.getCost(), totals.getExpenses());
+        return mapToResponse(periodSnapshotRepository.save(snapshot));
+    }
+
+    @Override
+    public PeriodSnapshotResponse reopenPeriod(YearMonth month, String reason) {
+        PeriodSnapshot snapshot = periodSnapshotRepository.findByPeriodStart(month.atDay(1))
+                .orElseThrow(() -> new ResourceNotFoundException("Period " + month + " has not been closed"));
+        if (snapshot.getStatus() != PeriodStatus.CLOSED) {
+            throw new BusinessException("Period " + month + " is not closed");
+        }
+
+        reopen(snapshot, reason != null && !reason.isBlank() ? reason : "Reopened manually");
+        return mapToResponse(periodSnapshotRepository.save(snapshot));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PeriodSnapshotResponse> getPeriods() {
+        return periodSnapshotRepository.findAllByOrderByPeriodStartDesc().stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
+    // A write dated inside a closed month would otherwise be hidden behind its snapshot
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onReportDataChanged(ReportDataChangedEvent event) {
+        for (PeriodSnapshot snapshot : periodSnapshotRepository.findByStatusOrderByPeriodStart(PeriodStatus.CLOSED)) {
+            if (snapshot.getPeriodEnd().isBefore(event.getStartDate())
+                    || snapshot.getPeriodStart().isAfter(event.getEndDate())) {
+                continue;
+            }
+            reopen(snapshot, "Data changed between " + event.getStartDate() + " and " + event.getEndDate());
+            periodSnapshotRepository.save(snapshot);
+            logger.warn("Reopened closed period starting {} after a data change", snapshot.getPeriodStart());
+        }
+    }
+
+    private void reopen(PeriodSnapshot snapshot, String reason) {
+        snapshot.setStatus(PeriodStatus.REOPENED);
+        snapshot.setReopenedAt(LocalDateTime.now());
+        snapshot.setReopenReason(reason);
+    }
+
+    private PeriodSnapshotResponse mapToResponse(PeriodSnapshot snapshot) {
+        return PeriodSnapshotResponse.builder()
+                .periodStart(snapshot.getPeriodStart())
+                .periodEnd(snapshot.getPeriodEnd())
+                .status(snapshot.getStatus().name())
+                .salesRevenue(snapshot.getSalesRevenue())
+                .discountAmount(snapshot.getDiscountAmount())
+                .cost(snapshot.getCost())
+                .unitsSold(snapshot.getUnitsSold())
+                .expenses(snapshot.getExpenses())
+                .purchases(snapshot.getPurchases())
+                .netProfit(snapshot.getSalesRevenue().subtract(snapshot.getCost()).subtract(snapshot.getExpenses()))
+                .closedAt(snapshot.getClosedAt())
+                .reopenedAt(snapshot.getReopenedAt())
+                .reopenReason(snapshot.getReopenReason())
+                .build();
+    }
+}
@@ -1,39 +1,52 @@
 package com.example.inventoryManagementSystem.service.impl;
 
+import com.example.inventoryManagementSystem.config.OptimisticRetryExecutor;
 import com.example.inventoryManagementSystem.dto.request.ProductRequest;
 import com.example.inventoryManagementSystem.dto.response.ProductResponse;
+import com.example.inventoryManagementSystem.event.ReportDataChangedEvent;
 import com.example.inventoryManagementSystem.exception.ResourceNotFoundException;
 import com.example.inventoryManagementSystem.model.*;
 import com.example.inventoryManagementSystem.repository.*;
 import com.example.inventoryManagementSystem.service.FileStorageService;
 import com.example.inventoryManagementSystem.service.ProductService;
+import com.example.inventoryManagementSystem.service.StockReservationService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
+import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class ProductServiceImpl implements ProductService {
     private final ProductRepository productRepository;
+    private final OptimisticRetryExecutor optimisticRetry;
+    private final StockReservationService stockReservationService;
     private final CategoryRepository categoryRepository;
     private final BrandRepository brandRepository;
     private final UnitRepository unitRepository;
     private final SupplierRepository supplierRepository;
     private final FileStorageService fileStorageService;
     private final ModelMapper modelMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Rows kept in memory before SXSSF flushes them to a temp file
+    private static final int EXPORT_ROW_WINDOW = 100;
 
     @Override
     @Transactional
@@ -88,6 +101,7 @@ public class ProductServiceImpl implements ProductService {
                 .build();
 
         Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(ReportDataChangedEvent.forDay(LocalDate.now()));
         return mapToProductResponse(savedProduct);
     }
 
@@ -112,8 +126,12 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
-    @Transactional
+    @Transactional(Transactional.TxType.SUPPORTS)
     public ProductResponse updateProduct(Long id, ProductRequest request) {
+        return optimisticRetry.execute("product.update", () -> doUpdateProduct(id, request));
+    }
+
+    private ProductResponse doUpdateProduct(Long id, ProductRequest request) {
         try {
             Product existingProduct = productRepository.findById(id)
                     .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
@@ -131,6 +149,8 @@ public class ProductServiceImpl implements ProductService {
             updateProductRelationships(existingProduct, request);
 
             Product updatedProduct = productRepository.save(existingProduct);
+            stockReservationService.evict(updatedProduct.getId());
+            eventPublisher.publishEvent(ReportDataChangedEvent.forDay(LocalDate.now()));
             return mapToProductResponse(updatedProduct);
         } catch (DataIntegrityViolationException ex) {
             throw new RuntimeException("Data integrity violation while updating product: " + ex.getMostSpecificCause().getMessage(), ex);
@@ -166,6 +186,8 @@ public class ProductServiceImpl implements ProductService {
             updateProductRelationships(existingProduct, request);
 
             Product updatedProduct = productRepository.save(existingProduct);
+            stockReservationService.evict(updatedProduct.getId());
+            eventPublisher.publishEvent(ReportDataChangedEvent.forDay(LocalDate.now()));
             return mapToProductResponse(updatedProduct);
         } catch (Exception ex) {
             throw new RuntimeException("Error updating product with image", ex);
@@ -216,6 +238,8 @@ public class ProductServiceImpl implements ProductService {
 
             // Delete directly without clearing relationships
             productRepository.delete(product);
+            stockReservationService.evict(product.getId());
+            eventPublisher.publishEvent(ReportDataChangedEvent.forDay(LocalDate.now()));
         } catch (DataIntegrityViolationException ex) {
             throw new RuntimeException("Data integrity violation while deleting product: " + ex.getMostSpecificCause().getMessage(), ex);
         }
@@ -306,8 +330,11 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
-    public byte[] exportProducts() {
-        try (Workbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+    @Transactional
+    public void exportProducts(OutputStream outputStream) {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(EXPORT_ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try (Stream<Object[]> rows = productRepository.streamExportRows()) {
             Sheet sheet = workbook.createSheet("Products");
 
             Row headerRow = sheet.createRow(0);
@@ -321,63 +348,39 @@ public class ProductServiceImpl implements ProductService {
             };
             for (int i = 0; i < headers.length; i++) {
                 headerRow.createCell(i).setCellValue(headers[i]);
+                // Fixed widths: autoSizeColumn would need every row kept in memory
+                sheet.setColumnWidth(i, Math.max(headers[i].length() + 4, 12) * 256);
             }
 
-            List<Product> products = productRepository.findAll();
-            for (int i = 0; i < products.size(); i++) {
-                Product product = products.get(i);
-                Row row = sheet.createRow(i + 1);
-
-                int cellNum = 0;
-                row.createCell(cellNum++).setCellValue(product.getId());
-                row.createCell(cellNum++).setCellValue(product.getName());
-                row.createCell(cellNum++).setCellValue(product.getDescription());
-                row.createCell(cellNum++).setCellValue(product.getSku());
-                row.createCell(cellNum++).setCellValue(product.getBarcode());
-                row.createCell(cellNum++).setCellValue(product.getPrice());
-                row.createCell(cellNum++).setCellValue(product.getCostPrice());
-                row.createCell(cellNum++).setCellValue(product.getQuantityInStock());
-                row.createCell(cellNum++).setCellValue(product.getLowStockThreshold());
-
-                if (product.getSupplier() != null) {
-                    row.createCell(cellNum++).setCellValue(product.getSupplier().getId());
-                    row.createCell(cellNum++).setCellValue(product.getSupplier().getCompanyName());
-                } else {
-                    cellNum += 2;
-                }
-
-                if (product.getCategory() != null) {
-                    row.createCell(cellNum++).setCellValue(product.getCategory().getId());
-                    row.createCell(cellNum++).setCellValue(product.getCategory().getName());
-                } else {
-                    cellNum += 2;
-                }
-
-                if (product.getBrand() != null) {
-                    row.createCell(cellNum++).setCellValue(product.getBrand().getId());
-                    row.createCell(cellNum++).setCellValue(product.getBrand().getName());
-                } else {
-                    cellNum += 2;
-                }
-
-                if (product.getUnit() != null) {
-                    row.createCell(cellNum++).setCellValue(product.getUnit().getId());
-                    row.createCell(cellNum++).setCellValue(product.getUnit().getName());
-                } else {
-                    cellNum += 2;
-                }
-
-                if (product.getExpiryDate() != null) {
-                    row.createCell(cellNum++).setCellValue(product.getExpiryDate().toString());
+            int rowNum = 1;
+            Iterator<Object[]> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Object[] product = iterator.next();
+                Row row = sheet.createRow(rowNum++);
+                for (int i = 0; i < product.length; i++) {
+                    setExportCellValue(row, i, product[i]);
                 }
-
-                row.createCell(cellNum).setCellValue(product.getImageUrl() != null ? product.getImageUrl() : "");
             }
 
-            workbook.write(out);
-            return out.toByteArray();
+            workbook.write(outputStream);
         } catch (IOException e) {
             throw new RuntimeException("Failed to export products: " + e.getMessage(), e);
+        } finally {
+            try {
+                workbook.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private void setExportCellValue(Row row, int column, Object value) {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof Number) {
+            row.createCell(column).setCellValue(((Number) value).doubleValue());
+        } else {
+            row.createCell(column).setCellValue(value.toString());
         }
     }
 
@@ -1,19 +1,27 @@
 package com.example.inventoryManagementSystem.service.impl;
 
+import com.example.inventoryManagementSystem.config.OptimisticRetryExecutor;
 import com.example.inventoryManagementSystem.dto.request.PurchaseItemRequest;
 import com.example.inventoryManagementSystem.dto.request.PurchaseRequest;
 import com.example.inventoryManagementSystem.dto.response.*;
+import com.example.inventoryManagementSystem.event.ReportDataChangedEvent;
 import com.example.inventoryManagementSystem.exception.BusinessException;
 import com.example.inventoryManagementSystem.exception.ResourceNotFoundException;
 import com.example.inventoryManagementSystem.model.*;
 import com.example.inventoryManagementSystem.repository.*;
 import com.example.inventoryManagementSystem.service.PurchaseService;
+import com.example.inventoryManagementSystem.service.StockMutationService;
+import com.example.inventoryManagementSystem.service.StockMutationService.StockChange;
+import com.example.inventoryManagementSystem.util.MoneyAccumulator;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
@@ -25,7 +33,10 @@ public class PurchaseServiceImpl implements PurchaseService {
     private final PurchaseRepository purchaseRepository;
     private final SupplierRepository supplierRepository;
     private final ProductRepository productRepository;
+    private final StockMutationService stockMutationService;
+    private final OptimisticRetryExecutor optimisticRetry;
     private final ModelMapper modelMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<PurchaseResponse> getAllPurchases() {
@@ -70,11 +81,11 @@ public class PurchaseServiceImpl implements PurchaseService {
         });
 
         BigDecimal total = purchase.getItems().stream()
-                .map(PurchaseItem::getTotalPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+                .collect(MoneyAccumulator.summing(PurchaseItem::getTotalPrice));
         purchase.setTotalAmount(total);
 
         Purchase savedPurchase = purchaseRepository.save(purchase);
+        publishReportDataChanged(savedPurchase);
         return mapToPurchaseResponse(savedPurchase);
     }
 
@@ -86,8 +97,12 @@ public class PurchaseServiceImpl implements PurchaseService {
     }
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.SUPPORTS)
     public PurchaseResponse receivePurchase(Long id) {
+        return optimisticRetry.execute("purchase.receive", () -> doReceivePurchase(id));
+    }
+
+    private PurchaseResponse doReceivePurchase(Long id) {
         Purchase purchase = purchaseRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Purchase not found with id: " + id));
 
@@ -104,18 +119,23 @@ public class PurchaseServiceImpl implements PurchaseService {
         updateInventoryStock(purchase);
 
         Purchase updatedPurchase = purchaseRepository.save(purchase);
+        publishReportDataChanged(updatedPurchase);
         return mapToPurchaseResponse(updatedPurchase);
     }
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.SUPPORTS)
     public PurchaseResponse markAsReceived(Long id) {
         return receivePurchase(id);
     }
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.SUPPORTS)
     public PurchaseResponse cancelPurchase(Long id) {
+        return optimisticRetry.execute("purchase.cancel", () -> doCancelPurchase(id));
+    }
+
+    private PurchaseResponse doCancelPurchase(Long id) {
         Purchase purchase = purchaseRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Purchase not found with id: " + id));
 
@@ -127,12 +147,17 @@ public class PurchaseServiceImpl implements PurchaseService {
         purchase.setCancellationDate(LocalDateTime.now());
 
         Purchase updatedPurchase = purchaseRepository.save(purchase);
+        publishReportDataChanged(updatedPurchase);
         return mapToPurchaseResponse(updatedPurchase);
     }
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.SUPPORTS)
     public PurchaseResponse updatePurchase(Long id, PurchaseRequest request) {
+        return optimisticRetry.execute("purchase.update", () -> doUpdatePurchase(id, request));
+    }
+
+    private PurchaseResponse doUpdatePurchase(Long id, PurchaseRequest request) {
         Purchase purchase = purchaseRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Purchase not found"));
 
@@ -162,29 +187,39 @@ public class PurchaseServiceImpl implements PurchaseService {
         });
 
         BigDecimal total = purchase.getItems().stream()
-                .map(PurchaseItem::getTotalPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+                .collect(MoneyAccumulator.summing(PurchaseItem::getTotalPrice));
         purchase.setTotalAmount(total);
 
         Purchase updatedPurchase = purchaseRepository.save(purchase);
+        publishReportDataChanged(updatedPurchase);
         return mapToPurchaseResponse(updatedPurchase);
     }
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void deletePurchase(Long id) {
+        optimisticRetry.execute("purchase.delete", () -> doDeletePurchase(id));
+    }
+
+    private void doDeletePurchase(Long id) {
         Purchase purchase = purchaseRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Purchase not found"));
         purchaseRepository.delete(purchase);
+        publishReportDataChanged(purchase);
     }
 
-    private void updateInventoryStock(Purchase purchase) {
-        for (PurchaseItem item : purchase.getItems()) {
-            Product product = item.getProduct();
-            int newQuantity = product.getQuantityInStock() + item.getQuantity();
-            product.setQuantityInStock(newQuantity);
-            productRepository.save(product);
+    // Purchase reports are keyed on order date; receiving also changes current stock
+    private void publishReportDataChanged(Purchase purchase) {
+        if (purchase.getOrderDate() != null) {
+            eventPublisher.publishEvent(ReportDataChangedEvent.forDay(purchase.getOrderDate().toLocalDate()));
         }
+        eventPublisher.publishEvent(ReportDataChangedEvent.forDay(LocalDate.now()));
+    }
+
+    private void updateInventoryStock(Purchase purchase) {
+        stockMutationService.apply(purchase.getItems().stream()
+                .map(item -> StockChange.increment(item.getProduct(), item.getQuantity()))
+                .collect(Collectors.toList()));
     }
 
     private SupplierResponse mapToSupplierResponse(Supplier supplier) {
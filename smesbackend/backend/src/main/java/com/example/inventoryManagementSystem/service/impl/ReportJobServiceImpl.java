@@ -0,0 +1,345 @@
+package com.example.inventoryManagementSystem.service.impl;
+
+import com.example.inventoryManagementSystem.dto.request.ExportReportRequest;
+import com.example.inventoryManagementSystem.dto.response.ReportJobResponse;
+import com.example.inventoryManagementSystem.exception.BusinessException;
+import com.example.inventoryManagementSystem.exception.ResourceNotFoundException;
+import com.example.inventoryManagementSystem.service.ReportJobService;
+import com.example.inventoryManagementSystem.service.ReportService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+@Service
+public class ReportJobServiceImpl implements ReportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportJobServiceImpl.class);
+
+    private final ReportService reportService;
+    private final Path jobDirectory;
+    private final int maxActiveJobsPerUser;
+    private final Duration resultTtl;
+    private final ThreadPoolTaskExecutor executor;
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+
+    public ReportJobServiceImpl(ReportService reportService,
+                                @Value("${app.reports.jobs.directory:${java.io.tmpdir}/report-jobs}") String jobDirectory,
+                                @Value("${app.reports.jobs.threads:2}") int threads,
+                                @Value("${app.reports.jobs.queue-capacity:20}") int queueCapacity,
+                                @Value("${app.reports.jobs.max-active-per-user:2}") int maxActiveJobsPerUser,
+                                @Value("${app.reports.jobs.ttl-minutes:60}") long ttlMinutes) {
+        this.reportService = reportService;
+        this.jobDirectory = Paths.get(jobDirectory);
+        this.maxActiveJobsPerUser = maxActiveJobsPerUser;
+        this.resultTtl = Duration.ofMinutes(ttlMinutes);
+
+        try {
+            Files.createDirectories(this.jobDirectory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create report job directory " + jobDirectory, e);
+        }
+
+        // Private pool so report jobs never compete with request handling or MVC async work
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(threads);
+        this.executor.setMaxPoolSize(threads);
+        this.executor.setQueueCapacity(queueCapacity);
+        this.executor.setThreadNamePrefix("report-job-");
+        this.executor.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public ReportJobResponse submitReport(String username, ExportReportRequest request) {
+        if (request.getReportType() == null || request.getFormat() == null) {
+            throw new BusinessException("Report type and format are required");
+        }
+        return submit(username, request.getReportType().name(),
+                reportService.getExportFilename(request),
+                reportService.getExportContentType(request),
+                outputStream -> reportService.writeReport(request, outputStream));
+    }
+
+    @Override
+    public ReportJobResponse submitDashboardPdf(String username, LocalDate startDate, LocalDate endDate) {
+        return submit(username, "DASHBOARD", "dashboard_report.pdf", MediaType.APPLICATION_PDF_VALUE,
+                outputStream -> reportService.writeDashboardPdf(startDate, endDate, outputStream));
+    }
+
+    @Override
+    public ReportJobResponse getJob(String username, String jobId) {
+        return mapToResponse(findOwnedJob(username, jobId));
+    }
+
+    @Override
+    public List<ReportJobResponse> getJobs(String username) {
+        return jobs.values().stream()
+                .filter(job -> job.owner.equals(username))
+                .sorted(Comparator.comparing((ReportJob job) -> job.createdAt).reversed())
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public ResponseEntity<Resource> downloadResult(String username, String jobId) {
+        ReportJob job = findOwnedJob(username, jobId);
+        if (job.status != JobStatus.COMPLETED) {
+            throw new BusinessException("Report job " + jobId + " is " + job.status.name().toLowerCase());
+        }
+        if (!Files.exists(job.file)) {
+            throw new ResourceNotFoundException("Report result has expired");
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(job.contentType))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + job.filename + "\"")
+                .body(new FileSystemResource(job.file));
+    }
+
+    @Override
+    public ReportJobResponse cancelJob(String username, String jobId) {
+        ReportJob job = findOwnedJob(username, jobId);
+        synchronized (job) {
+            job.cancelRequested = true;
+            if (job.status == JobStatus.QUEUED) {
+                job.status = JobStatus.CANCELLED;
+                job.completedAt = LocalDateTime.now();
+                if (job.future != null) {
+                    job.future.cancel(false);
+                }
+            } else if (job.status == JobStatus.RUNNING && job.future != null) {
+                job.future.cancel(true);
+            }
+        }
+        // A finished job's result is discarded straight away
+        if (job.status != JobStatus.QUEUED && job.status != JobStatus.RUNNING) {
+            jobs.remove(job.id);
+            deleteQuietly(job.file);
+        }
+        return mapToResponse(job);
+    }
+
+    // Drop finished jobs and result files older than the TTL, including files left over from a restart
+    @Scheduled(fixedDelayString = "${app.reports.jobs.cleanup-interval-ms:300000}")
+    public void purgeExpiredResults() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(resultTtl);
+        jobs.values().removeIf(job -> {
+            boolean expired = job.completedAt != null && job.completedAt.isBefore(cutoff);
+            if (expired) {
+                deleteQuietly(job.file);
+            }
+            return expired;
+        });
+
+        Instant fileCutoff = Instant.now().minus(resultTtl);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(jobDirectory)) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).toInstant().isBefore(fileCutoff)
+                        && jobs.values().stream().noneMatch(job -> file.getFileName().toString().startsWith(job.id))) {
+                    deleteQuietly(file);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to sweep report job directory {}: {}", jobDirectory, e.getMessage());
+        }
+    }
+
+    private synchronized ReportJobResponse submit(String username, String reportType, String filename,
+                                                  String contentType, ReportWriter writer) {
+        long active = jobs.values().stream()
+                .filter(job -> job.owner.equals(username))
+                .filter(job -> job.status == JobStatus.QUEUED || job.status == JobStatus.RUNNING)
+                .count();
+        if (active >= maxActiveJobsPerUser) {
+            throw new BusinessException("You already have " + active + " report jobs in progress");
+        }
+
+        String jobId = UUID.randomUUID().toString();
+        ReportJob job = new ReportJob(jobId, username, reportType, filename, contentType,
+                jobDirectory.resolve(jobId + ".result"));
+        jobs.put(jobId, job);
+
+        try {
+            job.future = executor.submit(() -> run(job, writer));
+        } catch (TaskRejectedException e) {
+            jobs.remove(jobId);
+            throw new BusinessException("Report queue is full, please try again later");
+        }
+
+        logger.info("Queued report job {} ({}) for {}", jobId, reportType, username);
+        return mapToResponse(job);
+    }
+
+    private void run(ReportJob job, ReportWriter writer) {
+        synchronized (job) {
+            if (job.status != JobStatus.QUEUED) {
+                return;
+            }
+            job.status = JobStatus.RUNNING;
+            job.startedAt = LocalDateTime.now();
+        }
+
+        Path partFile = jobDirectory.resolve(job.id + ".part");
+        try {
+            try (OutputStream outputStream = new ProgressOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(partFile)), job)) {
+                writer.write(outputStream);
+            }
+            Files.move(partFile, job.file, StandardCopyOption.REPLACE_EXISTING);
+            finish(job, JobStatus.COMPLETED, null);
+            logger.info("Report job {} completed: {} bytes", job.id, job.bytesWritten.get());
+        } catch (Exception e) {
+            deleteQuietly(partFile);
+            if (job.cancelRequested) {
+                finish(job, JobStatus.CANCELLED, null);
+                logger.info("Report job {} cancelled", job.id);
+            } else {
+                finish(job, JobStatus.FAILED, e.getMessage());
+                logger.error("Report job {} failed: {}", job.id, e.getMessage(), e);
+            }
+        }
+    }
+
+    private void finish(ReportJob job, JobStatus status, String error) {
+        synchronized (job) {
+            job.status = status;
+            job.error = error;
+            job.completedAt = LocalDateTime.now();
+        }
+    }
+
+    private ReportJob findOwnedJob(String username, String jobId) {
+        ReportJob job = jobs.get(jobId);
+        if (job == null || !job.owner.equals(username)) {
+            throw new ResourceNotFoundException("Report job not found: " + jobId);
+        }
+        return job;
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Failed to delete report file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private ReportJobResponse mapToResponse(ReportJob job) {
+        return ReportJobResponse.builder()
+                .jobId(job.id)
+                .reportType(job.reportType)
+                .status(job.status.name())
+                .filename(job.filename)
+                .bytesWritten(job.bytesWritten.get())
+                .createdAt(job.createdAt)
+                .startedAt(job.startedAt)
+                .completedAt(job.completedAt)
+                .expiresAt(job.completedAt != null ? job.completedAt.plus(resultTtl) : null)
+                .error(job.error)
+                .downloadUrl(job.status == JobStatus.COMPLETED ? "/api/reports/jobs/" + job.id + "/download" : null)
+                .build();
+    }
+
+    private enum JobStatus {
+        QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED
+    }
+
+    @FunctionalInterface
+    private interface ReportWriter {
+        void write(OutputStream outputStream) throws IOException;
+    }
+
+    private static class ReportJob {
+        private final String id;
+        private final String owner;
+        private final String reportType;
+        private final String filename;
+        private final String contentType;
+        private final Path file;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private final AtomicLong bytesWritten = new AtomicLong();
+        private volatile JobStatus status = JobStatus.QUEUED;
+        private volatile boolean cancelRequested;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime completedAt;
+        private volatile String error;
+        private volatile Future<?> future;
+
+        private ReportJob(String id, String owner, String reportType, String filename, String contentType, Path file) {
+            this.id = id;
+            this.owner = owner;
+            this.reportType = reportType;
+            this.filename = filename;
+            this.contentType = contentType;
+            this.file = file;
+        }
+    }
+
+    // Counts bytes for progress polling and aborts the writer as soon as the job is cancelled
+    private static class ProgressOutputStream extends FilterOutputStream {
+        private final ReportJob job;
+
+        private ProgressOutputStream(OutputStream out, ReportJob job) {
+            super(out);
+            this.job = job;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            checkCancelled();
+            out.write(b);
+            job.bytesWritten.incrementAndGet();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            checkCancelled();
+            out.write(b, off, len);
+            job.bytesWritten.addAndGet(len);
+        }
+
+        private void checkCancelled() throws InterruptedIOException {
+            if (job.cancelRequested || Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("Report job cancelled");
+            }
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package com.example.inventoryManagementSystem.service.impl;
+
+import com.example.inventoryManagementSystem.config.ReportPlanRecorder;
+import com.example.inventoryManagementSystem.model.PeriodSnapshot;
+import com.example.inventoryManagementSystem.model.PeriodSnapshot.PeriodStatus;
+import com.example.inventoryManagementSystem.model.Sale;
+import com.example.inventoryManagementSystem.repository.DailySalesRollupRepository;
+import com.example.inventoryManagementSystem.repository.PeriodSnapshotRepository;
+import com.example.inventoryManagementSystem.repository.PurchaseRepository;
+import com.example.inventoryManagementSystem.repository.SaleItemRepository;
+import com.example.inventoryManagementSystem.repository.SaleRepository;
+import com.example.inventoryManagementSystem.service.ExpenseService;
+import com.example.inventoryManagementSystem.service.ReportQueryPlanner;
+import com.example.inventoryManagementSystem.service.SalesCubeService;
+import com.example.inventoryManagementSystem.service.SalesTrendService.TrendPeriod;
+import com.example.inventoryManagementSystem.util.MoneyAccumulator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Period plans read closed months from their snapshots and plan the days between them
+ * like any other range. Open-ended ranges are first narrowed to the earliest sale. A
+ * loaded sales cube answers everything; otherwise range aggregates read closed days from the daily rollup and the
+ * live tail (the last raw-tail-days days, where refunds and edits still land) from the
+ * sale tables, and per-sale queries read the sale tables.
+ */
+@Service
+public class ReportQueryPlannerImpl implements ReportQueryPlanner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportQueryPlannerImpl.class);
+
+    private final SaleRepository saleRepository;
+    private final SaleItemRepository saleItemRepository;
+    private final DailySalesRollupRepository rollupRepository;
+    private final SalesCubeService salesCubeService;
+    private final PeriodSnapshotRepository periodSnapshotRepository;
+    private final ExpenseService expenseService;
+    private final PurchaseRepository purchaseRepository;
+    private final int rawTailDays;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ReportQueryPlannerImpl(SaleRepository saleRepository,
+                                  SaleItemRepository saleItemRepository,
+                                  DailySalesRollupRepository rollupRepository,
+                                  SalesCubeService salesCubeService,
+                                  PeriodSnapshotRepository periodSnapshotRepository,
+                                  ExpenseService expenseService,
+                                  PurchaseRepository purchaseRepository,
+                                  @Value("${app.reports.planner.raw-tail-days:1}") int rawTailDays) {
+        this.saleRepository = saleRepository;
+        this.saleItemRepository = saleItemRepository;
+        this.rollupRepository = rollupRepository;
+        this.salesCubeService = salesCubeService;
+        this.periodSnapshotRepository = periodSnapshotRepository;
+        this.expenseService = expenseService;
+        this.purchaseRepository = purchaseRepository;
+        this.rawTailDays = Math.max(rawTailDays, 0);
+    }
+
+    @Override
+    public Plan planTotals(LocalDate startDate, LocalDate endDate) {
+        LocalDate end = endDate != null ? endDate : LocalDate.now();
+        LocalDate start = narrowStart(startDate);
+        if (start == null || start.isAfter(end)) {
+            return new Plan(startDate, end, Collections.emptyList(), "no sales in range");
+        }
+        if (salesCubeService.isLoaded()) {
+            return new Plan(startDate, end, List.of(new Segment(Source.CUBE, start, end)), "sales cube loaded");
+        }
+
+        LocalDate tailStart = rawTailDays > 0 ? LocalDate.now().minusDays(rawTailDays - 1L) : LocalDate.MAX;
+        List<Segment> segments = new ArrayList<>(2);
+        if (start.isBefore(tailStart)) {
+            segments.add(new Segment(Source.ROLLUP, start, end.isBefore(tailStart) ? end : tailStart.minusDays(1)));
+        }
+        if (!end.isBefore(tailStart)) {
+            segments.add(new Segment(Source.RAW, start.isAfter(tailStart) ? start : tailStart, end));
+        }
+
+        String reason;
+        if (segments.size() == 2) {
+            reason = "closed days from rollup, live tail from sales";
+        } else if (segments.get(0).getSource() == Source.ROLLUP) {
+            reason = "range ends before the live tail";
+        } else {
+            reason = "range lies in the live tail";
+        }
+        return new Plan(startDate, end, segments, reason);
+    }
+
+    @Override
+    public Plan planSaleDetail(LocalDate startDate, LocalDate endDate) {
+        LocalDate end = endDate != null ? endDate : LocalDate.now();
+        LocalDate start = narrowStart(startDate);
+        if (start == null || start.isAfter(end)) {
+            return new Plan(startDate, end, Collections.emptyList(), "no sales in range");
+        }
+        if (salesCubeService.isLoaded()) {
+            return new Plan(startDate, end, List.of(new Segment(Source.CUBE, start, end)), "sales cube loaded");
+        }
+        return new Plan(startDate, end, List.of(new Segment(Source.RAW, start, end)), "rollup lacks per-sale counts");
+    }
+
+    @Override
+    public Plan planPeriod(LocalDate startDate, LocalDate endDate) {
+        LocalDate end = endDate != null ? endDate : LocalDate.now();
+        LocalDate start = startDate != null && !startDate.equals(LocalDate.MIN) ? startDate : null;
+        if (start != null && start.isAfter(end)) {
+            return new Plan(start, end, Collections.emptyList(), "empty range");
+        }
+
+        // Closed months inside the range come from snapshots; the gaps between them are planned as live data
+        List<Segment> segments = new ArrayList<>();
+        LocalDate cursor = start;
+        int closedMonths = 0;
+        for (PeriodSnapshot snapshot : periodSnapshotRepository.findByStatusOrderByPeriodStart(PeriodStatus.CLOSED)) {
+            if ((start != null && snapshot.getPeriodStart().isBefore(start)) || snapshot.getPeriodEnd().isAfter(end)) {
+                continue;
+            }
+            if (cursor == null || cursor.isBefore(snapshot.getPeriodStart())) {
+                segments.addAll(planTotals(cursor, snapshot.getPeriodStart().minusDays(1)).getSegments());
+            }
+            Segment last = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+            if (last != null && last.getSource() == Source.SNAPSHOT
+                    && last.getEndDate().plusDays(1).equals(snapshot.getPeriodStart())) {
+                segments.set(segments.size() - 1,
+                        new Segment(Source.SNAPSHOT, last.getStartDate(), snapshot.getPeriodEnd()));
+            } else {
+                segments.add(new Segment(Source.SNAPSHOT, snapshot.getPeriodStart(), snapshot.getPeriodEnd()));
+            }
+            cursor = snapshot.getPeriodEnd().plusDays(1);
+            closedMonths++;
+        }
+        if (cursor == null || !cursor.isAfter(end)) {
+            segments.addAll(planTotals(cursor, end).getSegments());
+        }
+
+        String reason = closedMonths == 0
+                ? "no closed months in range"
+                : closedMonths + " closed month(s) from snapshots, open days from live data";
+        return new Plan(start, end, segments, reason);
+    }
+
+    @Override
+    public Object[] sumTotals(Plan plan, Sale.SaleStatus status) {
+        record("totals", plan);
+        MoneyAccumulator revenue = new MoneyAccumulator();
+        MoneyAccumulator discount = new MoneyAccumulator();
+        MoneyAccumulator cost = new MoneyAccumulator();
+        long quantity = 0;
+        for (Segment segment : plan.getSegments()) {
+            Object[] totals = segmentTotals(segment, status);
+            revenue.add(MoneyAccumulator.decimalOf(totals[0]));
+            discount.add(MoneyAccumulator.decimalOf(totals[1]));
+            cost.add(MoneyAccumulator.decimalOf(totals[2]));
+            quantity += ((Number) totals[3]).longValue();
+        }
+        return new Object[]{revenue.toBigDecimal(), discount.toBigDecimal(), cost.toBigDecimal(), quantity};
+    }
+
+    @Override
+    public List<Object[]> sumByProduct(Plan plan, Sale.SaleStatus status, Long categoryId, Integer limit) {
+        record("products", plan);
+        if (plan.isEmpty()) {
+            return Collections.emptyList();
+        }
+        // A single segment keeps the top-N limit in the query; several are merged and ranked here
+        if (plan.getSegments().size() == 1) {
+            Pageable pageable = limit != null ? PageRequest.of(0, limit) : Pageable.unpaged();
+            return segmentByProduct(plan.getSegments().get(0), status, categoryId, limit, pageable);
+        }
+
+        Map<Long, Object[]> merged = new HashMap<>();
+        for (Segment segment : plan.getSegments()) {
+            for (Object[] row : segmentByProduct(segment, status, categoryId, null, Pageable.unpaged())) {
+                Object[] product = merged.computeIfAbsent(((Number) row[0]).longValue(),
+                        id -> new Object[]{id, row[1], row[2], 0L, new MoneyAccumulator(), new MoneyAccumulator()});
+                product[3] = (Long) product[3] + ((Number) row[3]).longValue();
+                ((MoneyAccumulator) product[4]).add(MoneyAccumulator.decimalOf(row[4]));
+                ((MoneyAccumulator) product[5]).add(MoneyAccumulator.decimalOf(row[5]));
+            }
+        }
+
+        List<Object[]> rows = new ArrayList<>(merged.values());
+        rows.sort((a, b) -> Long.compare(((MoneyAccumulator) b[4]).cents(), ((MoneyAccumulator) a[4]).cents()));
+        if (limit != null && rows.size() > limit) {
+            rows = new ArrayList<>(rows.subList(0, limit));
+        }
+        for (Object[] row : rows) {
+            row[4] = ((MoneyAccumulator) row[4]).toBigDecimal();
+            row[5] = ((MoneyAccumulator) row[5]).toBigDecimal();
+        }
+        return rows;
+    }
+
+    @Override
+    public List<Object[]> aggregateDailySales(Plan plan, Sale.SaleStatus status) {
+        record("daily sales", plan);
+        List<Object[]> rows = new ArrayList<>();
+        for (Segment segment : plan.getSegments()) {
+            if (segment.getSource() == Source.CUBE) {
+                rows.addAll(salesCubeService.aggregateDailySales(segment.getStartDate(), segment.getEndDate(), status)
+                        .orElseGet(() -> rawDailySales(segment, status)));
+            } else {
+                rows.addAll(rawDailySales(segment, status));
+            }
+        }
+        return rows;
+    }
+
+    @Override
+    public List<Object[]> sumByTrendBucket(Plan plan, TrendPeriod period) {
+        record("trend by " + period.name().toLowerCase(), plan);
+        List<Object[]> rows = new ArrayList<>();
+        for (Segment segment : plan.getSegments()) {
+            if (segment.getSource() == Source.CUBE) {
+                rows.addAll(salesCubeService.sumByTrendBucket(segment.getStartDate(), segment.getEndDate(), period)
+                        .orElseGet(() -> rawTrendBuckets(segment, period)));
+            } else {
+                rows.addAll(rawTrendBuckets(segment, period));
+            }
+        }
+        return rows;
+    }
+
+    @Override
+    public PeriodTotals sumPeriodTotals(Plan plan) {
+        record("period totals", plan);
+        MoneyAccumulator revenue = new MoneyAccumulator();
+        MoneyAccumulator discount = new MoneyAccumulator();
+        MoneyAccumulator cost = new MoneyAccumulator();
+        MoneyAccumulator expenses = new MoneyAccumulator();
+        MoneyAccumulator purchases = new MoneyAccumulator();
+        long units = 0;
+
+        // Expenses and purchases are not tied to sales, so the open days are every day of the
+        // requested range outside a snapshot, including those before the first sale
+        LocalDate cursor = plan.getStartDate();
+        for (Segment segment : plan.getSegments()) {
+            if (segment.getSource() != Source.SNAPSHOT) {
+                Object[] totals = segmentTotals(segment, Sale.SaleStatus.COMPLETED);
+                revenue.add(MoneyAccumulator.decimalOf(totals[0]));
+                discount.add(MoneyAccumulator.decimalOf(totals[1]));
+                cost.add(MoneyAccumulator.decimalOf(totals[2]));
+                units += ((Number) totals[3]).longValue();
+                continue;
+            }
+
+            Object[] figures = periodSnapshotRepository.sumFigures(
+                    PeriodStatus.CLOSED, segment.getStartDate(), segment.getEndDate()).get(0);
+            revenue.add(MoneyAccumulator.decimalOf(figures[0]));
+            discount.add(MoneyAccumulator.decimalOf(figures[1]));
+            cost.add(MoneyAccumulator.decimalOf(figures[2]));
+            units += ((Number) figures[3]).longValue();
+            expenses.add(MoneyAccumulator.decimalOf(figures[4]));
+            purchases.add(MoneyAccumulator.decimalOf(figures[5]));
+
+            if (cursor == null || cursor.isBefore(segment.getStartDate())) {
+                addOpenOutflows(cursor, segment.getStartDate().minusDays(1), expenses, purchases);
+            }
+            cursor = segment.getEndDate().plusDays(1);
+        }
+        if (cursor == null || !cursor.isAfter(plan.getEndDate())) {
+            addOpenOutflows(cursor, plan.getEndDate(), expenses, purchases);
+        }
+
+        return PeriodTotals.builder()
+                .salesRevenue(revenue.toBigDecimal())
+                .discountAmount(discount.toBigDecimal())
+                .cost(cost.toBigDecimal())
+                .unitsSold(units)
+                .expenses(expenses.toBigDecimal())
+                .purchases(purchases.toBigDecimal())
+                .build();
+    }
+
+    private void addOpenOutflows(LocalDate startDate, LocalDate endDate,
+                                 MoneyAccumulator expenses, MoneyAccumulator purchases) {
+        expenses.add(MoneyAccumulator.decimalOf(expenseService.getTotalExpenses(startDate, endDate)));
+        purchases.add(MoneyAccumulator.decimalOf(purchaseRepository.sumReceivedPurchasesInPeriod(
+                startDate != null ? startDate.atStartOfDay() : LocalDateTime.MIN, endDate.atTime(23, 59, 59))));
+    }
+
+    // Null and LocalDate.MIN mean all history, which starts at the first sale
+    private LocalDate narrowStart(LocalDate startDate) {
+        if (startDate != null && !startDate.equals(LocalDate.MIN)) {
+            return startDate;
+        }
+        return saleRepository.findEarliestSaleDate()
+                .map(LocalDateTime::toLocalDate)
+                .orElse(null);
+    }
+
+    private Object[] segmentTotals(Segment segment, Sale.SaleStatus status) {
+        LocalDate start = segment.getStartDate();
+        LocalDate end = segment.getEndDate();
+        switch (segment.getSource()) {
+            case CUBE:
+                return salesCubeService.sumTotals(status, start, end)
+                        .orElseGet(() -> rollupRepository.sumTotals(status, start, end).get(0));
+            case ROLLUP:
+                return rollupRepository.sumTotals(status, start, end).get(0);
+            default:
+                return saleItemRepository.sumTotals(status, start.atStartOfDay(), end.atTime(23, 59, 59)).get(0);
+        }
+    }
+
+    private List<Object[]> segmentByProduct(Segment segment, Sale.SaleStatus status, Long categoryId,
+                                            Integer limit, Pageable pageable) {
+        LocalDate start = segment.getStartDate();
+        LocalDate end = segment.getEndDate();
+        switch (segment.getSource()) {
+            case CUBE:
+                return salesCubeService.sumByProduct(status, start, end, categoryId, limit)
+                        .orElseGet(() -> rollupRepository.sumByProduct(status, start, end, categoryId, pageable));
+            case ROLLUP:
+                return rollupRepository.sumByProduct(status, start, end, categoryId, pageable);
+            default:
+                return saleItemRepository.sumByProduct(
+                        status, start.atStartOfDay(), end.atTime(23, 59, 59), categoryId, pageable);
+        }
+    }
+
+    private List<Object[]> rawDailySales(Segment segment, Sale.SaleStatus status) {
+        return saleRepository.aggregateDailySales(
+                segment.getStartDate().atStartOfDay(), segment.getEndDate().atTime(23, 59, 59), status);
+    }
+
+    private List<Object[]> rawTrendBuckets(Segment segment, TrendPeriod period) {
+        String bucket = TrendBuckets.expression(period, "s.saleDate");
+        return entityManager.createQuery(
+                        "SELECT " + bucket + ", COALESCE(SUM(s.subtotal), 0), COUNT(s.id) FROM Sale s " +
+                                "WHERE s.status = :status AND s.saleDate BETWEEN :startDate AND :endDate " +
+                                "GROUP BY " + bucket, Object[].class)
+                .setParameter("status", Sale.SaleStatus.COMPLETED)
+                .setParameter("startDate", segment.getStartDate().atStartOfDay())
+                .setParameter("endDate", segment.getEndDate().atTime(23, 59, 59))
+                .getResultList();
+    }
+
+    private static void record(String query, Plan plan) {
+        String entry = query + ": " + plan;
+        logger.debug("Report plan {}", entry);
+        ReportPlanRecorder.record(entry);
+    }
+}
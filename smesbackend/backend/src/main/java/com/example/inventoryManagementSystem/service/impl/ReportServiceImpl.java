@@ -1,110 +1,149 @@
 package com.example.inventoryManagementSystem.service.impl;
 
+import com.example.inventoryManagementSystem.config.ReportQueryExecutor;
 import com.example.inventoryManagementSystem.dto.request.ExportReportRequest;
 import com.example.inventoryManagementSystem.dto.response.*;
 import com.example.inventoryManagementSystem.model.*;
 import com.example.inventoryManagementSystem.repository.*;
+import com.example.inventoryManagementSystem.service.ExpenseService;
 import com.example.inventoryManagementSystem.service.ReportService;
+import com.example.inventoryManagementSystem.service.ReportQueryPlanner;
+import com.example.inventoryManagementSystem.service.ReportQueryPlanner.PeriodTotals;
+import com.example.inventoryManagementSystem.service.SalesTrendService;
+import com.example.inventoryManagementSystem.util.MoneyAccumulator;
+import com.opencsv.CSVWriter;
 import lombok.RequiredArgsConstructor;
+import org.apache.poi.ss.SpreadsheetVersion;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-
-import java.io.ByteArrayOutputStream;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
 import java.time.*;
-import java.time.temporal.IsoFields;
-import java.time.temporal.TemporalAdjusters;
-import java.time.temporal.WeekFields;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 @Service
 @RequiredArgsConstructor
 public class ReportServiceImpl implements ReportService {
 
     private static final Logger logger = LoggerFactory.getLogger(ReportServiceImpl.class);
+    // Rows kept in memory per sheet before SXSSF flushes them to a temp file
+    private static final int EXCEL_ROW_WINDOW = 100;
+    private static final int MIN_EXCEL_COLUMN_CHARS = 12;
+    private static final int MAX_EXCEL_COLUMN_CHARS = 50;
+    private static final int CSV_BUFFER_SIZE = 64 * 1024;
+    private static final Set<String> INVENTORY_VALUATION_SORT_KEYS =
+            Set.of("productName", "quantity", "unitCost", "totalValue", "unitsSold");
     private final SaleRepository saleRepository;
-    private final SaleItemRepository saleItemRepository;
     private final ProductRepository productRepository;
     private final PurchaseRepository purchaseRepository;
     private final PurchaseItemRepository purchaseItemRepository;
     private final SupplierRepository supplierRepository;
-    private final ExpenseRepository expenseRepository;
+    private final ExpenseService expenseService;
+    private final DailySalesRollupRepository dailySalesRollupRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ReportQueryExecutor reportQueryExecutor;
+    private final SalesTrendService salesTrendService;
+    private final ReportQueryPlanner reportQueryPlanner;
+    // Calls through the proxy let composite reports share cached sub-reports such as profit/loss
+    private final ObjectProvider<ReportService> reportServiceProxy;
 
     @Override
+    @Cacheable(value = "reports", keyGenerator = "reportCacheKeyGenerator", sync = true)
     public List<SalesReportResponse> generateSalesReport(LocalDate startDate, LocalDate endDate, String statusFilter) {
-        LocalDateTime startDateTime = startDate != null ? startDate.atStartOfDay() : LocalDateTime.MIN;
-        LocalDateTime endDateTime = endDate != null ? endDate.atTime(23, 59, 59) : LocalDateTime.now();
+        Sale.SaleStatus status = null;
+        if (statusFilter != null && !statusFilter.isEmpty()) {
+            try {
+                status = Sale.SaleStatus.valueOf(statusFilter.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return Collections.emptyList();
+            }
+        }
 
-        List<Sale> sales = saleRepository.findBySaleDateBetween(startDateTime, endDateTime)
+        Map<LocalDate, BigDecimal> dailyExpenses = getDailyExpenses(startDate, endDate);
+        return reportQueryPlanner.aggregateDailySales(
+                        reportQueryPlanner.planSaleDetail(startDate, endDate), status)
                 .stream()
-                .filter(sale -> statusFilter == null || statusFilter.isEmpty() ||
-                        sale.getStatus().name().equalsIgnoreCase(statusFilter))
+                .map(row -> mapToSalesReport(row, dailyExpenses))
                 .collect(Collectors.toList());
+    }
 
-        return sales.stream()
-                .collect(Collectors.groupingBy(
-                        sale -> sale.getSaleDate().toLocalDate(),
-                        Collectors.collectingAndThen(
-                                Collectors.toList(),
-                                saleList -> {
-                                    SalesReportResponse response = new SalesReportResponse();
-                                    response.setDate(saleList.get(0).getSaleDate().toLocalDate());
-                                    response.setOrderCount(saleList.size());
-
-                                    BigDecimal subtotal = saleList.stream()
-                                            .map(Sale::getSubtotal)
-                                            .filter(Objects::nonNull)
-                                            .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-                                    response.setTotalSales(subtotal);
-                                    response.setTotalProfit(calculateTotalProfit(saleList));
-                                    response.setGrossProfit(calculateGrossProfit(saleList));
-                                    response.setNetProfit(calculateNetProfit(saleList));
-                                    return response;
-                                }
-                        )
-                ))
-                .values()
-                .stream()
-                .sorted(Comparator.comparing(SalesReportResponse::getDate))
-                .collect(Collectors.toList());
+    // Cursor-backed variant for exports; must be consumed inside a transaction and closed
+    private Stream<SalesReportResponse> streamSalesReport(LocalDate startDate, LocalDate endDate) {
+        LocalDateTime startDateTime = startDate != null ? startDate.atStartOfDay() : LocalDateTime.MIN;
+        LocalDateTime endDateTime = endDate != null ? endDate.atTime(23, 59, 59) : LocalDateTime.now();
+
+        Map<LocalDate, BigDecimal> dailyExpenses = getDailyExpenses(startDate, endDate);
+        return saleRepository.streamDailySales(startDateTime, endDateTime, null)
+                .map(row -> mapToSalesReport(row, dailyExpenses));
+    }
+
+    // Expenses for every day of the report in one grouped query
+    private Map<LocalDate, BigDecimal> getDailyExpenses(LocalDate startDate, LocalDate endDate) {
+        return expenseService.getExpensesByPeriod(startDate, endDate, SalesTrendService.TrendPeriod.DAY);
+    }
+
+    private SalesReportResponse mapToSalesReport(Object[] row, Map<LocalDate, BigDecimal> dailyExpenses) {
+        LocalDate date = (LocalDate) row[0];
+        BigDecimal revenue = MoneyAccumulator.decimalOf(row[3]);
+        BigDecimal grossProfit = revenue.subtract(MoneyAccumulator.decimalOf(row[4]));
+
+        SalesReportResponse response = new SalesReportResponse();
+        response.setDate(date);
+        response.setOrderCount(((Number) row[1]).intValue());
+        response.setTotalSales(revenue);
+        response.setTotalProfit(grossProfit);
+        response.setGrossProfit(grossProfit);
+        response.setNetProfit(grossProfit.subtract(dailyExpenses.getOrDefault(date, BigDecimal.ZERO)));
+        return response;
     }
 
     @Override
+    @Cacheable(value = "reports", keyGenerator = "reportCacheKeyGenerator", sync = true)
     public SalesSummaryResponse generateSalesSummaryReport(LocalDate startDate, LocalDate endDate) {
         LocalDateTime startDateTime = startDate != null ? startDate.atStartOfDay() : LocalDateTime.MIN;
         LocalDateTime endDateTime = endDate != null ? endDate.atTime(23, 59, 59) : LocalDateTime.now();
 
-        List<Sale> sales = saleRepository.findBySaleDateBetween(startDateTime, endDateTime)
-                .stream()
-                .filter(sale -> sale.getStatus() == Sale.SaleStatus.COMPLETED)
-                .collect(Collectors.toList());
-
-        int totalOrders = sales.size();
-        int newCustomers = (int) sales.stream()
-                .map(Sale::getCustomer)
-                .filter(Objects::nonNull)
-                .distinct()
-                .count();
+        Object[] totals = saleRepository.aggregateSalesTotals(startDateTime, endDateTime, Sale.SaleStatus.COMPLETED).get(0);
 
-        BigDecimal totalRevenue = sales.stream()
-                .map(Sale::getSubtotal)
-                .filter(Objects::nonNull)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        int totalOrders = ((Number) totals[0]).intValue();
+        int newCustomers = ((Number) totals[1]).intValue();
+        BigDecimal totalRevenue = MoneyAccumulator.decimalOf(totals[2]);
+        BigDecimal grossProfit = totalRevenue.subtract(MoneyAccumulator.decimalOf(totals[3]));
 
-        BigDecimal totalProfit = calculateTotalProfit(sales);
-        BigDecimal grossProfit = calculateGrossProfit(sales);
-        BigDecimal netProfit = calculateNetProfit(sales);
+        BigDecimal netProfit = BigDecimal.ZERO;
+        if (totalOrders > 0) {
+            netProfit = grossProfit.subtract(calculateTotalExpenses(
+                    ((LocalDateTime) totals[4]).toLocalDate(),
+                    ((LocalDateTime) totals[5]).toLocalDate()));
+        } else {
+            logger.warn("No sales provided for net profit calculation");
+        }
 
         return SalesSummaryResponse.builder()
                 .periodStart(startDate != null ? startDate : LocalDate.MIN)
@@ -112,7 +151,7 @@ public class ReportServiceImpl implements ReportService {
                 .totalOrders(totalOrders)
                 .newCustomers(newCustomers)
                 .totalRevenue(totalRevenue)
-                .totalProfit(totalProfit)
+                .totalProfit(grossProfit)
                 .grossProfit(grossProfit)
                 .netProfit(netProfit)
                 .averageOrderValue(totalOrders > 0 ?
@@ -122,139 +161,140 @@ public class ReportServiceImpl implements ReportService {
     }
 
     @Override
+    @Cacheable(value = "reports", keyGenerator = "reportCacheKeyGenerator", sync = true)
     public List<ProductPerformanceResponse> generateProductPerformanceReport(LocalDate startDate, LocalDate endDate, Long categoryId) {
-        LocalDateTime startDateTime = startDate != null ? startDate.atStartOfDay() : LocalDateTime.MIN;
-        LocalDateTime endDateTime = endDate != null ? endDate.atTime(23, 59, 59) : LocalDateTime.now();
-
-        List<SaleItem> saleItems = saleRepository.findBySaleDateBetween(startDateTime, endDateTime)
-                .stream()
-                .filter(sale -> sale.getStatus() == Sale.SaleStatus.COMPLETED)
-                .flatMap(sale -> saleItemRepository.findBySale_Id(sale.getId()).stream())
-                .filter(item -> categoryId == null || (item.getProduct() != null && item.getProduct().getCategory() != null &&
-                        item.getProduct().getCategory().getId().equals(categoryId)))
-                .collect(Collectors.toList());
+        return generateProductPerformanceReport(startDate, endDate, categoryId, null);
+    }
 
-        return saleItems.stream()
-                .collect(Collectors.groupingBy(
-                        SaleItem::getProduct,
-                        Collectors.collectingAndThen(
-                                Collectors.toList(),
-                                items -> {
-                                    Product product = items.get(0).getProduct();
-                                    ProductPerformanceResponse response = new ProductPerformanceResponse();
-                                    response.setProductId(product.getId());
-                                    response.setProductName(product.getName());
-                                    response.setCategoryName(product.getCategory() != null ? product.getCategory().getName() : "Unknown");
-                                    response.setUnitsSold(items.stream()
-                                            .mapToInt(SaleItem::getQuantity)
-                                            .sum());
-
-                                    BigDecimal totalRevenue = items.stream()
-                                            .map(SaleItem::getTotalPrice)
-                                            .filter(Objects::nonNull)
-                                            .reduce(BigDecimal.ZERO, BigDecimal::add);
-                                    response.setTotalRevenue(totalRevenue);
-
-                                    BigDecimal totalCost = product.getCostPrice() != null ?
-                                            BigDecimal.valueOf(product.getCostPrice())
-                                                    .multiply(BigDecimal.valueOf(response.getUnitsSold())) :
-                                            BigDecimal.ZERO;
-                                    BigDecimal profit = totalRevenue.subtract(totalCost);
-                                    response.setTotalCost(totalCost);
-                                    response.setGrossProfit(profit);
-
-                                    if (totalRevenue.compareTo(BigDecimal.ZERO) != 0) {
-                                        response.setProfitMargin(profit.divide(
-                                                totalRevenue, 4, RoundingMode.HALF_UP));
-                                        response.setMarkupPercentage(profit.divide(
-                                                totalCost.compareTo(BigDecimal.ZERO) != 0 ? totalCost : BigDecimal.ONE,
-                                                4, RoundingMode.HALF_UP));
-                                    } else {
-                                        response.setProfitMargin(BigDecimal.ZERO);
-                                        response.setMarkupPercentage(BigDecimal.ZERO);
-                                    }
-                                    return response;
-                                }
-                        )
-                ))
-                .values()
+    @Override
+    @Cacheable(value = "reports", keyGenerator = "reportCacheKeyGenerator", sync = true)
+    public List<ProductPerformanceResponse> generateProductPerformanceReport(LocalDate startDate, LocalDate endDate,
+                                                                             Long categoryId, Integer limit) {
+        LocalDate effectiveStartDate = startDate != null ? startDate : LocalDate.MIN;
+        LocalDate effectiveEndDate = endDate != null ? endDate : LocalDate.now();
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        // Rows arrive ordered by revenue and already cut to the top N
+        return reportQueryPlanner.sumByProduct(
+                        reportQueryPlanner.planTotals(effectiveStartDate, effectiveEndDate),
+                        Sale.SaleStatus.COMPLETED, categoryId, limit)
                 .stream()
-                .sorted(Comparator.comparing(ProductPerformanceResponse::getTotalRevenue).reversed())
+                .map(row -> {
+                    ProductPerformanceResponse response = new ProductPerformanceResponse();
+                    response.setProductId(((Number) row[0]).longValue());
+                    response.setProductName((String) row[1]);
+                    response.setCategoryName(row[2] != null ? (String) row[2] : "Unknown");
+                    response.setUnitsSold(((Number) row[3]).intValue());
+
+                    BigDecimal totalRevenue = MoneyAccumulator.decimalOf(row[4]);
+                    BigDecimal totalCost = MoneyAccumulator.decimalOf(row[5]);
+                    BigDecimal profit = totalRevenue.subtract(totalCost);
+                    response.setTotalRevenue(totalRevenue);
+                    response.setTotalCost(totalCost);
+                    response.setGrossProfit(profit);
+
+                    if (totalRevenue.compareTo(BigDecimal.ZERO) != 0) {
+                        response.setProfitMargin(profit.divide(
+                                totalRevenue, 4, RoundingMode.HALF_UP));
+                        response.setMarkupPercentage(profit.divide(
+                                totalCost.compareTo(BigDecimal.ZERO) != 0 ? totalCost : BigDecimal.ONE,
+                                4, RoundingMode.HALF_UP));
+                    } else {
+                        response.setProfitMargin(BigDecimal.ZERO);
+                        response.setMarkupPercentage(BigDecimal.ZERO);
+                    }
+                    return response;
+                })
                 .collect(Collectors.toList());
     }
 
     @Override
+    @Cacheable(value = "reports", keyGenerator = "reportCacheKeyGenerator", sync = true)
     public List<ProductSalesTrendResponse> generateProductSalesTrendReport(LocalDate startDate, LocalDate endDate, Long productId) {
-        LocalDateTime startDateTime = startDate != null ? startDate.atStartOfDay() : LocalDateTime.MIN;
-        LocalDateTime endDateTime = endDate != null ? endDate.atTime(23, 59, 59) : LocalDateTime.now();
+        LocalDate effectiveStartDate = startDate != null ? startDate : LocalDate.MIN;
+        LocalDate effectiveEndDate = endDate != null ? endDate : LocalDate.now();
 
-        List<SaleItem> saleItems = saleRepository.findBySaleDateBetween(startDateTime, endDateTime)
+        return dailySalesRollupRepository.sumByDayAndProduct(
+                        Sale.SaleStatus.COMPLETED, effectiveStartDate, effectiveEndDate, productId)
                 .stream()
-                .filter(sale -> sale.getStatus() == Sale.SaleStatus.COMPLETED)
-                .flatMap(sale -> saleItemRepository.findBySale_Id(sale.getId()).stream())
-                .filter(item -> productId == null || (item.getProduct() != null && item.getProduct().getId().equals(productId)))
+                .map(this::mapToProductSalesTrend)
                 .collect(Collectors.toList());
+    }
 
-        return saleItems.stream()
-                .collect(Collectors.groupingBy(
-                        item -> item.getSale().getSaleDate().toLocalDate(),
-                        Collectors.groupingBy(
-                                SaleItem::getProduct,
-                                Collectors.summingInt(SaleItem::getQuantity)
-                        )
-                ))
-                .entrySet().stream()
-                .flatMap(dateEntry -> dateEntry.getValue().entrySet().stream()
-                        .map(productEntry -> {
-                            Product product = productEntry.getKey();
-                            return ProductSalesTrendResponse.builder()
-                                    .date(dateEntry.getKey())
-                                    .productId(product.getId())
-                                    .productName(product.getName())
-                                    .unitsSold(productEntry.getValue())
-                                    .build();
-                        }))
-                .sorted(Comparator.comparing(ProductSalesTrendResponse::getDate))
-                .collect(Collectors.toList());
+    // Cursor-backed variant for exports; must be consumed inside a transaction and closed
+    private Stream<ProductSalesTrendResponse> streamProductSalesTrend(LocalDate startDate, LocalDate endDate, Long productId) {
+        LocalDate effectiveStartDate = startDate != null ? startDate : LocalDate.MIN;
+        LocalDate effectiveEndDate = endDate != null ? endDate : LocalDate.now();
+
+        return dailySalesRollupRepository.streamByDayAndProduct(
+                        Sale.SaleStatus.COMPLETED, effectiveStartDate, effectiveEndDate, productId)
+                .map(this::mapToProductSalesTrend);
+    }
+
+    private ProductSalesTrendResponse mapToProductSalesTrend(Object[] row) {
+        return ProductSalesTrendResponse.builder()
+                .date((LocalDate) row[0])
+                .productId(((Number) row[1]).longValue())
+                .productName((String) row[2])
+                .unitsSold(((Number) row[3]).intValue())
+                .build();
     }
 
     @Override
+    @Cacheable(value = "reports", keyGenerator = "reportCacheKeyGenerator", sync = true)
     public List<InventoryValuationResponse> generateInventoryValuationReport() {
-        return productRepository.findAll().stream()
-                .map(product -> {
-                    InventoryValuationResponse response = new InventoryValuationResponse();
-                    response.setProductId(product.getId());
-                    response.setProductName(product.getName());
-                    response.setQuantity(product.getQuantityInStock());
-                    response.setUnitCost(product.getCostPrice() != null ?
-                            BigDecimal.valueOf(product.getCostPrice()) : BigDecimal.ZERO);
-
-                    BigDecimal totalValue = response.getUnitCost()
-                            .multiply(BigDecimal.valueOf(response.getQuantity()));
-                    response.setTotalValue(totalValue);
-
-                    List<SaleItem> saleItems = saleItemRepository.findByProduct(product);
-                    if (!saleItems.isEmpty()) {
-                        int totalSold = saleItems.stream()
-                                .mapToInt(SaleItem::getQuantity)
-                                .sum();
-                        double turnover = response.getQuantity() > 0 ?
-                                (double) totalSold / response.getQuantity() : 0.0;
-                        response.setInventoryTurnover(BigDecimal.valueOf(turnover));
-                    } else {
-                        response.setInventoryTurnover(BigDecimal.ZERO);
-                    }
+        return generateInventoryValuationReport(null, null);
+    }
 
-                    return response;
-                })
-                .sorted(Comparator.comparing(InventoryValuationResponse::getTotalValue).reversed())
+    @Override
+    @Cacheable(value = "reports", keyGenerator = "reportCacheKeyGenerator", sync = true)
+    public List<InventoryValuationResponse> generateInventoryValuationReport(String sortBy, String direction) {
+        return productRepository.findInventoryValuation(inventoryValuationSort(sortBy, direction))
+                .stream()
+                .map(this::mapToInventoryValuation)
                 .collect(Collectors.toList());
     }
 
     @Override
+    @Cacheable(value = "reports", keyGenerator = "reportCacheKeyGenerator", sync = true)
+    public Page<InventoryValuationResponse> generateInventoryValuationReport(int page, int size, String sortBy, String direction) {
+        return productRepository.findInventoryValuation(
+                        PageRequest.of(page, size, inventoryValuationSort(sortBy, direction)))
+                .map(this::mapToInventoryValuation);
+    }
+
+    // Sort keys are the select aliases of findInventoryValuation; product id keeps pages stable
+    private Sort inventoryValuationSort(String sortBy, String direction) {
+        String property = sortBy != null ? sortBy : "totalValue";
+        if (!INVENTORY_VALUATION_SORT_KEYS.contains(property)) {
+            throw new IllegalArgumentException("Cannot sort inventory valuation by " + property
+                    + "; expected one of " + INVENTORY_VALUATION_SORT_KEYS);
+        }
+        Sort.Direction sortDirection = direction != null
+                ? Sort.Direction.fromString(direction)
+                : Sort.Direction.DESC;
+        return Sort.by(sortDirection, property).and(Sort.by("productId"));
+    }
+
+    private InventoryValuationResponse mapToInventoryValuation(Object[] row) {
+        InventoryValuationResponse response = new InventoryValuationResponse();
+        response.setProductId(((Number) row[0]).longValue());
+        response.setProductName((String) row[1]);
+        response.setQuantity(((Number) row[2]).intValue());
+        response.setUnitCost(MoneyAccumulator.decimalOf(row[3]));
+        response.setTotalValue(MoneyAccumulator.decimalOf(row[4]));
+        response.setUnitsSold(((Number) row[5]).longValue());
+        response.setInventoryTurnover(response.getQuantity() > 0
+                ? BigDecimal.valueOf((double) response.getUnitsSold() / response.getQuantity())
+                : BigDecimal.ZERO);
+        return response;
+    }
+
+    @Override
+    @Cacheable(value = "reports", keyGenerator = "reportCacheKeyGenerator", sync = true)
     public List<LowStockReportResponse> generateLowStockReport(int threshold) {
-        return productRepository.findAll().stream()
-                .filter(product -> product.getQuantityInStock() <= threshold)
+        return productRepository.findByQuantityInStockLessThanEqual(threshold).stream()
                 .map(product -> LowStockReportResponse.builder()
                         .productId(product.getId())
                         .productName(product.getName())
@@ -266,6 +306,7 @@ public class ReportServiceImpl implements ReportService {
     }
 
     @Override
+    @Cacheable(value = "reports", keyGenerator = "reportCacheKeyGenerator", sync = true)
     public List<ExpiringItemsReportResponse> generateExpiringItemsReport(LocalDate cutoffDate) {
         LocalDate effectiveCutoff = cutoffDate != null ? cutoffDate : LocalDate.now().plusMonths(1);
         return productRepository.findByExpiryDateBefore(effectiveCutoff).stream()
@@ -281,6 +322,7 @@ public class ReportServiceImpl implements ReportService {
     }
 
     @Override
+    @Cacheable(value = "reports", keyGenerator = "reportCacheKeyGenerator", sync = true)
     public ProfitLossResponse generateProfitLossReport(LocalDate startDate, LocalDate endDate) {
         try {
             logger.info("Generating profit/loss report for startDate: {}, endDate: {}", startDate, endDate);
@@ -302,36 +344,18 @@ public class ReportServiceImpl implements ReportService {
                     .otherExpenses(BigDecimal.ZERO)
                     .build();
 
-            LocalDateTime startDateTime = startDate.atStartOfDay();
-            LocalDateTime endDateTime = endDate.atTime(23, 59, 59);
-
-            List<Sale> sales = saleRepository.findBySaleDateBetween(startDateTime, endDateTime)
-                    .stream()
-                    .filter(sale -> sale.getStatus() == Sale.SaleStatus.COMPLETED)
-                    .collect(Collectors.toList());
+            PeriodTotals totals = sumPeriodTotals(startDate, endDate);
 
-            BigDecimal totalRevenue = sales.stream()
-                    .map(sale -> sale.getSubtotal() != null ? sale.getSubtotal() : BigDecimal.ZERO)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            BigDecimal totalRevenue = totals.getSalesRevenue();
             response.setTotalRevenue(totalRevenue);
 
-            BigDecimal totalCOGS = BigDecimal.ZERO;
-            for (Sale sale : sales) {
-                List<SaleItem> saleItems = saleItemRepository.findBySale_Id(sale.getId());
-                for (SaleItem item : saleItems) {
-                    if (item.getProduct() != null && item.getProduct().getCostPrice() != null) {
-                        BigDecimal costPrice = BigDecimal.valueOf(item.getProduct().getCostPrice());
-                        BigDecimal itemCost = costPrice.multiply(BigDecimal.valueOf(item.getQuantity()));
-                        totalCOGS = totalCOGS.add(itemCost);
-                    }
-                }
-            }
+            BigDecimal totalCOGS = totals.getCost();
             response.setTotalCost(totalCOGS);
 
             BigDecimal grossProfit = totalRevenue.subtract(totalCOGS);
             response.setGrossProfit(grossProfit);
 
-            BigDecimal operatingExpenses = calculateTotalExpenses(startDate, endDate);
+            BigDecimal operatingExpenses = totals.getExpenses();
             response.setExpenses(operatingExpenses);
 
             BigDecimal netProfit = grossProfit
@@ -358,31 +382,17 @@ public class ReportServiceImpl implements ReportService {
     }
 
     @Override
+    @Cacheable(value = "reports", keyGenerator = "reportCacheKeyGenerator", sync = true)
     public CashFlowResponse generateCashFlowReport(LocalDate startDate, LocalDate endDate) {
-        LocalDateTime startDateTime = startDate != null ? startDate.atStartOfDay() : LocalDateTime.MIN;
-        LocalDateTime endDateTime = endDate != null ? endDate.atTime(23, 59, 59) : LocalDateTime.now();
-
         CashFlowResponse response = new CashFlowResponse();
         response.setPeriodStart(startDate != null ? startDate : LocalDate.MIN);
         response.setPeriodEnd(endDate != null ? endDate : LocalDate.now());
 
-        BigDecimal salesRevenue = saleRepository.findBySaleDateBetween(startDateTime, endDateTime)
-                .stream()
-                .filter(sale -> sale.getStatus() == Sale.SaleStatus.COMPLETED)
-                .map(Sale::getTotalAmount)
-                .filter(Objects::nonNull)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        PeriodTotals totals = sumPeriodTotals(response.getPeriodStart(), response.getPeriodEnd());
+        BigDecimal salesRevenue = totals.getSalesRevenue().subtract(totals.getDiscountAmount());
         response.setCashInflows(salesRevenue);
 
-        BigDecimal purchaseOutflows = purchaseRepository.findByOrderDateBetween(startDateTime, endDateTime)
-                .stream()
-                .filter(purchase -> purchase.getStatus() == Purchase.PurchaseStatus.RECEIVED)
-                .map(Purchase::getTotalAmount)
-                .filter(Objects::nonNull)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal expenseOutflows = calculateTotalExpenses(startDate, endDate);
-        BigDecimal totalOutflows = purchaseOutflows.add(expenseOutflows);
+        BigDecimal totalOutflows = totals.getPurchases().add(totals.getExpenses());
         response.setCashOutflows(totalOutflows);
 
         BigDecimal netCashFlow = salesRevenue.subtract(totalOutflows);
@@ -392,48 +402,46 @@ public class ReportServiceImpl implements ReportService {
     }
 
     @Override
+    @Cacheable(value = "reports", keyGenerator = "reportCacheKeyGenerator", sync = true)
     public List<SupplierPurchaseResponse> generateSupplierPurchaseReport(LocalDate startDate, LocalDate endDate) {
         LocalDateTime startDateTime = startDate != null ? startDate.atStartOfDay() : LocalDateTime.MIN;
         LocalDateTime endDateTime = endDate != null ? endDate.atTime(23, 59, 59) : LocalDateTime.now();
 
-        List<Purchase> purchases = purchaseRepository.findByOrderDateBetween(startDateTime, endDateTime)
-                .stream()
-                .filter(purchase -> purchase.getStatus() == Purchase.PurchaseStatus.RECEIVED)
-                .collect(Collectors.toList());
+        // Fold purchase rows per supplier as they arrive instead of loading Purchase entities
+        Map<Long, SupplierPurchaseResponse> bySupplier = new HashMap<>();
+        Map<Long, MoneyAccumulator> spentBySupplier = new HashMap<>();
+        readOnlyTransaction().executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = purchaseRepository.streamPurchaseFacts(
+                    Purchase.PurchaseStatus.RECEIVED, startDateTime, endDateTime, null)) {
+                rows.forEach(row -> {
+                    Long supplierId = ((Number) row[0]).longValue();
+                    SupplierPurchaseResponse response = bySupplier.computeIfAbsent(supplierId, id -> {
+                        SupplierPurchaseResponse created = new SupplierPurchaseResponse();
+                        created.setSupplierId(id);
+                        created.setSupplierName((String) row[1]);
+                        return created;
+                    });
+                    response.setPurchaseCount(response.getPurchaseCount() + 1);
+                    spentBySupplier.computeIfAbsent(supplierId, id -> new MoneyAccumulator()).add((BigDecimal) row[2]);
+                });
+            }
+        });
 
-        return purchases.stream()
-                .collect(Collectors.groupingBy(
-                        Purchase::getSupplier,
-                        Collectors.collectingAndThen(
-                                Collectors.toList(),
-                                supplierPurchases -> {
-                                    Supplier supplier = supplierPurchases.get(0).getSupplier();
-                                    SupplierPurchaseResponse response = new SupplierPurchaseResponse();
-                                    response.setSupplierId(supplier.getId());
-                                    response.setSupplierName(supplier.getCompanyName());
-                                    response.setPurchaseCount(supplierPurchases.size());
-
-                                    BigDecimal totalSpent = supplierPurchases.stream()
-                                            .map(Purchase::getTotalAmount)
-                                            .filter(Objects::nonNull)
-                                            .reduce(BigDecimal.ZERO, BigDecimal::add);
-                                    response.setTotalSpent(totalSpent);
-
-                                    response.setAverageOrderValue(supplierPurchases.size() > 0 ?
-                                            totalSpent.divide(BigDecimal.valueOf(supplierPurchases.size()), 2, RoundingMode.HALF_UP) :
-                                            BigDecimal.ZERO);
-
-                                    return response;
-                                }
-                        )
-                ))
-                .values()
+        bySupplier.forEach((supplierId, response) -> {
+            BigDecimal totalSpent = spentBySupplier.get(supplierId).toBigDecimal();
+            response.setTotalSpent(totalSpent);
+            response.setAverageOrderValue(
+                    totalSpent.divide(BigDecimal.valueOf(response.getPurchaseCount()), 2, RoundingMode.HALF_UP));
+        });
+
+        return bySupplier.values()
                 .stream()
                 .sorted(Comparator.comparing(SupplierPurchaseResponse::getTotalSpent).reversed())
                 .collect(Collectors.toList());
     }
 
     @Override
+    @Cacheable(value = "reports", keyGenerator = "reportCacheKeyGenerator", sync = true)
     public SupplierPerformanceResponse generateSupplierPerformanceReport(LocalDate startDate, LocalDate endDate, Long supplierId) {
         LocalDateTime startDateTime = startDate != null ? startDate.atStartOfDay() : LocalDateTime.MIN;
         LocalDateTime endDateTime = endDate != null ? endDate.atTime(23, 59, 59) : LocalDateTime.now();
@@ -441,25 +449,32 @@ public class ReportServiceImpl implements ReportService {
         Supplier supplier = supplierRepository.findById(supplierId)
                 .orElseThrow(() -> new IllegalArgumentException("Supplier not found"));
 
-        List<Purchase> purchases = purchaseRepository.findBySupplierAndOrderDateBetween(supplier, startDateTime, endDateTime)
-                .stream()
-                .filter(purchase -> purchase.getStatus() == Purchase.PurchaseStatus.RECEIVED)
-                .collect(Collectors.toList());
+        // [orders, on-time deliveries] folded from the supplier's purchase rows
+        long[] counts = new long[2];
+        MoneyAccumulator spent = new MoneyAccumulator();
+        readOnlyTransaction().executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = purchaseRepository.streamPurchaseFacts(
+                    Purchase.PurchaseStatus.RECEIVED, startDateTime, endDateTime, supplier.getId())) {
+                rows.forEach(row -> {
+                    counts[0]++;
+                    spent.add((BigDecimal) row[2]);
+                    LocalDateTime deliveryDate = (LocalDateTime) row[3];
+                    LocalDateTime expectedDeliveryDate = (LocalDateTime) row[4];
+                    if (deliveryDate != null && !deliveryDate.isAfter(expectedDeliveryDate)) {
+                        counts[1]++;
+                    }
+                });
+            }
+        });
 
-        int totalOrders = purchases.size();
-        BigDecimal totalSpent = purchases.stream()
-                .map(Purchase::getTotalAmount)
-                .filter(Objects::nonNull)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        int totalOrders = (int) counts[0];
+        BigDecimal totalSpent = spent.toBigDecimal();
 
         BigDecimal avgOrderValue = totalOrders > 0 ?
                 totalSpent.divide(BigDecimal.valueOf(totalOrders), 2, RoundingMode.HALF_UP) :
                 BigDecimal.ZERO;
 
-        long onTimeDeliveries = purchases.stream()
-                .filter(purchase -> purchase.getDeliveryDate() != null &&
-                        !purchase.getDeliveryDate().isAfter(purchase.getExpectedDeliveryDate()))
-                .count();
+        long onTimeDeliveries = counts[1];
         double onTimeRate = totalOrders > 0 ? (double) onTimeDeliveries / totalOrders : 0;
 
         return SupplierPerformanceResponse.builder()
@@ -475,18 +490,19 @@ public class ReportServiceImpl implements ReportService {
     }
 
     @Override
+    @Cacheable(value = "reports", keyGenerator = "reportCacheKeyGenerator", sync = true)
     public BusinessPerformanceResponse generateBusinessPerformanceReport(LocalDate startDate, LocalDate endDate) {
         LocalDate effectiveStartDate = startDate != null ? startDate : LocalDate.MIN;
         LocalDate effectiveEndDate = endDate != null ? endDate : LocalDate.now();
 
-        ProfitLossResponse pl = generateProfitLossReport(startDate, endDate);
+        ReportService reports = reportServiceProxy.getObject();
+        CompletableFuture<ProfitLossResponse> profitLoss =
+                reportQueryExecutor.submit(() -> reports.generateProfitLossReport(startDate, endDate));
+        CompletableFuture<Object[]> inventory =
+                reportQueryExecutor.submit(() -> productRepository.summarizeInventory().get(0));
 
-        List<Product> products = productRepository.findAll();
-        BigDecimal totalInventoryValue = products.stream()
-                .map(p -> p.getCostPrice() != null ?
-                        BigDecimal.valueOf(p.getCostPrice()).multiply(BigDecimal.valueOf(p.getQuantityInStock())) :
-                        BigDecimal.ZERO)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        ProfitLossResponse pl = ReportQueryExecutor.join(profitLoss);
+        BigDecimal totalInventoryValue = MoneyAccumulator.decimalOf(ReportQueryExecutor.join(inventory)[0]);
 
         BigDecimal totalCOGS = pl.getTotalCost();
         BigDecimal inventoryTurnover = totalInventoryValue.compareTo(BigDecimal.ZERO) > 0 ?
@@ -513,33 +529,32 @@ public class ReportServiceImpl implements ReportService {
     }
 
     @Override
+    @Cacheable(value = "reports", keyGenerator = "reportCacheKeyGenerator", sync = true)
     public DashboardResponse generateDashboardSummary(LocalDate startDate, LocalDate endDate) {
         LocalDate effectiveStartDate = startDate != null ? startDate : LocalDate.MIN;
         LocalDate effectiveEndDate = endDate != null ? endDate : LocalDate.now();
 
-        ProfitLossResponse pl = generateProfitLossReport(startDate, endDate);
-
-        List<Product> products = productRepository.findAll();
-        BigDecimal inventoryValue = products.stream()
-                .map(p -> p.getCostPrice() != null ?
-                        BigDecimal.valueOf(p.getCostPrice()).multiply(BigDecimal.valueOf(p.getQuantityInStock())) :
-                        BigDecimal.ZERO)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        int lowStockItemsCount = (int) products.stream()
-                .filter(p -> p.getQuantityInStock() < p.getReorderLevel())
-                .count();
-
-        List<ProductPerformanceResponse> topProducts = generateProductPerformanceReport(startDate, endDate, null)
-                .stream()
-                .limit(5)
-                .collect(Collectors.toList());
+        // Independent parts run concurrently, so latency is the slowest part rather than the sum
+        ReportService reports = reportServiceProxy.getObject();
+        CompletableFuture<ProfitLossResponse> profitLoss =
+                reportQueryExecutor.submit(() -> reports.generateProfitLossReport(startDate, endDate));
+        CompletableFuture<Object[]> inventory =
+                reportQueryExecutor.submit(() -> productRepository.summarizeInventory().get(0));
+        CompletableFuture<List<ProductPerformanceResponse>> topProductsFuture =
+                reportQueryExecutor.submit(() -> reports.generateProductPerformanceReport(startDate, endDate, null, 5));
+        CompletableFuture<Long> salesCount = reportQueryExecutor.submit(() -> saleRepository.countCompletedSalesBetween(
+                effectiveStartDate.atStartOfDay(), effectiveEndDate.atTime(23, 59, 59)));
+
+        ProfitLossResponse pl = ReportQueryExecutor.join(profitLoss);
+        Object[] inventoryTotals = ReportQueryExecutor.join(inventory);
+        BigDecimal inventoryValue = MoneyAccumulator.decimalOf(inventoryTotals[0]);
+        int lowStockItemsCount = ((Number) inventoryTotals[1]).intValue();
+        List<ProductPerformanceResponse> topProducts = ReportQueryExecutor.join(topProductsFuture);
 
         return DashboardResponse.builder()
                 .periodStart(effectiveStartDate)
                 .periodEnd(effectiveEndDate)
-                .totalSalesCount((int) saleRepository.countCompletedSalesBetween(
-                        effectiveStartDate.atStartOfDay(), effectiveEndDate.atTime(23, 59, 59)))
+                .totalSalesCount(ReportQueryExecutor.join(salesCount).intValue())
                 .totalRevenue(pl.getTotalRevenue())
                 .totalExpenses(pl.getExpenses())
                 .netProfit(pl.getNetProfit())
@@ -550,112 +565,67 @@ public class ReportServiceImpl implements ReportService {
     }
 
     @Override
+    @Cacheable(value = "reports", keyGenerator = "reportCacheKeyGenerator", sync = true)
     public List<SalesTrendResponse> generateSalesTrendReport(LocalDate startDate, LocalDate endDate, String period) {
-        LocalDateTime startDateTime = startDate != null ? startDate.atStartOfDay() : LocalDateTime.MIN;
-        LocalDateTime endDateTime = endDate != null ? endDate.atTime(23, 59, 59) : LocalDateTime.now();
+        return salesTrendService.getSalesTrend(startDate, endDate, SalesTrendService.TrendPeriod.parse(period));
+    }
 
-        List<Sale> sales = saleRepository.findBySaleDateBetween(startDateTime, endDateTime)
-                .stream()
-                .filter(sale -> sale.getStatus() == Sale.SaleStatus.COMPLETED)
-                .collect(Collectors.toList());
+    @Override
+    public ResponseEntity<StreamingResponseBody> exportReport(ExportReportRequest request) {
+        String contentType = getExportContentType(request);
+        String filename = getExportFilename(request);
+        StreamingResponseBody body = outputStream -> writeReport(request, outputStream);
 
-        String periodType = (period == null || period.isEmpty()) ? "DAILY" : period.toUpperCase();
-
-        return sales.stream()
-                .collect(Collectors.groupingBy(
-                        sale -> getPeriodKey(sale.getSaleDate().toLocalDate(), periodType),
-                        TreeMap::new,
-                        Collectors.reducing(
-                                BigDecimal.ZERO,
-                                sale -> sale.getSubtotal() != null ? sale.getSubtotal() : BigDecimal.ZERO,
-                                BigDecimal::add
-                        )
-                ))
-                .entrySet().stream()
-                .map(entry -> {
-                    LocalDate[] dateRange = getDateRangeForPeriod(entry.getKey(), periodType);
-                    return SalesTrendResponse.builder()
-                            .periodLabel(entry.getKey())
-                            .totalSales(entry.getValue())
-                            .periodStart(dateRange[0])
-                            .periodEnd(dateRange[1])
-                            .build();
-                })
-                .collect(Collectors.toList());
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(contentType))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
     }
 
-    private String getPeriodKey(LocalDate date, String periodType) {
-        switch (periodType) {
-            case "WEEKLY":
-                int weekNumber = date.get(WeekFields.ISO.weekOfWeekBasedYear());
-                return String.format("%d-W%02d", date.getYear(), weekNumber);
-            case "MONTHLY":
-                return String.format("%d-%02d", date.getYear(), date.getMonthValue());
-            case "YEARLY":
-                return String.valueOf(date.getYear());
+    @Override
+    public void writeReport(ExportReportRequest request, OutputStream outputStream) throws IOException {
+        switch (request.getFormat()) {
+            case EXCEL:
+                writeExcelReport(request, outputStream);
+                break;
+            case PDF:
+                outputStream.write(generatePdfReport(request));
+                break;
+            case CSV:
+                writeCsvReport(request, outputStream);
+                break;
             default:
-                return date.toString();
+                throw new IllegalArgumentException("Unsupported export format");
         }
     }
 
-    private LocalDate[] getDateRangeForPeriod(String periodKey, String periodType) {
-        switch (periodType) {
-            case "WEEKLY":
-                String[] weekParts = periodKey.split("-W");
-                int year = Integer.parseInt(weekParts[0]);
-                int week = Integer.parseInt(weekParts[1]);
-                LocalDate start = LocalDate.of(year, 1, 1)
-                        .with(IsoFields.WEEK_OF_WEEK_BASED_YEAR, week)
-                        .with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
-                return new LocalDate[]{start, start.plusDays(6)};
-            case "MONTHLY":
-                String[] monthParts = periodKey.split("-");
-                year = Integer.parseInt(monthParts[0]);
-                int month = Integer.parseInt(monthParts[1]);
-                LocalDate firstDay = LocalDate.of(year, month, 1);
-                return new LocalDate[]{firstDay, firstDay.with(TemporalAdjusters.lastDayOfMonth())};
-            case "YEARLY":
-                year = Integer.parseInt(periodKey);
-                return new LocalDate[]{
-                        LocalDate.of(year, 1, 1),
-                        LocalDate.of(year, 12, 31)
-                };
+    @Override
+    public String getExportContentType(ExportReportRequest request) {
+        switch (request.getFormat()) {
+            case EXCEL:
+                return "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+            case PDF:
+                return "application/pdf";
+            case CSV:
+                return request.isGzip() ? "application/gzip" : "text/csv";
             default:
-                LocalDate date = LocalDate.parse(periodKey);
-                return new LocalDate[]{date, date};
+                throw new IllegalArgumentException("Unsupported export format");
         }
     }
 
     @Override
-    public ResponseEntity<Resource> exportReport(ExportReportRequest request) {
-        byte[] reportBytes;
-        String contentType;
-        String filename;
-
+    public String getExportFilename(ExportReportRequest request) {
+        String baseName = request.getReportType().name().toLowerCase() + "_report";
         switch (request.getFormat()) {
             case EXCEL:
-                reportBytes = generateExcelReport(request);
-                contentType = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
-                filename = request.getReportType().name().toLowerCase() + "_report.xlsx";
-                break;
+                return baseName + ".xlsx";
             case PDF:
-                reportBytes = generatePdfReport(request);
-                contentType = "application/pdf";
-                filename = request.getReportType().name().toLowerCase() + "_report.pdf";
-                break;
+                return baseName + ".pdf";
             case CSV:
-                reportBytes = generateCsvReport(request);
-                contentType = "text/csv";
-                filename = request.getReportType().name().toLowerCase() + "_report.csv";
-                break;
+                return baseName + ".csv" + (request.isGzip() ? ".gz" : "");
             default:
                 throw new IllegalArgumentException("Unsupported export format");
         }
-
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(contentType))
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                .body(new ByteArrayResource(reportBytes));
     }
 
     @Override
@@ -669,8 +639,15 @@ public class ReportServiceImpl implements ReportService {
                 .body(new ByteArrayResource(pdfBytes));
     }
 
-    private byte[] generateExcelReport(ExportReportRequest request) {
-        try (Workbook workbook = new XSSFWorkbook()) {
+    @Override
+    public void writeDashboardPdf(LocalDate startDate, LocalDate endDate, OutputStream outputStream) throws IOException {
+        outputStream.write(generateDashboardPdf(generateDashboardSummary(startDate, endDate)));
+    }
+
+    private void writeExcelReport(ExportReportRequest request, OutputStream outputStream) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(EXCEL_ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
             Sheet sheet = workbook.createSheet("Report");
             Row headerRow = sheet.createRow(0);
             CellStyle headerStyle = workbook.createCellStyle();
@@ -692,8 +669,12 @@ public class ReportServiceImpl implements ReportService {
                     createProductsExcelSheet(sheet, headerRow, headerStyle, productsData);
                     break;
                 case PRODUCT_SALES_TREND:
-                    List<ProductSalesTrendResponse> productTrendData = generateProductSalesTrendReport(request.getStartDate(), request.getEndDate(), null);
-                    createProductTrendExcelSheet(sheet, headerRow, headerStyle, productTrendData);
+                    readOnlyTransaction().executeWithoutResult(status -> {
+                        try (Stream<ProductSalesTrendResponse> productTrendData =
+                                     streamProductSalesTrend(request.getStartDate(), request.getEndDate(), null)) {
+                            createProductTrendExcelSheet(sheet, headerRow, headerStyle, productTrendData);
+                        }
+                    });
                     break;
                 case INVENTORY:
                     List<InventoryValuationResponse> inventoryData = generateInventoryValuationReport();
@@ -731,25 +712,32 @@ public class ReportServiceImpl implements ReportService {
                     throw new IllegalArgumentException("Unsupported report type for Excel export");
             }
 
-            for (int i = 0; i < headerRow.getLastCellNum(); i++) {
-                sheet.autoSizeColumn(i);
-            }
-
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
             workbook.write(outputStream);
-            return outputStream.toByteArray();
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to generate Excel report", e);
+        } finally {
+            workbook.close();
         }
     }
 
-    private void createSalesExcelSheet(Sheet sheet, Row headerRow, CellStyle headerStyle, List<SalesReportResponse> data) {
-        String[] headers = {"Date", "Orders", "Total Sales", "Gross Profit", "Net Profit"};
+    private TransactionTemplate readOnlyTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+
+    // Fixed widths from the header text; autoSizeColumn would need every row in memory
+    private void createHeaderRow(Sheet sheet, Row headerRow, CellStyle headerStyle, String[] headers) {
         for (int i = 0; i < headers.length; i++) {
             Cell cell = headerRow.createCell(i);
             cell.setCellValue(headers[i]);
             cell.setCellStyle(headerStyle);
+            int chars = Math.min(Math.max(headers[i].length() + 4, MIN_EXCEL_COLUMN_CHARS), MAX_EXCEL_COLUMN_CHARS);
+            sheet.setColumnWidth(i, chars * 256);
         }
+    }
+
+    private void createSalesExcelSheet(Sheet sheet, Row headerRow, CellStyle headerStyle, List<SalesReportResponse> data) {
+        String[] headers = {"Date", "Orders", "Total Sales", "Gross Profit", "Net Profit"};
+        createHeaderRow(sheet, headerRow, headerStyle, headers);
 
         int rowNum = 1;
         for (SalesReportResponse item : data) {
@@ -764,11 +752,7 @@ public class ReportServiceImpl implements ReportService {
 
     private void createSalesSummaryExcelSheet(Sheet sheet, Row headerRow, CellStyle headerStyle, SalesSummaryResponse data) {
         String[] headers = {"Metric", "Value"};
-        for (int i = 0; i < headers.length; i++) {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(headers[i]);
-            cell.setCellStyle(headerStyle);
-        }
+        createHeaderRow(sheet, headerRow, headerStyle, headers);
 
         int rowNum = 1;
         createRow(sheet, rowNum++, "Period Start", data.getPeriodStart().toString());
@@ -785,11 +769,7 @@ public class ReportServiceImpl implements ReportService {
     private void createProductsExcelSheet(Sheet sheet, Row headerRow, CellStyle headerStyle, List<ProductPerformanceResponse> data) {
         String[] headers = {"Product ID", "Product Name", "Category", "Units Sold", "Total Revenue", "Total Cost",
                 "Gross Profit", "Profit Margin %", "Markup %"};
-        for (int i = 0; i < headers.length; i++) {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(headers[i]);
-            cell.setCellStyle(headerStyle);
-        }
+        createHeaderRow(sheet, headerRow, headerStyle, headers);
 
         int rowNum = 1;
         for (ProductPerformanceResponse item : data) {
@@ -806,16 +786,22 @@ public class ReportServiceImpl implements ReportService {
         }
     }
 
-    private void createProductTrendExcelSheet(Sheet sheet, Row headerRow, CellStyle headerStyle, List<ProductSalesTrendResponse> data) {
+    private void createProductTrendExcelSheet(Sheet sheet, Row headerRow, CellStyle headerStyle, Stream<ProductSalesTrendResponse> data) {
         String[] headers = {"Date", "Product ID", "Product Name", "Units Sold"};
-        for (int i = 0; i < headers.length; i++) {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(headers[i]);
-            cell.setCellStyle(headerStyle);
-        }
+        createHeaderRow(sheet, headerRow, headerStyle, headers);
 
+        int maxRows = SpreadsheetVersion.EXCEL2007.getMaxRows();
+        int sheetCount = 1;
         int rowNum = 1;
-        for (ProductSalesTrendResponse item : data) {
+        Iterator<ProductSalesTrendResponse> iterator = data.iterator();
+        while (iterator.hasNext()) {
+            ProductSalesTrendResponse item = iterator.next();
+            // Continue on a new sheet once the current one reaches the xlsx row limit
+            if (rowNum >= maxRows) {
+                sheet = sheet.getWorkbook().createSheet("Report " + (++sheetCount));
+                createHeaderRow(sheet, sheet.createRow(0), headerStyle, headers);
+                rowNum = 1;
+            }
             Row row = sheet.createRow(rowNum++);
             row.createCell(0).setCellValue(item.getDate().toString());
             row.createCell(1).setCellValue(item.getProductId());
@@ -825,12 +811,8 @@ public class ReportServiceImpl implements ReportService {
     }
 
     private void createInventoryExcelSheet(Sheet sheet, Row headerRow, CellStyle headerStyle, List<InventoryValuationResponse> data) {
-        String[] headers = {"Product ID", "Product Name", "Quantity", "Unit Cost", "Total Value", "Turnover Ratio"};
-        for (int i = 0; i < headers.length; i++) {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(headers[i]);
-            cell.setCellStyle(headerStyle);
-        }
+        String[] headers = {"Product ID", "Product Name", "Quantity", "Unit Cost", "Total Value", "Units Sold", "Turnover Ratio"};
+        createHeaderRow(sheet, headerRow, headerStyle, headers);
 
         int rowNum = 1;
         for (InventoryValuationResponse item : data) {
@@ -840,17 +822,14 @@ public class ReportServiceImpl implements ReportService {
             row.createCell(2).setCellValue(item.getQuantity());
             row.createCell(3).setCellValue(item.getUnitCost().doubleValue());
             row.createCell(4).setCellValue(item.getTotalValue().doubleValue());
-            row.createCell(5).setCellValue(item.getInventoryTurnover().doubleValue());
+            row.createCell(5).setCellValue(item.getUnitsSold());
+            row.createCell(6).setCellValue(item.getInventoryTurnover().doubleValue());
         }
     }
 
     private void createLowStockExcelSheet(Sheet sheet, Row headerRow, CellStyle headerStyle, List<LowStockReportResponse> data) {
         String[] headers = {"Product ID", "Product Name", "Current Stock", "Reorder Level"};
-        for (int i = 0; i < headers.length; i++) {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(headers[i]);
-            cell.setCellStyle(headerStyle);
-        }
+        createHeaderRow(sheet, headerRow, headerStyle, headers);
 
         int rowNum = 1;
         for (LowStockReportResponse item : data) {
@@ -864,11 +843,7 @@ public class ReportServiceImpl implements ReportService {
 
     private void createExpiringItemsExcelSheet(Sheet sheet, Row headerRow, CellStyle headerStyle, List<ExpiringItemsReportResponse> data) {
         String[] headers = {"Product ID", "Product Name", "Quantity", "Expiry Date", "Days Until Expiry"};
-        for (int i = 0; i < headers.length; i++) {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(headers[i]);
-            cell.setCellStyle(headerStyle);
-        }
+        createHeaderRow(sheet, headerRow, headerStyle, headers);
 
         int rowNum = 1;
         for (ExpiringItemsReportResponse item : data) {
@@ -883,11 +858,7 @@ public class ReportServiceImpl implements ReportService {
 
     private void createProfitLossExcelSheet(Sheet sheet, Row headerRow, CellStyle headerStyle, ProfitLossResponse data) {
         String[] headers = {"Metric", "Amount"};
-        for (int i = 0; i < headers.length; i++) {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(headers[i]);
-            cell.setCellStyle(headerStyle);
-        }
+        createHeaderRow(sheet, headerRow, headerStyle, headers);
 
         int rowNum = 1;
         createRow(sheet, rowNum++, "Period Start", data.getPeriodStart().toString());
@@ -905,11 +876,7 @@ public class ReportServiceImpl implements ReportService {
 
     private void createCashFlowExcelSheet(Sheet sheet, Row headerRow, CellStyle headerStyle, CashFlowResponse data) {
         String[] headers = {"Metric", "Amount"};
-        for (int i = 0; i < headers.length; i++) {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(headers[i]);
-            cell.setCellStyle(headerStyle);
-        }
+        createHeaderRow(sheet, headerRow, headerStyle, headers);
 
         int rowNum = 1;
         createRow(sheet, rowNum++, "Period Start", data.getPeriodStart().toString());
@@ -921,11 +888,7 @@ public class ReportServiceImpl implements ReportService {
 
     private void createSupplierExcelSheet(Sheet sheet, Row headerRow, CellStyle headerStyle, List<SupplierPurchaseResponse> data) {
         String[] headers = {"Supplier ID", "Supplier Name", "Purchase Count", "Total Spent", "Average Order Value"};
-        for (int i = 0; i < headers.length; i++) {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(headers[i]);
-            cell.setCellStyle(headerStyle);
-        }
+        createHeaderRow(sheet, headerRow, headerStyle, headers);
 
         int rowNum = 1;
         for (SupplierPurchaseResponse item : data) {
@@ -940,11 +903,7 @@ public class ReportServiceImpl implements ReportService {
 
     private void createBusinessPerformanceExcelSheet(Sheet sheet, Row headerRow, CellStyle headerStyle, BusinessPerformanceResponse data) {
         String[] headers = {"Metric", "Value"};
-        for (int i = 0; i < headers.length; i++) {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(headers[i]);
-            cell.setCellStyle(headerStyle);
-        }
+        createHeaderRow(sheet, headerRow, headerStyle, headers);
 
         int rowNum = 1;
         createRow(sheet, rowNum++, "Period Start", data.getPeriodStart().toString());
@@ -962,11 +921,7 @@ public class ReportServiceImpl implements ReportService {
 
     private void createSalesTrendExcelSheet(Sheet sheet, Row headerRow, CellStyle headerStyle, List<SalesTrendResponse> data) {
         String[] headers = {"Period Start", "Period End", "Total Sales"};
-        for (int i = 0; i < headers.length; i++) {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(headers[i]);
-            cell.setCellStyle(headerStyle);
-        }
+        createHeaderRow(sheet, headerRow, headerStyle, headers);
 
         int rowNum = 1;
         for (SalesTrendResponse item : data) {
@@ -1005,65 +960,168 @@ public class ReportServiceImpl implements ReportService {
         return new byte[0];
     }
 
-    private byte[] generateCsvReport(ExportReportRequest request) {
-        // TODO: Implement CSV generation logic
-        return new byte[0];
-    }
+    private void writeCsvReport(ExportReportRequest request, OutputStream outputStream) throws IOException {
+        OutputStream target = request.isGzip() ? new GZIPOutputStream(outputStream, CSV_BUFFER_SIZE) : outputStream;
+        LocalDate startDate = request.getStartDate();
+        LocalDate endDate = request.getEndDate();
 
-    private BigDecimal calculateTotalProfit(List<Sale> sales) {
-        return sales.stream()
-                .flatMap(sale -> saleItemRepository.findBySale_Id(sale.getId()).stream())
-                .map(item -> {
-                    Product product = item.getProduct();
-                    BigDecimal cost = product != null && product.getCostPrice() != null ?
-                            BigDecimal.valueOf(product.getCostPrice()).multiply(BigDecimal.valueOf(item.getQuantity())) :
-                            BigDecimal.ZERO;
-                    return item.getTotalPrice() != null ? item.getTotalPrice().subtract(cost) : BigDecimal.ZERO;
-                })
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        try (CSVWriter writer = new CSVWriter(new BufferedWriter(
+                new OutputStreamWriter(target, StandardCharsets.UTF_8), CSV_BUFFER_SIZE))) {
+            switch (request.getReportType()) {
+                case SALES:
+                    writer.writeNext(new String[]{"Date", "Orders", "Total Sales", "Gross Profit", "Net Profit"}, false);
+                    readOnlyTransaction().executeWithoutResult(status -> {
+                        try (Stream<SalesReportResponse> rows = streamSalesReport(startDate, endDate)) {
+                            rows.forEach(item -> writer.writeNext(csvRow(item.getDate(), item.getOrderCount(),
+                                    item.getTotalSales(), item.getGrossProfit(), item.getNetProfit()), false));
+                        }
+                    });
+                    break;
+                case SALES_SUMMARY:
+                    writeSalesSummaryCsv(writer, generateSalesSummaryReport(startDate, endDate));
+                    break;
+                case DAILY_SUMMARY:
+                    LocalDate day = startDate != null ? startDate : LocalDate.now();
+                    writeSalesSummaryCsv(writer, generateSalesSummaryReport(day, day));
+                    break;
+                case PRODUCTS:
+                    writer.writeNext(new String[]{"Product ID", "Product Name", "Category", "Units Sold", "Total Revenue",
+                            "Total Cost", "Gross Profit", "Profit Margin %", "Markup %"}, false);
+                    for (ProductPerformanceResponse item : generateProductPerformanceReport(startDate, endDate, null)) {
+                        writer.writeNext(csvRow(item.getProductId(), item.getProductName(), item.getCategoryName(),
+                                item.getUnitsSold(), item.getTotalRevenue(), item.getTotalCost(), item.getGrossProfit(),
+                                item.getProfitMargin().multiply(BigDecimal.valueOf(100)),
+                                item.getMarkupPercentage().multiply(BigDecimal.valueOf(100))), false);
+                    }
+                    break;
+                case PRODUCT_SALES_TREND:
+                    writer.writeNext(new String[]{"Date", "Product ID", "Product Name", "Units Sold"}, false);
+                    readOnlyTransaction().executeWithoutResult(status -> {
+                        try (Stream<ProductSalesTrendResponse> rows = streamProductSalesTrend(startDate, endDate, null)) {
+                            rows.forEach(item -> writer.writeNext(csvRow(item.getDate(), item.getProductId(),
+                                    item.getProductName(), item.getUnitsSold()), false));
+                        }
+                    });
+                    break;
+                case INVENTORY:
+                    writer.writeNext(new String[]{"Product ID", "Product Name", "Quantity", "Unit Cost", "Total Value",
+                            "Units Sold", "Turnover Ratio"}, false);
+                    for (InventoryValuationResponse item : generateInventoryValuationReport()) {
+                        writer.writeNext(csvRow(item.getProductId(), item.getProductName(), item.getQuantity(),
+                                item.getUnitCost(), item.getTotalValue(), item.getUnitsSold(), item.getInventoryTurnover()), false);
+                    }
+                    break;
+                case LOW_STOCK:
+                    writer.writeNext(new String[]{"Product ID", "Product Name", "Current Stock", "Reorder Level"}, false);
+                    for (LowStockReportResponse item : generateLowStockReport(10)) {
+                        writer.writeNext(csvRow(item.getProductId(), item.getProductName(), item.getCurrentStock(),
+                                item.getReorderLevel()), false);
+                    }
+                    break;
+                case EXPIRING_ITEMS:
+                    writer.writeNext(new String[]{"Product ID", "Product Name", "Quantity", "Expiry Date",
+                            "Days Until Expiry"}, false);
+                    for (ExpiringItemsReportResponse item : generateExpiringItemsReport(LocalDate.now().plusMonths(1))) {
+                        writer.writeNext(csvRow(item.getProductId(), item.getProductName(), item.getQuantity(),
+                                item.getExpiryDate(), item.getDaysUntilExpiry()), false);
+                    }
+                    break;
+                case PROFIT_LOSS:
+                    ProfitLossResponse profitLoss = generateProfitLossReport(startDate, endDate);
+                    writer.writeNext(new String[]{"Metric", "Amount"}, false);
+                    writer.writeNext(csvRow("Period Start", profitLoss.getPeriodStart()), false);
+                    writer.writeNext(csvRow("Period End", profitLoss.getPeriodEnd()), false);
+                    writer.writeNext(csvRow("Total Revenue", profitLoss.getTotalRevenue()), false);
+                    writer.writeNext(csvRow("Cost of Goods Sold", profitLoss.getTotalCost()), false);
+                    writer.writeNext(csvRow("Gross Profit", profitLoss.getGrossProfit()), false);
+                    writer.writeNext(csvRow("Operating Expenses", profitLoss.getExpenses()), false);
+                    writer.writeNext(csvRow("Other Income", profitLoss.getOtherIncome()), false);
+                    writer.writeNext(csvRow("Other Expenses", profitLoss.getOtherExpenses()), false);
+                    writer.writeNext(csvRow("Net Profit", profitLoss.getNetProfit()), false);
+                    writer.writeNext(csvRow("Gross Margin %", profitLoss.getGrossMarginPercentage().multiply(BigDecimal.valueOf(100))), false);
+                    writer.writeNext(csvRow("Net Profit %", profitLoss.getNetProfitPercentage().multiply(BigDecimal.valueOf(100))), false);
+                    break;
+                case CASH_FLOW:
+                    CashFlowResponse cashFlow = generateCashFlowReport(startDate, endDate);
+                    writer.writeNext(new String[]{"Metric", "Amount"}, false);
+                    writer.writeNext(csvRow("Period Start", cashFlow.getPeriodStart()), false);
+                    writer.writeNext(csvRow("Period End", cashFlow.getPeriodEnd()), false);
+                    writer.writeNext(csvRow("Cash Inflows", cashFlow.getCashInflows()), false);
+                    writer.writeNext(csvRow("Cash Outflows", cashFlow.getCashOutflows()), false);
+                    writer.writeNext(csvRow("Net Cash Flow", cashFlow.getNetCashFlow()), false);
+                    break;
+                case SUPPLIERS:
+                case SUPPLIER_PURCHASES:
+                    writer.writeNext(new String[]{"Supplier ID", "Supplier Name", "Purchase Count", "Total Spent",
+                            "Average Order Value"}, false);
+                    for (SupplierPurchaseResponse item : generateSupplierPurchaseReport(startDate, endDate)) {
+                        writer.writeNext(csvRow(item.getSupplierId(), item.getSupplierName(), item.getPurchaseCount(),
+                                item.getTotalSpent(), item.getAverageOrderValue()), false);
+                    }
+                    break;
+                case BUSINESS_PERFORMANCE:
+                    BusinessPerformanceResponse performance = generateBusinessPerformanceReport(startDate, endDate);
+                    writer.writeNext(new String[]{"Metric", "Value"}, false);
+                    writer.writeNext(csvRow("Period Start", performance.getPeriodStart()), false);
+                    writer.writeNext(csvRow("Period End", performance.getPeriodEnd()), false);
+                    writer.writeNext(csvRow("Total Revenue", performance.getTotalRevenue()), false);
+                    writer.writeNext(csvRow("Cost of Goods Sold", performance.getTotalCostOfGoodsSold()), false);
+                    writer.writeNext(csvRow("Gross Profit", performance.getGrossProfit()), false);
+                    writer.writeNext(csvRow("Operating Expenses", performance.getOperatingExpenses()), false);
+                    writer.writeNext(csvRow("Net Profit", performance.getNetProfit()), false);
+                    writer.writeNext(csvRow("Gross Margin %", performance.getGrossMarginPercentage().multiply(BigDecimal.valueOf(100))), false);
+                    writer.writeNext(csvRow("Net Profit %", performance.getNetProfitPercentage().multiply(BigDecimal.valueOf(100))), false);
+                    writer.writeNext(csvRow("Operating Expense Ratio", performance.getOperatingExpenseRatio().multiply(BigDecimal.valueOf(100))), false);
+                    writer.writeNext(csvRow("Inventory Turnover", performance.getInventoryTurnover()), false);
+                    break;
+                case SALES_TREND:
+                    writer.writeNext(new String[]{"Period Start", "Period End", "Total Sales"}, false);
+                    for (SalesTrendResponse item : generateSalesTrendReport(startDate, endDate, "MONTHLY")) {
+                        writer.writeNext(csvRow(item.getPeriodStart(), item.getPeriodEnd(), item.getTotalSales()), false);
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported report type for CSV export");
+            }
+        }
     }
 
-    private BigDecimal calculateGrossProfit(List<Sale> sales) {
-        BigDecimal totalRevenue = sales.stream()
-                .map(Sale::getSubtotal)
-                .filter(Objects::nonNull)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalCOGS = sales.stream()
-                .flatMap(sale -> saleItemRepository.findBySale_Id(sale.getId()).stream())
-                .map(item -> {
-                    Product product = item.getProduct();
-                    return product != null && product.getCostPrice() != null ?
-                            BigDecimal.valueOf(product.getCostPrice()).multiply(BigDecimal.valueOf(item.getQuantity())) :
-                            BigDecimal.ZERO;
-                })
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        return totalRevenue.subtract(totalCOGS);
+    private void writeSalesSummaryCsv(CSVWriter writer, SalesSummaryResponse data) {
+        writer.writeNext(new String[]{"Metric", "Value"}, false);
+        writer.writeNext(csvRow("Period Start", data.getPeriodStart()), false);
+        writer.writeNext(csvRow("Period End", data.getPeriodEnd()), false);
+        writer.writeNext(csvRow("Total Orders", data.getTotalOrders()), false);
+        writer.writeNext(csvRow("New Customers", data.getNewCustomers()), false);
+        writer.writeNext(csvRow("Total Revenue", data.getTotalRevenue()), false);
+        writer.writeNext(csvRow("Total Profit", data.getTotalProfit()), false);
+        writer.writeNext(csvRow("Gross Profit", data.getGrossProfit()), false);
+        writer.writeNext(csvRow("Net Profit", data.getNetProfit()), false);
+        writer.writeNext(csvRow("Average Order Value", data.getAverageOrderValue()), false);
     }
 
-    private BigDecimal calculateNetProfit(List<Sale> sales) {
-        if (sales.isEmpty()) {
-            logger.warn("No sales provided for net profit calculation");
-            return BigDecimal.ZERO;
+    private static String[] csvRow(Object... values) {
+        String[] row = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            if (value == null) {
+                row[i] = "";
+            } else if (value instanceof BigDecimal) {
+                row[i] = ((BigDecimal) value).toPlainString();
+            } else {
+                row[i] = value.toString();
+            }
         }
-        BigDecimal grossProfit = calculateGrossProfit(sales);
-        BigDecimal totalExpenses = calculateTotalExpenses(
-                sales.get(0).getSaleDate().toLocalDate(),
-                sales.get(sales.size() - 1).getSaleDate().toLocalDate()
-        );
-        return grossProfit.subtract(totalExpenses);
+        return row;
+    }
+
+    // Sales, expense and purchase totals with closed months read from their period snapshots
+    private PeriodTotals sumPeriodTotals(LocalDate startDate, LocalDate endDate) {
+        return reportQueryPlanner.sumPeriodTotals(reportQueryPlanner.planPeriod(startDate, endDate));
     }
 
     private BigDecimal calculateTotalExpenses(LocalDate startDate, LocalDate endDate) {
-        LocalDate effectiveStartDate = startDate != null ? startDate : LocalDate.MIN;
-        LocalDate effectiveEndDate = endDate != null ? endDate : LocalDate.now();
-        BigDecimal totalExpenses = expenseRepository.findByDateBetween(effectiveStartDate, effectiveEndDate)
-                .stream()
-                .map(Expense::getAmount)
-                .filter(Objects::nonNull)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        logger.debug("Total Expenses from {} to {}: {}", effectiveStartDate, effectiveEndDate, totalExpenses);
+        BigDecimal totalExpenses = expenseService.getTotalExpenses(startDate, endDate);
+        logger.debug("Total Expenses from {} to {}: {}", startDate, endDate, totalExpenses);
         return totalExpenses;
     }
 }
\ No newline at end of file
@@ -1,37 +1,86 @@
 package com.example.inventoryManagementSystem.service.impl;
 
+import com.example.inventoryManagementSystem.config.IdSequenceInitializer;
+import com.example.inventoryManagementSystem.config.OptimisticRetryExecutor;
 import com.example.inventoryManagementSystem.dto.request.*;
 import com.example.inventoryManagementSystem.dto.response.*;
+import com.example.inventoryManagementSystem.event.ReportDataChangedEvent;
 import com.example.inventoryManagementSystem.exception.*;
 import com.example.inventoryManagementSystem.model.*;
 import com.example.inventoryManagementSystem.repository.*;
+import com.example.inventoryManagementSystem.service.DiscountIndex;
 import com.example.inventoryManagementSystem.service.SaleService;
+import com.example.inventoryManagementSystem.service.SalesCubeService;
+import com.example.inventoryManagementSystem.service.SalesRollupService;
+import com.example.inventoryManagementSystem.service.SalesTrendService;
+import com.example.inventoryManagementSystem.service.StockMutationService;
+import com.example.inventoryManagementSystem.service.StockMutationService.StockChange;
+import com.example.inventoryManagementSystem.util.MoneyAccumulator;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.stream.Collectors;
-import java.sql.Timestamp;  // Correct import
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class SaleServiceImpl implements SaleService {
+    private static final int JDBC_BATCH_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 200;
+    // Tolerance for till clocks running slightly ahead of the server
+    private static final long MAX_CLOCK_SKEW_MINUTES = 5;
+
+    // Whole id blocks from the entities' pooled sequences, one round trip for the batch
+    private static final String RESERVE_ID_BLOCKS_SQL =
+            "SELECT nextval(CAST(? AS regclass)) FROM generate_series(1, ?)";
+    private static final String INSERT_SALE_SQL = "INSERT INTO sales " +
+            "(id, version, applied_discount_code, cashier, customer_id, sale_date, status, subtotal, discount_amount, total, profit) " +
+            "VALUES (?, 0, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_SALE_ITEM_SQL = "INSERT INTO sale_items " +
+            "(id, sale_id, product_id, quantity, unit_price, total_price, unit_cost, cost_amount, discount_amount, category_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
     private final SaleRepository saleRepository;
     private final SaleItemRepository saleItemRepository;
     private final ProductRepository productRepository;
     private final CustomerRepository customerRepository;
-    private final DiscountRepository discountRepository;
+    private final DiscountIndex discountIndex;
+    private final SalesRollupService salesRollupService;
+    private final SalesCubeService salesCubeService;
+    private final SalesTrendService salesTrendService;
+    private final StockMutationService stockMutationService;
+    private final OptimisticRetryExecutor optimisticRetry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
     private final ModelMapper modelMapper;
 
+    @Value("${app.sales.batch.max-size:500}")
+    private int maxBatchSize;
+
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.SUPPORTS)
     public SaleResponse createSale(SaleRequest request) {
+        return optimisticRetry.execute("sale.create", () -> doCreateSale(request));
+    }
+
+    private SaleResponse doCreateSale(SaleRequest request) {
         Customer customer = customerRepository.findById(request.getCustomerId())
                 .orElseThrow(() -> new ResourceNotFoundException("Customer not found"));
 
@@ -40,6 +89,7 @@ public class SaleServiceImpl implements SaleService {
         sale.setSaleDate(LocalDateTime.now());
         sale.setStatus(Sale.SaleStatus.COMPLETED);
         sale.setAppliedDiscountCode(request.getAppliedDiscountCode());
+        sale.setCashier(currentUsername());
 
         List<SaleItem> saleItems = processSaleItems(request.getItems(), sale);
         sale.setItems(saleItems);
@@ -60,10 +110,274 @@ public class SaleServiceImpl implements SaleService {
         Sale savedSale = saleRepository.save(sale);
         saleItems.forEach(item -> item.setSale(savedSale));
         saleItemRepository.saveAll(saleItems);
+        salesRollupService.recordSale(savedSale);
+        salesCubeService.recordSale(savedSale);
+        publishReportDataChanged(savedSale);
 
         return mapToSaleResponse(savedSale);
     }
 
+    // Sales queued by an offline till. Each sale is accepted or rejected on its own; the
+    // accepted ones share one stock update and are inserted in JDBC batches.
+    @Override
+    public BatchSaleResponse createSalesBatch(List<SaleRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new BusinessException("At least one sale is required");
+        }
+        if (requests.size() > maxBatchSize) {
+            throw new BusinessException("A batch can hold at most " + maxBatchSize + " sales");
+        }
+
+        // Every customer and product in the batch in one query each
+        Map<Long, Customer> customers = customerRepository.findAllById(requests.stream()
+                        .map(SaleRequest::getCustomerId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Customer::getId, customer -> customer));
+        Map<Long, Product> products = productRepository.findAllById(requests.stream()
+                        .filter(request -> request.getItems() != null)
+                        .flatMap(request -> request.getItems().stream())
+                        .map(SaleItemRequest::getProductId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Product::getId, product -> product));
+
+        // Stock left for the rest of the batch once the sales before it are taken out
+        Map<Long, Integer> remaining = new HashMap<>();
+        products.values().forEach(product -> remaining.put(product.getId(), product.getQuantityInStock()));
+
+        LocalDateTime receivedAt = LocalDateTime.now();
+        BatchSaleResultResponse[] results = new BatchSaleResultResponse[requests.size()];
+        Map<Integer, Sale> accepted = new LinkedHashMap<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            SaleRequest request = requests.get(i);
+            String error = validateBatchSale(request, customers, products, remaining, receivedAt);
+            if (error != null) {
+                results[i] = rejectedResult(i, error);
+                continue;
+            }
+            quantitiesByProduct(request.getItems())
+                    .forEach((productId, quantity) -> remaining.merge(productId, -quantity, Integer::sum));
+            LocalDateTime saleDate = request.getSaleDate() != null ? request.getSaleDate() : receivedAt;
+            accepted.put(i, buildBatchSale(request, customers.get(request.getCustomerId()), products, saleDate));
+        }
+
+        rejectSalesShortOfStock(accepted, products, results);
+
+        if (!accepted.isEmpty()) {
+            List<Sale> sales = new ArrayList<>(accepted.values());
+            insertSales(sales);
+            for (Sale sale : sales) {
+                salesRollupService.recordSale(sale);
+                salesCubeService.recordSale(sale);
+            }
+            // Sales keep the till's dates, so the batch can span days; a closed month in the
+            // range is reopened by the period listener
+            LocalDate firstDay = sales.stream().map(sale -> sale.getSaleDate().toLocalDate())
+                    .min(Comparator.naturalOrder()).orElseThrow();
+            LocalDate lastDay = sales.stream().map(sale -> sale.getSaleDate().toLocalDate())
+                    .max(Comparator.naturalOrder()).orElseThrow();
+            eventPublisher.publishEvent(new ReportDataChangedEvent(firstDay, lastDay));
+            eventPublisher.publishEvent(ReportDataChangedEvent.forDay(LocalDate.now()));
+        }
+
+        accepted.forEach((index, sale) -> results[index] = BatchSaleResultResponse.builder()
+                .index(index)
+                .status("CREATED")
+                .saleId(sale.getId())
+                .total(sale.getTotal())
+                .build());
+
+        return BatchSaleResponse.builder()
+                .received(requests.size())
+                .created(accepted.size())
+                .rejected(requests.size() - accepted.size())
+                .results(Arrays.asList(results))
+                .build();
+    }
+
+    private String validateBatchSale(SaleRequest request, Map<Long, Customer> customers,
+                                     Map<Long, Product> products, Map<Long, Integer> remaining,
+                                     LocalDateTime receivedAt) {
+        if (request == null) {
+            return "Sale is empty";
+        }
+        if (request.getSaleDate() != null
+                && request.getSaleDate().isAfter(receivedAt.plusMinutes(MAX_CLOCK_SKEW_MINUTES))) {
+            return "Sale date cannot be in the future";
+        }
+        if (request.getCustomerId() == null) {
+            return "Customer ID is required";
+        }
+        if (!customers.containsKey(request.getCustomerId())) {
+            return "Customer not found with id: " + request.getCustomerId();
+        }
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            return "At least one item is required";
+        }
+        for (SaleItemRequest item : request.getItems()) {
+            if (item.getProductId() == null) {
+                return "Product ID is required";
+            }
+            if (!products.containsKey(item.getProductId())) {
+                return "Product not found with id: " + item.getProductId();
+            }
+            if (item.getQuantity() == null || item.getQuantity() <= 0) {
+                return "Quantity must be positive";
+            }
+        }
+        for (Map.Entry<Long, Integer> needed : quantitiesByProduct(request.getItems()).entrySet()) {
+            int available = remaining.getOrDefault(needed.getKey(), 0);
+            if (needed.getValue() > available) {
+                return "Insufficient stock for " + products.get(needed.getKey()).getName()
+                        + ": requested " + needed.getValue() + ", available " + available;
+            }
+        }
+        return null;
+    }
+
+    private Sale buildBatchSale(SaleRequest request, Customer customer, Map<Long, Product> products,
+                                LocalDateTime saleDate) {
+        Sale sale = new Sale();
+        sale.setVersion(0L);
+        sale.setCustomer(customer);
+        sale.setSaleDate(saleDate);
+        sale.setStatus(Sale.SaleStatus.COMPLETED);
+        sale.setAppliedDiscountCode(request.getAppliedDiscountCode());
+        sale.setCashier(currentUsername());
+
+        List<SaleItem> saleItems = request.getItems().stream()
+                .map(itemRequest -> buildSaleItem(itemRequest, products.get(itemRequest.getProductId()), sale))
+                .collect(Collectors.toList());
+        sale.setItems(saleItems);
+
+        BigDecimal subtotal = calculateSubtotal(saleItems);
+        BigDecimal discountAmount = request.getDiscountAmount() != null ?
+                request.getDiscountAmount() :
+                calculateAutomaticDiscounts(saleItems);
+
+        sale.setSubtotal(subtotal);
+        sale.setDiscountAmount(discountAmount);
+        sale.setTotal(subtotal.subtract(discountAmount));
+        sale.setProfit(calculateSaleProfit(saleItems));
+        return sale;
+    }
+
+    // Takes the accepted sales' stock in one conditional decrement per product. Stock sold
+    // elsewhere since the products were loaded can refuse one; the sales touching it are then
+    // rejected and the units they took from other products are put back.
+    private void rejectSalesShortOfStock(Map<Integer, Sale> accepted, Map<Long, Product> products,
+                                         BatchSaleResultResponse[] results) {
+        Map<Long, Integer> totals = new LinkedHashMap<>();
+        for (Sale sale : accepted.values()) {
+            sale.getItems().forEach(item -> totals.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum));
+        }
+        List<StockChange> failed = stockMutationService.tryApply(totals.entrySet().stream()
+                .map(total -> StockChange.decrement(products.get(total.getKey()), total.getValue()))
+                .collect(Collectors.toList()));
+        if (failed.isEmpty()) {
+            return;
+        }
+
+        Set<Long> refused = failed.stream().map(StockChange::getProductId).collect(Collectors.toSet());
+        Map<Long, Integer> putBack = new LinkedHashMap<>();
+        Iterator<Map.Entry<Integer, Sale>> iterator = accepted.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, Sale> entry = iterator.next();
+            List<SaleItem> items = entry.getValue().getItems();
+            Optional<Product> shortProduct = items.stream()
+                    .map(SaleItem::getProduct)
+                    .filter(product -> refused.contains(product.getId()))
+                    .findFirst();
+            if (shortProduct.isEmpty()) {
+                continue;
+            }
+            for (SaleItem item : items) {
+                if (!refused.contains(item.getProduct().getId())) {
+                    putBack.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+                }
+            }
+            results[entry.getKey()] = rejectedResult(entry.getKey(),
+                    "Stock for " + shortProduct.get().getName() + " changed during sync, please resubmit");
+            iterator.remove();
+        }
+        stockMutationService.apply(putBack.entrySet().stream()
+                .map(units -> StockChange.increment(products.get(units.getKey()), units.getValue()))
+                .collect(Collectors.toList()));
+    }
+
+    private void insertSales(List<Sale> sales) {
+        List<Long> saleIds = reserveIds("sales_seq", sales.size());
+        for (int i = 0; i < sales.size(); i++) {
+            sales.get(i).setId(saleIds.get(i));
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SALE_SQL, sales, JDBC_BATCH_SIZE, (ps, sale) -> {
+            ps.setLong(1, sale.getId());
+            ps.setString(2, sale.getAppliedDiscountCode());
+            ps.setString(3, sale.getCashier());
+            ps.setLong(4, sale.getCustomer().getId());
+            ps.setObject(5, sale.getSaleDate());
+            ps.setString(6, sale.getStatus().name());
+            ps.setBigDecimal(7, sale.getSubtotal());
+            ps.setBigDecimal(8, sale.getDiscountAmount());
+            ps.setBigDecimal(9, sale.getTotal());
+            ps.setBigDecimal(10, sale.getProfit());
+        });
+
+        List<SaleItem> items = sales.stream()
+                .flatMap(sale -> sale.getItems().stream())
+                .collect(Collectors.toList());
+        List<Long> itemIds = reserveIds("sale_items_seq", items.size());
+        for (int i = 0; i < items.size(); i++) {
+            items.get(i).setId(itemIds.get(i));
+        }
+        jdbcTemplate.batchUpdate(INSERT_SALE_ITEM_SQL, items, JDBC_BATCH_SIZE, (ps, item) -> {
+            ps.setLong(1, item.getId());
+            ps.setLong(2, item.getSale().getId());
+            ps.setLong(3, item.getProduct().getId());
+            ps.setInt(4, item.getQuantity());
+            ps.setBigDecimal(5, item.getUnitPrice());
+            ps.setBigDecimal(6, item.getTotalPrice());
+            ps.setBigDecimal(7, item.getUnitCost());
+            ps.setBigDecimal(8, item.getCostAmount());
+            ps.setBigDecimal(9, item.getDiscountAmount());
+            ps.setLong(10, item.getCategoryId());
+        });
+    }
+
+    // Each sequence value v is a block (v - allocation, v], the same blocks Hibernate's pooled
+    // optimizer takes, so these ids never collide with ones handed out to entities. This relies
+    // on IdSequenceInitializer having used up the start value, which Hibernate treats specially.
+    private List<Long> reserveIds(String sequence, int count) {
+        int blockSize = IdSequenceInitializer.ALLOCATION_SIZE;
+        List<Long> ids = new ArrayList<>(count);
+        while (ids.size() < count) {
+            int blocks = (count - ids.size() + blockSize - 1) / blockSize;
+            for (Long high : jdbcTemplate.queryForList(RESERVE_ID_BLOCKS_SQL, Long.class, sequence, blocks)) {
+                for (long id = high - blockSize + 1; id <= high && ids.size() < count; id++) {
+                    ids.add(id);
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static Map<Long, Integer> quantitiesByProduct(List<SaleItemRequest> items) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        items.forEach(item -> quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum));
+        return quantities;
+    }
+
+    private static BatchSaleResultResponse rejectedResult(int index, String error) {
+        return BatchSaleResultResponse.builder()
+                .index(index)
+                .status("REJECTED")
+                .error(error)
+                .build();
+    }
+
     @Override
     public List<SaleResponse> getAllSales(LocalDate startDate, LocalDate endDate) {
         List<Sale> sales;
@@ -77,6 +391,61 @@ public class SaleServiceImpl implements SaleService {
         return sales.stream().map(this::mapToSaleResponse).collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public SalePageResponse getSalesPage(LocalDate startDate, LocalDate endDate, String status,
+                                         Long customerId, String cashier, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BusinessException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        Sale.SaleStatus saleStatus = null;
+        if (status != null && !status.isBlank()) {
+            try {
+                saleStatus = Sale.SaleStatus.valueOf(status.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new BusinessException("Invalid status value: " + status);
+            }
+        }
+        LocalDateTime afterDate = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            Object[] position = decodeCursor(cursor);
+            afterDate = (LocalDateTime) position[0];
+            afterId = (Long) position[1];
+        }
+
+        // One row past the page tells whether another page follows
+        List<Object[]> rows = saleRepository.findSalePage(
+                startDate != null ? startDate.atStartOfDay() : null,
+                endDate != null ? endDate.atTime(23, 59, 59) : null,
+                saleStatus, customerId, cashier != null && !cashier.isBlank() ? cashier.trim() : null,
+                afterDate, afterId, PageRequest.of(0, size + 1));
+        boolean hasMore = rows.size() > size;
+        List<SaleListItemResponse> sales = rows.stream()
+                .limit(size)
+                .map(row -> SaleListItemResponse.builder()
+                        .id(((Number) row[0]).longValue())
+                        .saleDate((LocalDateTime) row[1])
+                        .customerId(((Number) row[2]).longValue())
+                        .customerName((String) row[3])
+                        .cashier((String) row[4])
+                        .status(row[5] != null ? ((Sale.SaleStatus) row[5]).name() : null)
+                        .itemCount(((Number) row[6]).longValue())
+                        .subtotal((BigDecimal) row[7])
+                        .discountAmount((BigDecimal) row[8])
+                        .total((BigDecimal) row[9])
+                        .profit((BigDecimal) row[10])
+                        .build())
+                .collect(Collectors.toList());
+
+        SaleListItemResponse last = hasMore ? sales.get(sales.size() - 1) : null;
+        return SalePageResponse.builder()
+                .sales(sales)
+                .nextCursor(last != null ? encodeCursor(last.getSaleDate(), last.getId()) : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
     @Override
     public List<SaleResponse> getSalesByDateRange(LocalDate startDate, LocalDate endDate) {
         return saleRepository.findBySaleDateBetween(
@@ -117,7 +486,12 @@ public class SaleServiceImpl implements SaleService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public SaleResponse refundSale(Long saleId) {
+        return optimisticRetry.execute("sale.refund", () -> doRefundSale(saleId));
+    }
+
+    private SaleResponse doRefundSale(Long saleId) {
         Sale sale = saleRepository.findByIdWithItems(saleId)
                 .orElseThrow(() -> new ResourceNotFoundException("Sale not found with id: " + saleId));
 
@@ -125,19 +499,24 @@ public class SaleServiceImpl implements SaleService {
             throw new BusinessException("Only completed sales can be refunded");
         }
 
-        sale.getItems().forEach(item -> {
-            Product product = item.getProduct();
-            product.setQuantityInStock(product.getQuantityInStock() + item.getQuantity());
-            productRepository.save(product);
-        });
+        restock(sale.getItems());
 
+        salesRollupService.retractSale(sale);
         sale.setStatus(Sale.SaleStatus.REFUNDED);
         Sale updatedSale = saleRepository.save(sale);
+        salesRollupService.recordSale(updatedSale);
+        salesCubeService.recordSale(updatedSale);
+        publishReportDataChanged(updatedSale);
         return mapToSaleResponse(updatedSale);
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public SaleResponse updateSale(Long id, SaleRequest saleRequest) {
+        return optimisticRetry.execute("sale.update", () -> doUpdateSale(id, saleRequest));
+    }
+
+    private SaleResponse doUpdateSale(Long id, SaleRequest saleRequest) {
         Sale sale = saleRepository.findByIdWithItems(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Sale not found with id: " + id));
 
@@ -151,75 +530,95 @@ public class SaleServiceImpl implements SaleService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void deleteSale(Long id) {
+        optimisticRetry.execute("sale.delete", () -> doDeleteSale(id));
+    }
+
+    private void doDeleteSale(Long id) {
         Sale sale = saleRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Sale not found"));
+        salesRollupService.retractSale(sale);
         saleRepository.delete(sale);
+        salesCubeService.removeSale(sale);
+        publishReportDataChanged(sale);
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public SaleResponse cancelSale(Long id) {
+        return optimisticRetry.execute("sale.cancel", () -> doCancelSale(id));
+    }
+
+    private SaleResponse doCancelSale(Long id) {
         Sale sale = saleRepository.findByIdWithItems(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Sale not found"));
 
         if (sale.getStatus() == Sale.SaleStatus.CANCELLED) {
             throw new BusinessException("Sale is already cancelled");
         }
-
-        for (SaleItem item : sale.getItems()) {
-            Product product = item.getProduct();
-            product.setQuantityInStock(product.getQuantityInStock() + item.getQuantity());
-            productRepository.save(product);
+        // Its stock went back when it was refunded
+        if (sale.getStatus() == Sale.SaleStatus.REFUNDED) {
+            throw new BusinessException("Refunded sales cannot be cancelled");
         }
 
+        restock(sale.getItems());
+
+        salesRollupService.retractSale(sale);
         sale.setStatus(Sale.SaleStatus.CANCELLED);
         Sale updatedSale = saleRepository.save(sale);
+        salesRollupService.recordSale(updatedSale);
+        salesCubeService.recordSale(updatedSale);
+        publishReportDataChanged(updatedSale);
         return mapToSaleResponse(updatedSale);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public DailySummaryResponse getDailySummary(LocalDate date) {
         LocalDateTime start = date.atStartOfDay();
         LocalDateTime end = date.atTime(23, 59, 59);
 
-        List<Sale> sales = saleRepository.findBySaleDateBetween(start, end);
-
-        List<SaleSummary> summaries = sales.stream()
-                .map(s -> SaleSummary.builder()
-                        .saleId(s.getId())
-                        .customerName(s.getCustomer().getName())
-                        .totalAmount(s.getTotal())
-                        .subtotal(s.getSubtotal())
-                        .discountAmount(s.getDiscountAmount())
-                        .saleTime(s.getSaleDate())
-                        .profit(s.getProfit())
-                        .build())
-                .collect(Collectors.toList());
-
-        BigDecimal totalRevenue = sales.stream()
-                .map(Sale::getSubtotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalDiscount = sales.stream()
-                .map(Sale::getDiscountAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalProfit = sales.stream()
-                .map(Sale::getProfit)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // Summary rows are projected and folded as they stream; no Sale entities or items are loaded
+        List<SaleSummary> summaries = new ArrayList<>();
+        MoneyAccumulator totalRevenue = new MoneyAccumulator();
+        MoneyAccumulator totalDiscount = new MoneyAccumulator();
+        MoneyAccumulator totalProfit = new MoneyAccumulator();
+        try (Stream<Object[]> rows = saleRepository.streamSaleSummaries(start, end)) {
+            rows.forEach(row -> {
+                SaleSummary summary = SaleSummary.builder()
+                        .saleId(((Number) row[0]).longValue())
+                        .customerName((String) row[1])
+                        .totalAmount((BigDecimal) row[2])
+                        .subtotal((BigDecimal) row[3])
+                        .discountAmount((BigDecimal) row[4])
+                        .saleTime((LocalDateTime) row[5])
+                        .profit((BigDecimal) row[6])
+                        .build();
+                summaries.add(summary);
+                totalRevenue.add(summary.getSubtotal());
+                totalDiscount.add(summary.getDiscountAmount());
+                totalProfit.add(summary.getProfit());
+            });
+        }
 
         return DailySummaryResponse.builder()
                 .date(date)
-                .totalSales(sales.size())
-                .totalRevenue(totalRevenue)
-                .totalDiscount(totalDiscount)
-                .totalProfit(totalProfit)
+                .totalSales(summaries.size())
+                .totalRevenue(totalRevenue.toBigDecimal())
+                .totalDiscount(totalDiscount.toBigDecimal())
+                .totalProfit(totalProfit.toBigDecimal())
                 .sales(summaries)
                 .build();
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public SaleResponse applyDiscount(Long saleId, ApplyDiscountRequest request) {
+        return optimisticRetry.execute("sale.apply-discount", () -> doApplyDiscount(saleId, request));
+    }
+
+    private SaleResponse doApplyDiscount(Long saleId, ApplyDiscountRequest request) {
         Sale sale = saleRepository.findByIdWithItems(saleId)
                 .orElseThrow(() -> new ResourceNotFoundException("Sale not found"));
 
@@ -227,15 +626,19 @@ public class SaleServiceImpl implements SaleService {
             throw new BusinessException("Discount can only be applied to completed sales");
         }
 
-        Discount discount = discountRepository.findByCode(request.getDiscountCode())
+        Discount discount = discountIndex.findByCode(request.getDiscountCode())
                 .orElseThrow(() -> new ResourceNotFoundException("Discount not found"));
 
         BigDecimal discountAmount = sale.getSubtotal()
                 .multiply(BigDecimal.valueOf(discount.getPercentage() / 100));
 
+        salesRollupService.retractSale(sale);
         sale.setDiscountAmount(discountAmount);
         sale.setTotal(sale.getSubtotal().subtract(discountAmount));
         Sale updatedSale = saleRepository.save(sale);
+        salesRollupService.recordSale(updatedSale);
+        salesCubeService.recordSale(updatedSale);
+        publishReportDataChanged(updatedSale);
 
         return mapToSaleResponse(updatedSale);
     }
@@ -248,8 +651,7 @@ public class SaleServiceImpl implements SaleService {
         List<ReceiptItem> receiptItems = sale.getItems().stream()
                 .map(item -> {
                     BigDecimal itemRevenue = item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity()));
-                    BigDecimal itemCost = BigDecimal.valueOf(item.getProduct().getCostPrice())
-                            .multiply(BigDecimal.valueOf(item.getQuantity()));
+                    BigDecimal itemCost = item.getCostAmount();
                     BigDecimal itemProfit = itemRevenue.subtract(itemCost);
 
                     return ReceiptItem.builder()
@@ -265,8 +667,7 @@ public class SaleServiceImpl implements SaleService {
                 .collect(Collectors.toList());
 
         BigDecimal totalProfit = receiptItems.stream()
-                .map(ReceiptItem::getProfitAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+                .collect(MoneyAccumulator.summing(ReceiptItem::getProfitAmount));
 
         return ReceiptResponse.builder()
                 .receiptNumber("RCPT-" + sale.getId())
@@ -285,91 +686,110 @@ public class SaleServiceImpl implements SaleService {
             LocalDateTime startDate,
             LocalDateTime endDate,
             String periodType) {
+        LocalDate effectiveStartDate = startDate != null ? startDate.toLocalDate() : LocalDate.now().minusMonths(6);
+        LocalDate effectiveEndDate = endDate != null ? endDate.toLocalDate() : LocalDate.now();
+        return salesTrendService.getSalesTrend(effectiveStartDate, effectiveEndDate,
+                SalesTrendService.TrendPeriod.parse(periodType));
+    }
 
-        String normalizedPeriodType = periodType.toLowerCase();
-        if (!Arrays.asList("day", "week", "month").contains(normalizedPeriodType)) {
-            throw new BusinessException("Invalid period type. Must be 'day', 'week', or 'month'");
-        }
+    // Opaque to clients: the last row's sale date and id, URL-safe Base64 encoded
+    private static String encodeCursor(LocalDateTime saleDate, Long id) {
+        String position = saleDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
 
-        LocalDateTime effectiveStartDate = startDate != null ? startDate : LocalDateTime.now().minusMonths(6);
-        LocalDateTime effectiveEndDate = endDate != null ? endDate : LocalDateTime.now();
+    private static Object[] decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            int separator = position.lastIndexOf('|');
+            return new Object[]{LocalDateTime.parse(position.substring(0, separator)),
+                    Long.parseLong(position.substring(separator + 1))};
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new BusinessException("Invalid cursor");
+        }
+    }
 
-        List<Object[]> results = saleRepository.getSalesTrendNative(
-                effectiveStartDate,
-                effectiveEndDate,
-                normalizedPeriodType);
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
 
-        return results.stream()
-                .map(row -> SalesTrendResponse.builder()
-                        .period((String) row[3])
-                        .amount((BigDecimal) row[1])
-                        .startDate(((Timestamp) row[0]).toLocalDateTime().toLocalDate())
-                        .endDate(((Timestamp) row[0]).toLocalDateTime().toLocalDate())
-                        .salesCount(((Number) row[2]).longValue())
-                        .build())
-                .collect(Collectors.toList());
+    // Reports over the sale's day are stale, and so is current stock
+    private void publishReportDataChanged(Sale sale) {
+        eventPublisher.publishEvent(ReportDataChangedEvent.forDay(sale.getSaleDate().toLocalDate()));
+        eventPublisher.publishEvent(ReportDataChangedEvent.forDay(LocalDate.now()));
     }
 
     private BigDecimal calculateSaleProfit(Sale sale) {
-        return sale.getItems().stream()
-                .map(item -> {
-                    BigDecimal revenue = item.getUnitPrice()
-                            .multiply(BigDecimal.valueOf(item.getQuantity()));
-                    BigDecimal cost = BigDecimal.valueOf(item.getProduct().getCostPrice())
-                            .multiply(BigDecimal.valueOf(item.getQuantity()));
-                    return revenue.subtract(cost);
-                })
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return calculateSaleProfit(sale.getItems());
     }
 
     private BigDecimal calculateSaleProfit(List<SaleItem> items) {
-        return items.stream()
-                .map(item -> {
-                    BigDecimal revenue = item.getUnitPrice()
-                            .multiply(BigDecimal.valueOf(item.getQuantity()));
-                    BigDecimal cost = BigDecimal.valueOf(item.getProduct().getCostPrice())
-                            .multiply(BigDecimal.valueOf(item.getQuantity()));
-                    return revenue.subtract(cost);
-                })
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        MoneyAccumulator profit = new MoneyAccumulator();
+        for (SaleItem item : items) {
+            profit.addLine(item.getUnitPrice(), item.getQuantity())
+                    .subtract(item.getCostAmount());
+        }
+        return profit.toBigDecimal();
     }
 
     private List<SaleItem> processSaleItems(List<SaleItemRequest> itemRequests, Sale sale) {
-        return itemRequests.stream().map(itemRequest -> {
-            Product product = productRepository.findById(itemRequest.getProductId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
-
-            if (product.getQuantityInStock() < itemRequest.getQuantity()) {
-                throw new BusinessException("Insufficient stock for product: " + product.getName());
+        // One query for every product on the sale instead of one lookup per line
+        Map<Long, Product> products = productRepository.findAllById(itemRequests.stream()
+                        .map(SaleItemRequest::getProductId)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Product::getId, product -> product));
+
+        List<SaleItem> saleItems = itemRequests.stream().map(itemRequest -> {
+            Product product = products.get(itemRequest.getProductId());
+            if (product == null) {
+                throw new ResourceNotFoundException("Product not found");
             }
+            return buildSaleItem(itemRequest, product, sale);
+        }).collect(Collectors.toList());
 
-            // Get unit price - use product's price (selling price) if not provided in request
-            BigDecimal unitPrice = itemRequest.getUnitPrice();
-            if (unitPrice == null) {
-                unitPrice = BigDecimal.valueOf(product.getPrice()); // Using getPrice() instead of getSellingPrice()
-            }
+        // Conditional decrements in one batch; a line short of stock fails the whole sale
+        stockMutationService.apply(saleItems.stream()
+                .map(item -> StockChange.decrement(item.getProduct(), item.getQuantity()))
+                .collect(Collectors.toList()));
+        return saleItems;
+    }
 
-            // Update product stock
-            product.setQuantityInStock(product.getQuantityInStock() - itemRequest.getQuantity());
-            productRepository.save(product);
+    private SaleItem buildSaleItem(SaleItemRequest itemRequest, Product product, Sale sale) {
+        // Get unit price - use product's price (selling price) if not provided in request
+        BigDecimal unitPrice = itemRequest.getUnitPrice();
+        if (unitPrice == null) {
+            unitPrice = BigDecimal.valueOf(product.getPrice()); // Using getPrice() instead of getSellingPrice()
+        }
 
-            // Create sale item
-            SaleItem saleItem = new SaleItem();
-            saleItem.setProduct(product);
-            saleItem.setQuantity(itemRequest.getQuantity());
-            saleItem.setUnitPrice(unitPrice);
-            saleItem.setTotalPrice(unitPrice.multiply(BigDecimal.valueOf(itemRequest.getQuantity())));
-            saleItem.setDiscountAmount(itemRequest.getDiscountAmount());
-            saleItem.setSale(sale);
+        // Create sale item
+        SaleItem saleItem = new SaleItem();
+        saleItem.setProduct(product);
+        saleItem.setQuantity(itemRequest.getQuantity());
+        saleItem.setUnitPrice(unitPrice);
+        saleItem.setTotalPrice(unitPrice.multiply(BigDecimal.valueOf(itemRequest.getQuantity())));
+        BigDecimal unitCost = BigDecimal.valueOf(product.getCostPrice()).setScale(2, RoundingMode.HALF_UP);
+        saleItem.setUnitCost(unitCost);
+        saleItem.setCostAmount(unitCost.multiply(BigDecimal.valueOf(itemRequest.getQuantity())));
+        saleItem.setDiscountAmount(itemRequest.getDiscountAmount());
+        saleItem.setCategoryId(product.getCategory() != null
+                ? product.getCategory().getId() : DailySalesRollup.UNCATEGORIZED);
+        saleItem.setSale(sale);
+        return saleItem;
+    }
 
-            return saleItem;
-        }).collect(Collectors.toList());
+    private void restock(List<SaleItem> items) {
+        stockMutationService.apply(items.stream()
+                .map(item -> StockChange.increment(item.getProduct(), item.getQuantity()))
+                .collect(Collectors.toList()));
     }
 
     private BigDecimal calculateSubtotal(List<SaleItem> items) {
-        return items.stream()
-                .map(SaleItem::getTotalPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        MoneyAccumulator subtotal = new MoneyAccumulator();
+        for (SaleItem item : items) {
+            subtotal.add(item.getTotalPrice());
+        }
+        return subtotal.toBigDecimal();
     }
 
     private SaleResponse mapToSaleResponse(Sale sale) {
@@ -385,14 +805,14 @@ public class SaleServiceImpl implements SaleService {
                 .total(sale.getTotal())
                 .profit(sale.getProfit())
                 .status(sale.getStatus().name())
+                .cashier(sale.getCashier())
                 .build();
     }
 
     private SaleItemResponse mapToSaleItemResponse(SaleItem item) {
         BigDecimal revenue = item.getUnitPrice()
                 .multiply(BigDecimal.valueOf(item.getQuantity()));
-        BigDecimal cost = BigDecimal.valueOf(item.getProduct().getCostPrice())
-                .multiply(BigDecimal.valueOf(item.getQuantity()));
+        BigDecimal cost = item.getCostAmount();
         BigDecimal profit = revenue.subtract(cost);
 
         return SaleItemResponse.builder()
@@ -408,23 +828,14 @@ public class SaleServiceImpl implements SaleService {
     }
 
     private BigDecimal calculateAutomaticDiscounts(List<SaleItem> saleItems) {
-        return saleItems.stream()
-                .map(item -> {
-                    List<Discount> discounts = findValidDiscountsForProduct(item.getProduct());
-                    BigDecimal maxDiscount = calculateMaxDiscountForItem(item.getTotalPrice(), discounts);
-                    item.setDiscountAmount(maxDiscount);
-                    return maxDiscount;
-                })
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-    }
-
-    private List<Discount> findValidDiscountsForProduct(Product product) {
-        LocalDateTime now = LocalDateTime.now();
-        return discountRepository.findByApplicableProductsContaining(product).stream()
-                .filter(discount -> discount.isActive() &&
-                        (discount.getValidFrom() == null || !now.isBefore(discount.getValidFrom())) &&
-                        (discount.getValidTo() == null || !now.isAfter(discount.getValidTo())))
-                .collect(Collectors.toList());
+        MoneyAccumulator totalDiscount = new MoneyAccumulator();
+        for (SaleItem item : saleItems) {
+            List<Discount> discounts = discountIndex.findActiveForProduct(item.getProduct().getId());
+            BigDecimal maxDiscount = calculateMaxDiscountForItem(item.getTotalPrice(), discounts);
+            item.setDiscountAmount(maxDiscount);
+            totalDiscount.add(maxDiscount);
+        }
+        return totalDiscount.toBigDecimal();
     }
 
     private BigDecimal calculateMaxDiscountForItem(BigDecimal itemPrice, List<Discount> discounts) {
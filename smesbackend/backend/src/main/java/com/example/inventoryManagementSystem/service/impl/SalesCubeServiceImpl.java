@@ -0,0 +1,634 @@
+package com.example.inventoryManagementSystem.service.impl;
+
+import com.example.inventoryManagementSystem.exception.BusinessException;
+import com.example.inventoryManagementSystem.model.DailySalesRollup;
+import com.example.inventoryManagementSystem.model.Sale;
+import com.example.inventoryManagementSystem.model.SaleItem;
+import com.example.inventoryManagementSystem.repository.ProductRepository;
+import com.example.inventoryManagementSystem.repository.SaleItemRepository;
+import com.example.inventoryManagementSystem.service.SalesCubeService;
+import com.example.inventoryManagementSystem.service.SalesTrendService.TrendPeriod;
+import com.example.inventoryManagementSystem.util.MoneyAccumulator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Sale-item facts held as parallel primitive arrays sorted by epoch day, with money in
+ * cents. Appends for the current day write past the published size, so readers of
+ * the previous snapshot are unaffected; anything else copies the arrays. Removed facts are
+ * tombstoned in place and dropped on the next copy.
+ */
+@Service
+public class SalesCubeServiceImpl implements SalesCubeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesCubeServiceImpl.class);
+    // day, saleId, customerId, productId, categoryId, status, quantity, revenue, discount, cost
+    private static final int BYTES_PER_FACT = 4 + 8 + 8 + 8 + 8 + 1 + 4 + 8 + 8 + 8;
+    private static final byte REMOVED = -1;
+
+    private final SaleItemRepository saleItemRepository;
+    private final ProductRepository productRepository;
+    // Proxy, so rebuild() runs in its read-only transaction when called from here
+    private final ObjectProvider<SalesCubeService> salesCubeServiceProxy;
+    // A full load runs on its own thread rather than holding a report query thread throughout
+    private final ThreadPoolTaskExecutor loadExecutor;
+    private final boolean enabled;
+    private final long maxFacts;
+
+    private final Object writeLock = new Object();
+    // Null while disabled, loading or over the memory cap
+    private volatile Columns columns;
+    // Writes that arrive during a load, replayed onto the freshly loaded columns
+    private List<Runnable> pendingWrites;
+    private volatile String state = "NOT_LOADED";
+    private volatile long lastLoadMillis;
+    private final AtomicLong cubeQueries = new AtomicLong();
+    private final AtomicLong sqlFallbacks = new AtomicLong();
+
+    public SalesCubeServiceImpl(SaleItemRepository saleItemRepository,
+                                ProductRepository productRepository,
+                                ObjectProvider<SalesCubeService> salesCubeServiceProxy,
+                                @Value("${app.reports.cube.enabled:false}") boolean enabled,
+                                @Value("${app.reports.cube.max-memory-mb:256}") long maxMemoryMb) {
+        this.saleItemRepository = saleItemRepository;
+        this.productRepository = productRepository;
+        this.salesCubeServiceProxy = salesCubeServiceProxy;
+        this.enabled = enabled;
+        this.maxFacts = Math.min(maxMemoryMb * 1024 * 1024 / BYTES_PER_FACT, Integer.MAX_VALUE - 8);
+        if (!enabled) {
+            state = "DISABLED";
+        }
+
+        this.loadExecutor = new ThreadPoolTaskExecutor();
+        this.loadExecutor.setCorePoolSize(1);
+        this.loadExecutor.setMaxPoolSize(1);
+        this.loadExecutor.setThreadNamePrefix("sales-cube-load-");
+        this.loadExecutor.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        loadExecutor.shutdown();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (enabled) {
+            SalesCubeService cube = salesCubeServiceProxy.getObject();
+            // rebuild() logs its own failure; the cube stays unloaded and reports use SQL
+            loadExecutor.submitCompletable(cube::rebuild)
+                    .exceptionally(e -> null);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public int rebuild() {
+        if (!enabled) {
+            throw new BusinessException("Sales cube is disabled");
+        }
+        synchronized (writeLock) {
+            if (pendingWrites != null) {
+                throw new BusinessException("Sales cube is already loading");
+            }
+            pendingWrites = new ArrayList<>();
+        }
+        state = "LOADING";
+        long started = System.currentTimeMillis();
+
+        Columns loaded = null;
+        try {
+            long expected = saleItemRepository.count();
+            if (expected <= maxFacts) {
+                Columns arrays = new Columns((int) expected + 1024);
+                int size = 0;
+                try (Stream<Object[]> rows = saleItemRepository.streamCubeFacts()) {
+                    Iterator<Object[]> iterator = rows.iterator();
+                    while (iterator.hasNext() && size <= maxFacts) {
+                        if (size == arrays.capacity()) {
+                            arrays = arrays.grow(size);
+                        }
+                        arrays.set(size++, toFact(iterator.next()));
+                    }
+                }
+                if (size <= maxFacts) {
+                    loaded = new Columns(arrays, size, 0);
+                }
+            }
+        } catch (RuntimeException e) {
+            state = "FAILED";
+            logger.error("Failed to load the sales cube; reports will use SQL", e);
+            throw e;
+        } finally {
+            // Always cleared, or every later rebuild would report "already loading"
+            synchronized (writeLock) {
+                columns = loaded;
+                if (loaded != null) {
+                    pendingWrites.forEach(Runnable::run);
+                }
+                pendingWrites = null;
+            }
+            lastLoadMillis = System.currentTimeMillis() - started;
+        }
+
+        Columns current = columns;
+        if (current == null) {
+            state = "OVER_CAPACITY";
+            logger.warn("Sales cube exceeds its cap of {} facts; reports will use SQL", maxFacts);
+            return 0;
+        }
+        state = "READY";
+        logger.info("Loaded {} sale facts into the sales cube in {} ms", current.size, lastLoadMillis);
+        return current.size;
+    }
+
+    @Override
+    public void recordSale(Sale sale) {
+        if (!enabled || sale == null || sale.getId() == null || sale.getSaleDate() == null) {
+            return;
+        }
+        long saleId = sale.getId();
+        int day = toDay(sale.getSaleDate().toLocalDate());
+        // Facts are captured now, while the sale's associations are still loaded
+        List<Fact> facts = toFacts(sale, day);
+        afterCommit(() -> write(() -> replaceSale(saleId, day, facts)));
+    }
+
+    @Override
+    public void removeSale(Sale sale) {
+        if (!enabled || sale == null || sale.getId() == null || sale.getSaleDate() == null) {
+            return;
+        }
+        long saleId = sale.getId();
+        int day = toDay(sale.getSaleDate().toLocalDate());
+        afterCommit(() -> write(() -> replaceSale(saleId, day, Collections.emptyList())));
+    }
+
+    @Override
+    public Optional<Object[]> sumTotals(Sale.SaleStatus status, LocalDate startDate, LocalDate endDate) {
+        Columns c = snapshot();
+        if (c == null) {
+            return Optional.empty();
+        }
+        byte wanted = (byte) status.ordinal();
+        long revenue = 0, discount = 0, cost = 0, quantity = 0;
+        for (int i = c.lowerBound(toDay(startDate)), to = c.upperBound(toDay(endDate)); i < to; i++) {
+            if (c.status[i] == wanted) {
+                revenue += c.revenue[i];
+                discount += c.discount[i];
+                cost += c.cost[i];
+                quantity += c.quantity[i];
+            }
+        }
+        return Optional.of(new Object[]{MoneyAccumulator.toBigDecimal(revenue), MoneyAccumulator.toBigDecimal(discount), MoneyAccumulator.toBigDecimal(cost), quantity});
+    }
+
+    @Override
+    public Optional<List<Object[]>> sumByProduct(Sale.SaleStatus status, LocalDate startDate, LocalDate endDate,
+                                                 Long categoryId, Integer limit) {
+        Columns c = snapshot();
+        if (c == null) {
+            return Optional.empty();
+        }
+        byte wanted = (byte) status.ordinal();
+        // productId -> [quantity, revenue, cost]
+        Map<Long, long[]> totals = new HashMap<>();
+        for (int i = c.lowerBound(toDay(startDate)), to = c.upperBound(toDay(endDate)); i < to; i++) {
+            if (c.status[i] != wanted || (categoryId != null && c.categoryId[i] != categoryId)) {
+                continue;
+            }
+            long[] product = totals.computeIfAbsent(c.productId[i], id -> new long[3]);
+            product[0] += c.quantity[i];
+            product[1] += c.revenue[i];
+            product[2] += c.cost[i];
+        }
+
+        List<Map.Entry<Long, long[]>> ranked = new ArrayList<>(totals.entrySet());
+        ranked.sort((a, b) -> Long.compare(b.getValue()[1], a.getValue()[1]));
+        if (limit != null && ranked.size() > limit) {
+            ranked = ranked.subList(0, limit);
+        }
+
+        Map<Long, Object[]> names = new HashMap<>();
+        if (!ranked.isEmpty()) {
+            List<Long> productIds = new ArrayList<>();
+            ranked.forEach(entry -> productIds.add(entry.getKey()));
+            productRepository.findNamesByIdIn(productIds)
+                    .forEach(row -> names.put(((Number) row[0]).longValue(), row));
+        }
+
+        List<Object[]> rows = new ArrayList<>(ranked.size());
+        for (Map.Entry<Long, long[]> entry : ranked) {
+            Object[] name = names.get(entry.getKey());
+            rows.add(new Object[]{
+                    entry.getKey(),
+                    name != null ? name[1] : null,
+                    name != null ? name[2] : null,
+                    entry.getValue()[0],
+                    MoneyAccumulator.toBigDecimal(entry.getValue()[1]),
+                    MoneyAccumulator.toBigDecimal(entry.getValue()[2])
+            });
+        }
+        return Optional.of(rows);
+    }
+
+    @Override
+    public Optional<List<Object[]>> aggregateDailySales(LocalDate startDate, LocalDate endDate, Sale.SaleStatus status) {
+        Columns c = snapshot();
+        if (c == null) {
+            return Optional.empty();
+        }
+        List<Object[]> rows = new ArrayList<>();
+        int currentDay = 0;
+        long orders = 0, revenue = 0, cost = 0, previousSaleId = -1;
+        Set<Long> customers = new HashSet<>();
+        for (int i = c.lowerBound(toDay(startDate)), to = c.upperBound(toDay(endDate)); i < to; i++) {
+            if (!matches(c.status[i], status)) {
+                continue;
+            }
+            if (c.day[i] != currentDay && orders > 0) {
+                rows.add(new Object[]{LocalDate.ofEpochDay(currentDay), orders, (long) customers.size(),
+                        MoneyAccumulator.toBigDecimal(revenue), MoneyAccumulator.toBigDecimal(cost)});
+                orders = 0;
+                revenue = 0;
+                cost = 0;
+                previousSaleId = -1;
+                customers.clear();
+            }
+            currentDay = c.day[i];
+            // A sale's lines are always contiguous, so a change of sale id starts a new order
+            if (c.saleId[i] != previousSaleId) {
+                orders++;
+                previousSaleId = c.saleId[i];
+                // Walk-in sales carry customer id 0 and, as in SQL, are not counted as customers
+                if (c.customerId[i] != 0) {
+                    customers.add(c.customerId[i]);
+                }
+            }
+            revenue += c.revenue[i];
+            cost += c.cost[i];
+        }
+        if (orders > 0) {
+            rows.add(new Object[]{LocalDate.ofEpochDay(currentDay), orders, (long) customers.size(),
+                    MoneyAccumulator.toBigDecimal(revenue), MoneyAccumulator.toBigDecimal(cost)});
+        }
+        return Optional.of(rows);
+    }
+
+    @Override
+    public Optional<List<Object[]>> sumByTrendBucket(LocalDate startDate, LocalDate endDate, TrendPeriod period) {
+        Columns c = snapshot();
+        if (c == null) {
+            return Optional.empty();
+        }
+        byte completed = (byte) Sale.SaleStatus.COMPLETED.ordinal();
+        // bucketKey -> [revenue, saleCount]
+        Map<Long, long[]> buckets = new TreeMap<>();
+        int keyDay = Integer.MIN_VALUE;
+        long[] bucket = null;
+        long previousSaleId = -1;
+        for (int i = c.lowerBound(toDay(startDate)), to = c.upperBound(toDay(endDate)); i < to; i++) {
+            if (c.status[i] != completed) {
+                continue;
+            }
+            if (c.day[i] != keyDay) {
+                keyDay = c.day[i];
+                bucket = buckets.computeIfAbsent(TrendBuckets.key(LocalDate.ofEpochDay(keyDay), period), key -> new long[2]);
+            }
+            bucket[0] += c.revenue[i];
+            if (c.saleId[i] != previousSaleId) {
+                bucket[1]++;
+                previousSaleId = c.saleId[i];
+            }
+        }
+        List<Object[]> rows = new ArrayList<>(buckets.size());
+        buckets.forEach((key, values) -> rows.add(new Object[]{key, MoneyAccumulator.toBigDecimal(values[0]), values[1]}));
+        return Optional.of(rows);
+    }
+
+    @Override
+    public boolean isLoaded() {
+        return columns != null;
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        Columns c = columns;
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("state", state);
+        statistics.put("facts", c != null ? c.size - c.removedCount : 0);
+        statistics.put("tombstones", c != null ? c.removedCount : 0);
+        statistics.put("capacity", c != null ? c.capacity() : 0);
+        statistics.put("estimatedBytes", c != null ? (long) c.capacity() * BYTES_PER_FACT : 0L);
+        statistics.put("maxFacts", maxFacts);
+        statistics.put("lastLoadMillis", lastLoadMillis);
+        statistics.put("cubeQueries", cubeQueries.get());
+        statistics.put("sqlFallbacks", sqlFallbacks.get());
+        return statistics;
+    }
+
+    private Columns snapshot() {
+        Columns c = columns;
+        if (c == null) {
+            sqlFallbacks.incrementAndGet();
+        } else {
+            cubeQueries.incrementAndGet();
+        }
+        return c;
+    }
+
+    private static boolean matches(byte factStatus, Sale.SaleStatus wanted) {
+        return factStatus != REMOVED && (wanted == null || factStatus == wanted.ordinal());
+    }
+
+    // Cube writes must never see a sale whose transaction later rolls back
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void write(Runnable operation) {
+        synchronized (writeLock) {
+            if (pendingWrites != null) {
+                pendingWrites.add(operation);
+            }
+            operation.run();
+        }
+    }
+
+    // Replaces every fact of a sale; callers hold writeLock
+    private void replaceSale(long saleId, int day, List<Fact> facts) {
+        Columns current = columns;
+        if (current == null) {
+            return;
+        }
+        int from = current.lowerBound(day);
+        int to = current.upperBound(day);
+        int removed = 0;
+        for (int i = from; i < to; i++) {
+            if (current.saleId[i] == saleId && current.status[i] != REMOVED) {
+                current.status[i] = REMOVED;
+                removed++;
+            }
+        }
+
+        Columns next;
+        int removedCount = current.removedCount + removed;
+        if (facts.isEmpty() && removedCount <= current.size / 4) {
+            next = new Columns(current, current.size, removedCount);
+        } else if (to == current.size && current.size + facts.size() <= current.capacity()
+                && removedCount <= current.size / 4) {
+            // Same-day append: write beyond the published size, then publish the larger size
+            for (int i = 0; i < facts.size(); i++) {
+                current.set(current.size + i, facts.get(i));
+            }
+            next = new Columns(current, current.size + facts.size(), removedCount);
+        } else {
+            next = current.copyWithInsert(to, facts);
+        }
+
+        if (next.size > maxFacts) {
+            columns = null;
+            state = "OVER_CAPACITY";
+            logger.warn("Sales cube exceeds its cap of {} facts; reports will use SQL until it is rebuilt", maxFacts);
+            return;
+        }
+        columns = next;
+    }
+
+    private List<Fact> toFacts(Sale sale, int day) {
+        if (sale.getStatus() == null || sale.getItems() == null) {
+            return Collections.emptyList();
+        }
+        BigDecimal subtotal = sale.getSubtotal() != null ? sale.getSubtotal() : BigDecimal.ZERO;
+        BigDecimal saleDiscount = sale.getDiscountAmount() != null ? sale.getDiscountAmount() : BigDecimal.ZERO;
+        long customerId = sale.getCustomer() != null && sale.getCustomer().getId() != null ? sale.getCustomer().getId() : 0;
+
+        List<Fact> facts = new ArrayList<>(sale.getItems().size());
+        for (SaleItem item : sale.getItems()) {
+            BigDecimal lineTotal = item.getTotalPrice() != null ? item.getTotalPrice() : BigDecimal.ZERO;
+            BigDecimal lineDiscount = subtotal.signum() > 0
+                    ? saleDiscount.multiply(lineTotal).divide(subtotal, 2, RoundingMode.HALF_UP)
+                    : BigDecimal.ZERO;
+            facts.add(new Fact(day, sale.getId(), customerId, item.getProduct().getId(),
+                    DailySalesRollup.categoryAtSale(item),
+                    (byte) sale.getStatus().ordinal(), item.getQuantity(),
+                    MoneyAccumulator.toCents(lineTotal), MoneyAccumulator.toCents(lineDiscount), MoneyAccumulator.toCents(item.getCostAmount())));
+        }
+        return facts;
+    }
+
+    private static Fact toFact(Object[] row) {
+        return new Fact(toDay((LocalDate) row[0]),
+                ((Number) row[1]).longValue(),
+                row[2] != null ? ((Number) row[2]).longValue() : 0,
+                ((Number) row[3]).longValue(),
+                row[4] != null ? ((Number) row[4]).longValue() : 0,
+                (byte) ((Sale.SaleStatus) row[5]).ordinal(),
+                ((Number) row[6]).intValue(),
+                MoneyAccumulator.toCents(MoneyAccumulator.decimalOf(row[7])),
+                MoneyAccumulator.toCents(MoneyAccumulator.decimalOf(row[8])),
+                MoneyAccumulator.toCents(MoneyAccumulator.decimalOf(row[9])));
+    }
+
+    private static int toDay(LocalDate date) {
+        long epochDay = date.toEpochDay();
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, epochDay));
+    }
+
+    private static final class Fact {
+        private final int day;
+        private final long saleId;
+        private final long customerId;
+        private final long productId;
+        private final long categoryId;
+        private final byte status;
+        private final int quantity;
+        private final long revenue;
+        private final long discount;
+        private final long cost;
+
+        private Fact(int day, long saleId, long customerId, long productId, long categoryId,
+                     byte status, int quantity, long revenue, long discount, long cost) {
+            this.day = day;
+            this.saleId = saleId;
+            this.customerId = customerId;
+            this.productId = productId;
+            this.categoryId = categoryId;
+            this.status = status;
+            this.quantity = quantity;
+            this.revenue = revenue;
+            this.discount = discount;
+            this.cost = cost;
+        }
+    }
+
+    /**
+     * One published generation of the column arrays. Only rows below {@code size} are
+     * visible; arrays may be shared with later generations that appended past it.
+     */
+    private static final class Columns {
+        private final int size;
+        private final int removedCount;
+        private final int[] day;
+        private final long[] saleId;
+        private final long[] customerId;
+        private final long[] productId;
+        private final long[] categoryId;
+        private final byte[] status;
+        private final int[] quantity;
+        private final long[] revenue;
+        private final long[] discount;
+        private final long[] cost;
+
+        private Columns(int capacity) {
+            this.size = 0;
+            this.removedCount = 0;
+            this.day = new int[capacity];
+            this.saleId = new long[capacity];
+            this.customerId = new long[capacity];
+            this.productId = new long[capacity];
+            this.categoryId = new long[capacity];
+            this.status = new byte[capacity];
+            this.quantity = new int[capacity];
+            this.revenue = new long[capacity];
+            this.discount = new long[capacity];
+            this.cost = new long[capacity];
+        }
+
+        private Columns(Columns arrays, int size, int removedCount) {
+            this.size = size;
+            this.removedCount = removedCount;
+            this.day = arrays.day;
+            this.saleId = arrays.saleId;
+            this.customerId = arrays.customerId;
+            this.productId = arrays.productId;
+            this.categoryId = arrays.categoryId;
+            this.status = arrays.status;
+            this.quantity = arrays.quantity;
+            this.revenue = arrays.revenue;
+            this.discount = arrays.discount;
+            this.cost = arrays.cost;
+        }
+
+        private int capacity() {
+            return day.length;
+        }
+
+        private void set(int i, Fact fact) {
+            day[i] = fact.day;
+            saleId[i] = fact.saleId;
+            customerId[i] = fact.customerId;
+            productId[i] = fact.productId;
+            categoryId[i] = fact.categoryId;
+            status[i] = fact.status;
+            quantity[i] = fact.quantity;
+            revenue[i] = fact.revenue;
+            discount[i] = fact.discount;
+            cost[i] = fact.cost;
+        }
+
+        private void copyRow(int from, Columns target, int to) {
+            target.day[to] = day[from];
+            target.saleId[to] = saleId[from];
+            target.customerId[to] = customerId[from];
+            target.productId[to] = productId[from];
+            target.categoryId[to] = categoryId[from];
+            target.status[to] = status[from];
+            target.quantity[to] = quantity[from];
+            target.revenue[to] = revenue[from];
+            target.discount[to] = discount[from];
+            target.cost[to] = cost[from];
+        }
+
+        // Used only while loading, where rows arrive already sorted by day
+        private Columns grow(int size) {
+            Columns target = new Columns(capacity() + (capacity() >> 1) + 1);
+            System.arraycopy(day, 0, target.day, 0, size);
+            System.arraycopy(saleId, 0, target.saleId, 0, size);
+            System.arraycopy(customerId, 0, target.customerId, 0, size);
+            System.arraycopy(productId, 0, target.productId, 0, size);
+            System.arraycopy(categoryId, 0, target.categoryId, 0, size);
+            System.arraycopy(status, 0, target.status, 0, size);
+            System.arraycopy(quantity, 0, target.quantity, 0, size);
+            System.arraycopy(revenue, 0, target.revenue, 0, size);
+            System.arraycopy(discount, 0, target.discount, 0, size);
+            System.arraycopy(cost, 0, target.cost, 0, size);
+            return target;
+        }
+
+        // Fresh arrays with the facts inserted at a row position; tombstones are dropped
+        private Columns copyWithInsert(int position, List<Fact> facts) {
+            int live = size - removedCount + facts.size();
+            Columns target = new Columns(live + (live >> 1) + 16);
+            int next = 0;
+            for (int i = 0; i < position; i++) {
+                if (status[i] != REMOVED) {
+                    copyRow(i, target, next++);
+                }
+            }
+            for (Fact fact : facts) {
+                target.set(next++, fact);
+            }
+            for (int i = position; i < size; i++) {
+                if (status[i] != REMOVED) {
+                    copyRow(i, target, next++);
+                }
+            }
+            return new Columns(target, next, 0);
+        }
+
+        // First row whose day is at least the given day
+        private int lowerBound(int wantedDay) {
+            int low = 0, high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (day[mid] < wantedDay) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        // First row whose day is after the given day
+        private int upperBound(int wantedDay) {
+            int low = 0, high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (day[mid] <= wantedDay) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.inventoryManagementSystem.service.impl;
+
+import com.example.inventoryManagementSystem.event.ReportDataChangedEvent;
+import com.example.inventoryManagementSystem.model.DailySalesRollup;
+import com.example.inventoryManagementSystem.model.Product;
+import com.example.inventoryManagementSystem.model.Sale;
+import com.example.inventoryManagementSystem.model.SaleItem;
+import com.example.inventoryManagementSystem.repository.DailySalesRollupRepository;
+import com.example.inventoryManagementSystem.repository.SaleItemRepository;
+import com.example.inventoryManagementSystem.repository.SaleRepository;
+import com.example.inventoryManagementSystem.service.SalesRollupService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class SalesRollupServiceImpl implements SalesRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesRollupServiceImpl.class);
+
+    private final DailySalesRollupRepository rollupRepository;
+    private final SaleItemRepository saleItemRepository;
+    private final SaleRepository saleRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void recordSale(Sale sale) {
+        apply(sale, 1);
+    }
+
+    @Override
+    public void retractSale(Sale sale) {
+        apply(sale, -1);
+    }
+
+    @Override
+    public int rebuild(LocalDate startDate, LocalDate endDate) {
+        LocalDate effectiveStart = startDate;
+        if (effectiveStart == null) {
+            effectiveStart = saleRepository.findEarliestSaleDate()
+                    .map(date -> date.toLocalDate())
+                    .orElse(LocalDate.now());
+        }
+        LocalDate effectiveEnd = endDate != null ? endDate : LocalDate.now();
+
+        int written = 0;
+        // Month-sized chunks keep the persistence context and each grouped query small
+        for (LocalDate chunkStart = effectiveStart; !chunkStart.isAfter(effectiveEnd); ) {
+            LocalDate chunkEnd = chunkStart.withDayOfMonth(chunkStart.lengthOfMonth());
+            if (chunkEnd.isAfter(effectiveEnd)) {
+                chunkEnd = effectiveEnd;
+            }
+
+            rollupRepository.deleteBySaleDayBetween(chunkStart, chunkEnd);
+            List<Object[]> rows = saleItemRepository.aggregateForRollup(
+                    chunkStart.atStartOfDay(), chunkEnd.atTime(23, 59, 59));
+            for (Object[] row : rows) {
+                DailySalesRollup rollup = new DailySalesRollup();
+                rollup.setSaleDay((LocalDate) row[0]);
+                rollup.setProductId(((Number) row[1]).longValue());
+                rollup.setCategoryId(row[2] != null ? ((Number) row[2]).longValue() : DailySalesRollup.UNCATEGORIZED);
+                rollup.setStatus((Sale.SaleStatus) row[3]);
+                rollup.setQuantity(((Number) row[4]).longValue());
+                rollup.setLineCount(((Number) row[5]).longValue());
+                rollup.setRevenue(toMoney(row[6]));
+                rollup.setDiscountAmount(toMoney(row[7]));
+                rollup.setCost(toMoney(row[8]));
+                entityManager.persist(rollup);
+            }
+            written += rows.size();
+            entityManager.flush();
+            entityManager.clear();
+
+            chunkStart = chunkEnd.plusDays(1);
+        }
+
+        logger.info("Rebuilt daily sales rollup from {} to {}: {} rows", effectiveStart, effectiveEnd, written);
+        eventPublisher.publishEvent(new ReportDataChangedEvent(effectiveStart, effectiveEnd));
+        return written;
+    }
+
+    private void apply(Sale sale, int sign) {
+        if (sale == null || sale.getStatus() == null || sale.getSaleDate() == null
+                || sale.getItems() == null || sale.getItems().isEmpty()) {
+            return;
+        }
+
+        LocalDate saleDay = sale.getSaleDate().toLocalDate();
+        BigDecimal subtotal = sale.getSubtotal() != null ? sale.getSubtotal() : BigDecimal.ZERO;
+        BigDecimal saleDiscount = sale.getDiscountAmount() != null ? sale.getDiscountAmount() : BigDecimal.ZERO;
+
+        // Collapse lines of the same product so each rollup key is touched once
+        Map<Long, DailySalesRollup> deltas = new LinkedHashMap<>();
+        for (SaleItem item : sale.getItems()) {
+            Product product = item.getProduct();
+            BigDecimal lineTotal = item.getTotalPrice() != null ? item.getTotalPrice() : BigDecimal.ZERO;
+            BigDecimal lineDiscount = subtotal.signum() > 0
+                    ? saleDiscount.multiply(lineTotal).divide(subtotal, 2, RoundingMode.HALF_UP)
+                    : BigDecimal.ZERO;
+            BigDecimal lineCost = item.getCostAmount() != null ? item.getCostAmount() : BigDecimal.ZERO;
+
+            DailySalesRollup delta = deltas.computeIfAbsent(product.getId(), id -> {
+                DailySalesRollup r = new DailySalesRollup();
+                r.setSaleDay(saleDay);
+                r.setProductId(id);
+                r.setCategoryId(DailySalesRollup.categoryAtSale(item));
+                r.setStatus(sale.getStatus());
+                return r;
+            });
+            delta.setQuantity(delta.getQuantity() + (long) sign * item.getQuantity());
+            delta.setLineCount(delta.getLineCount() + sign);
+            delta.setRevenue(delta.getRevenue().add(signed(lineTotal, sign)));
+            delta.setDiscountAmount(delta.getDiscountAmount().add(signed(lineDiscount, sign)));
+            delta.setCost(delta.getCost().add(signed(lineCost, sign)));
+        }
+
+        for (DailySalesRollup delta : deltas.values()) {
+            rollupRepository.upsertDelta(delta.getSaleDay(), delta.getProductId(), delta.getCategoryId(),
+                    delta.getStatus().name(), delta.getQuantity(), delta.getLineCount(),
+                    delta.getRevenue(), delta.getDiscountAmount(), delta.getCost());
+        }
+    }
+
+    private static BigDecimal signed(BigDecimal value, int sign) {
+        return sign < 0 ? value.negate() : value;
+    }
+
+    private static BigDecimal toMoney(Object value) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        BigDecimal amount = value instanceof BigDecimal ? (BigDecimal) value : BigDecimal.valueOf(((Number) value).doubleValue());
+        return amount.setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.inventoryManagementSystem.service.impl;
+
+import com.example.inventoryManagementSystem.dto.response.SalesTrendResponse;
+import com.example.inventoryManagementSystem.repository.SaleRepository;
+import com.example.inventoryManagementSystem.service.ReportQueryPlanner;
+import com.example.inventoryManagementSystem.service.SalesTrendService;
+import com.example.inventoryManagementSystem.util.MoneyAccumulator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Buckets completed sales by day, week, month or year through the report planner and fills
+ * empty buckets in memory by walking the {@link TrendBuckets} key range.
+ */
+@Service
+@RequiredArgsConstructor
+public class SalesTrendServiceImpl implements SalesTrendService {
+    private final SaleRepository saleRepository;
+    private final ReportQueryPlanner reportQueryPlanner;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SalesTrendResponse> getSalesTrend(LocalDate startDate, LocalDate endDate, TrendPeriod period) {
+        LocalDate effectiveEndDate = endDate != null ? endDate : LocalDate.now();
+        LocalDate effectiveStartDate = startDate != null ? startDate : saleRepository.findEarliestSaleDate()
+                .map(date -> date.toLocalDate())
+                .orElse(effectiveEndDate);
+        if (effectiveStartDate.isAfter(effectiveEndDate)) {
+            return new ArrayList<>();
+        }
+
+        List<Object[]> rows = reportQueryPlanner.sumByTrendBucket(
+                reportQueryPlanner.planSaleDetail(effectiveStartDate, effectiveEndDate), period);
+
+        Map<Long, Object[]> byBucket = new HashMap<>();
+        for (Object[] row : rows) {
+            byBucket.put(((Number) row[0]).longValue(), row);
+        }
+
+        // Walk every bucket in the range so periods without sales are reported as zero
+        long lastBucket = TrendBuckets.key(effectiveEndDate, period);
+        List<SalesTrendResponse> trend = new ArrayList<>();
+        for (long key = TrendBuckets.key(effectiveStartDate, period); key <= lastBucket; key++) {
+            Object[] row = byBucket.get(key);
+            BigDecimal amount = row != null ? MoneyAccumulator.decimalOf(row[1]) : BigDecimal.ZERO;
+            long count = row != null ? ((Number) row[2]).longValue() : 0;
+            LocalDate bucketStart = TrendBuckets.start(key, period);
+
+            SalesTrendResponse response = SalesTrendResponse.builder()
+                    .periodLabel(TrendBuckets.label(bucketStart, period))
+                    .totalSales(amount)
+                    .periodStart(bucketStart)
+                    .periodEnd(TrendBuckets.end(bucketStart, period))
+                    .saleCount((int) count)
+                    .build();
+            response.setAmount(amount);
+            response.setSalesCount(count);
+            trend.add(response);
+        }
+        return trend;
+    }
+}
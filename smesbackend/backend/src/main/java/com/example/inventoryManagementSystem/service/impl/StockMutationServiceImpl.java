@@ -0,0 +1,91 @@
+package com.example.inventoryManagementSystem.service.impl;
+
+import com.example.inventoryManagementSystem.exception.InsufficientStockException;
+import com.example.inventoryManagementSystem.model.Product;
+import com.example.inventoryManagementSystem.service.StockMutationService;
+import com.example.inventoryManagementSystem.service.StockReservationService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class StockMutationServiceImpl implements StockMutationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockMutationServiceImpl.class);
+
+    // Increments pass Integer.MIN_VALUE as the floor, so only decrements can be refused
+    private static final String UPDATE_SQL = "UPDATE products " +
+            "SET quantity_in_stock = quantity_in_stock + ?, version = version + 1, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE id = ? AND quantity_in_stock >= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StockReservationService stockReservationService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void apply(List<StockChange> changes) {
+        List<StockChange> failed = tryApply(changes);
+        if (!failed.isEmpty()) {
+            // Thrown inside this transaction, so the changes that did apply are rolled back too
+            throw new InsufficientStockException(failed);
+        }
+    }
+
+    @Override
+    public List<StockChange> tryApply(List<StockChange> changes) {
+        if (changes.isEmpty()) {
+            return Collections.emptyList();
+        }
+        // Pending entity writes go first so they cannot overwrite the quantities set below
+        entityManager.flush();
+
+        int[] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, changes, changes.size(), (ps, change) -> {
+            ps.setInt(1, change.getDelta());
+            ps.setLong(2, change.getProductId());
+            ps.setInt(3, change.getDelta() < 0 ? -change.getDelta() : Integer.MIN_VALUE);
+        })[0];
+
+        List<StockChange> failed = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            StockChange change = changes.get(i);
+            if (counts[i] == 0) {
+                failed.add(change);
+            } else {
+                syncLoadedQuantity(change);
+                stockReservationService.stockChanged(change.getProductId(), change.getDelta());
+            }
+        }
+        if (!failed.isEmpty()) {
+            logger.debug("Stock changes refused: {}", failed);
+        }
+        return failed;
+    }
+
+    // Keeps a managed product's quantity in step with the row without making it dirty, so the
+    // next flush does not write the loaded quantity back. Its version stays as loaded, so an
+    // entity update to the same product later in this transaction fails as a conflict.
+    private void syncLoadedQuantity(StockChange change) {
+        Product product = change.getProduct();
+        if (product == null || !entityManager.contains(product)) {
+            return;
+        }
+        Session session = entityManager.unwrap(Session.class);
+        session.setReadOnly(product, true);
+        product.setQuantityInStock(product.getQuantityInStock() + change.getDelta());
+        session.setReadOnly(product, false);
+    }
+}
@@ -0,0 +1,347 @@
+package com.example.inventoryManagementSystem.service.impl;
+
+import com.example.inventoryManagementSystem.repository.ProductRepository;
+import com.example.inventoryManagementSystem.service.StockReservationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Products are spread over a fixed set of stripes, each guarded by its own lock, so carts
+ * touching different products do not contend. A multi-product reservation locks its
+ * stripes in index order to stay deadlock free. Each product entry caches its on-hand
+ * quantity, kept current by committed stock changes and reloaded in one query once it is
+ * older than stock-refresh-seconds, which also bounds any drift from missed updates.
+ */
+@Service
+public class StockReservationServiceImpl implements StockReservationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockReservationServiceImpl.class);
+    private static final int STRIPES = 64;
+
+    private final ProductRepository productRepository;
+    private final long ttlMillis;
+    private final long stockRefreshMillis;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    private final AtomicLong holdsExpired = new AtomicLong();
+    private final AtomicLong reservationsRefused = new AtomicLong();
+    private final AtomicLong stockLoads = new AtomicLong();
+
+    public StockReservationServiceImpl(ProductRepository productRepository,
+                                       @Value("${app.cart.reservation.ttl-minutes:15}") long ttlMinutes,
+                                       @Value("${app.cart.reservation.stock-refresh-seconds:30}") long stockRefreshSeconds) {
+        this.productRepository = productRepository;
+        this.ttlMillis = TimeUnit.MINUTES.toMillis(Math.max(ttlMinutes, 1));
+        this.stockRefreshMillis = TimeUnit.SECONDS.toMillis(Math.max(stockRefreshSeconds, 1));
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    @Override
+    public Map<Long, Integer> reserve(String holder, Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        long now = System.currentTimeMillis();
+        loadStaleStock(quantities.keySet(), now);
+
+        List<Stripe> locked = lockStripes(quantities.keySet());
+        try {
+            Map<Long, Integer> shortfalls = new HashMap<>();
+            for (Map.Entry<Long, Integer> requested : quantities.entrySet()) {
+                ProductEntry entry = stripeFor(requested.getKey()).products.get(requested.getKey());
+                int available = entry != null ? entry.availableTo(holder, now) : 0;
+                if (requested.getValue() > available) {
+                    shortfalls.put(requested.getKey(), available);
+                }
+            }
+            if (!shortfalls.isEmpty()) {
+                reservationsRefused.incrementAndGet();
+                return shortfalls;
+            }
+
+            for (Map.Entry<Long, Integer> requested : quantities.entrySet()) {
+                ProductEntry entry = stripeFor(requested.getKey()).products.get(requested.getKey());
+                if (requested.getValue() > 0) {
+                    entry.holds.put(holder, new Hold(requested.getValue(), now + ttlMillis));
+                } else if (entry != null) {
+                    // A zero quantity passes the check even for an unknown or swept product
+                    entry.holds.remove(holder);
+                }
+            }
+            return Collections.emptyMap();
+        } finally {
+            unlock(locked);
+        }
+    }
+
+    @Override
+    public void release(String holder, Long productId) {
+        Stripe stripe = stripeFor(productId);
+        stripe.lock.lock();
+        try {
+            ProductEntry entry = stripe.products.get(productId);
+            if (entry != null) {
+                entry.holds.remove(holder);
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    @Override
+    public void releaseAll(String holder) {
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                for (ProductEntry entry : stripe.products.values()) {
+                    entry.holds.remove(holder);
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public Map<Long, Integer> getAvailable(String holder, Collection<Long> productIds) {
+        long now = System.currentTimeMillis();
+        loadStaleStock(productIds, now);
+
+        Map<Long, Integer> available = new HashMap<>();
+        for (Long productId : productIds) {
+            Stripe stripe = stripeFor(productId);
+            stripe.lock.lock();
+            try {
+                ProductEntry entry = stripe.products.get(productId);
+                available.put(productId, entry != null ? entry.availableTo(holder, now) : 0);
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return available;
+    }
+
+    @Override
+    public void stockChanged(Long productId, int delta) {
+        afterCommit(() -> {
+            Stripe stripe = stripeFor(productId);
+            stripe.lock.lock();
+            try {
+                ProductEntry entry = stripe.products.get(productId);
+                if (entry != null && entry.loadedAt >= 0) {
+                    entry.onHand += delta;
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        });
+    }
+
+    @Override
+    public void evict(Long productId) {
+        afterCommit(() -> {
+            Stripe stripe = stripeFor(productId);
+            stripe.lock.lock();
+            try {
+                ProductEntry entry = stripe.products.get(productId);
+                if (entry != null) {
+                    entry.loadedAt = -1;
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        });
+    }
+
+    // Drops expired holds and forgets products nobody holds once their stock would be reloaded anyway
+    @Scheduled(fixedDelayString = "${app.cart.reservation.sweep-interval-ms:60000}")
+    public void sweepExpiredHolds() {
+        long now = System.currentTimeMillis();
+        int forgotten = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                Iterator<ProductEntry> entries = stripe.products.values().iterator();
+                while (entries.hasNext()) {
+                    ProductEntry entry = entries.next();
+                    entry.pruneExpired(now);
+                    if (entry.holds.isEmpty() && now - entry.loadedAt >= stockRefreshMillis) {
+                        entries.remove();
+                        forgotten++;
+                    }
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        if (forgotten > 0) {
+            logger.debug("Stock reservation sweep forgot {} idle products", forgotten);
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        long now = System.currentTimeMillis();
+        int products = 0;
+        int holds = 0;
+        long unitsHeld = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                products += stripe.products.size();
+                for (ProductEntry entry : stripe.products.values()) {
+                    entry.pruneExpired(now);
+                    holds += entry.holds.size();
+                    for (Hold hold : entry.holds.values()) {
+                        unitsHeld += hold.quantity;
+                    }
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("products", products);
+        statistics.put("holds", holds);
+        statistics.put("unitsHeld", unitsHeld);
+        statistics.put("holdsExpired", holdsExpired.get());
+        statistics.put("reservationsRefused", reservationsRefused.get());
+        statistics.put("stockLoads", stockLoads.get());
+        return statistics;
+    }
+
+    // One query for every product whose cached stock is missing or older than the refresh interval
+    private void loadStaleStock(Collection<Long> productIds, long now) {
+        List<Long> stale = new ArrayList<>();
+        for (Long productId : productIds) {
+            Stripe stripe = stripeFor(productId);
+            stripe.lock.lock();
+            try {
+                ProductEntry entry = stripe.products.get(productId);
+                if (entry == null || entry.loadedAt < 0 || now - entry.loadedAt >= stockRefreshMillis) {
+                    stale.add(productId);
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        if (stale.isEmpty()) {
+            return;
+        }
+
+        stockLoads.incrementAndGet();
+        Map<Long, Integer> onHand = new HashMap<>();
+        for (Object[] row : productRepository.findStockByIdIn(stale)) {
+            onHand.put(((Number) row[0]).longValue(), ((Number) row[1]).intValue());
+        }
+        for (Long productId : stale) {
+            Stripe stripe = stripeFor(productId);
+            stripe.lock.lock();
+            try {
+                ProductEntry entry = stripe.products.computeIfAbsent(productId, id -> new ProductEntry());
+                // Unknown products read as out of stock
+                entry.onHand = onHand.getOrDefault(productId, 0);
+                entry.loadedAt = now;
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    private List<Stripe> lockStripes(Collection<Long> productIds) {
+        SortedSet<Integer> indexes = new TreeSet<>();
+        for (Long productId : productIds) {
+            indexes.add(stripeIndex(productId));
+        }
+        List<Stripe> locked = new ArrayList<>(indexes.size());
+        for (int index : indexes) {
+            stripes[index].lock.lock();
+            locked.add(stripes[index]);
+        }
+        return locked;
+    }
+
+    private static void unlock(List<Stripe> locked) {
+        for (int i = locked.size() - 1; i >= 0; i--) {
+            locked.get(i).lock.unlock();
+        }
+    }
+
+    private Stripe stripeFor(Long productId) {
+        return stripes[stripeIndex(productId)];
+    }
+
+    private static int stripeIndex(Long productId) {
+        return Math.floorMod(Long.hashCode(productId) * 0x9E3779B9, STRIPES);
+    }
+
+    // Uncommitted stock must not show up in availability, and a rollback must not either
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<Long, ProductEntry> products = new HashMap<>();
+    }
+
+    private final class ProductEntry {
+        private int onHand;
+        // -1 until loaded, and again after an eviction
+        private long loadedAt = -1;
+        private final Map<String, Hold> holds = new HashMap<>();
+
+        private int availableTo(String holder, long now) {
+            pruneExpired(now);
+            int heldByOthers = 0;
+            for (Map.Entry<String, Hold> hold : holds.entrySet()) {
+                if (!hold.getKey().equals(holder)) {
+                    heldByOthers += hold.getValue().quantity;
+                }
+            }
+            return Math.max(onHand - heldByOthers, 0);
+        }
+
+        private void pruneExpired(long now) {
+            Iterator<Hold> iterator = holds.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().expiresAt <= now) {
+                    iterator.remove();
+                    holdsExpired.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    private static final class Hold {
+        private final int quantity;
+        private final long expiresAt;
+
+        private Hold(int quantity, long expiresAt) {
+            this.quantity = quantity;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.inventoryManagementSystem.service.impl;
+
+import com.example.inventoryManagementSystem.service.SalesTrendService.TrendPeriod;
+
+import java.time.LocalDate;
+import java.time.temporal.IsoFields;
+
+/**
+ * Numeric bucket keys for day, week, month and year periods. The JPQL expression and the
+ * Java key function agree for every date, so grouped query results can be matched to
+ * calendar periods without formatting or parsing labels. Only standard EXTRACT/FLOOR
+ * arithmetic is used, which Hibernate renders for both PostgreSQL and H2.
+ */
+final class TrendBuckets {
+    private static final long SECONDS_PER_DAY = 86_400;
+    // 1970-01-01 was a Thursday; shifting by three days makes ISO weeks start on Monday
+    private static final long EPOCH_WEEK_OFFSET_DAYS = 3;
+
+    private TrendBuckets() {
+    }
+
+    static String expression(TrendPeriod period, String path) {
+        switch (period) {
+            case WEEK:
+                return "FLOOR((EXTRACT(EPOCH FROM " + path + ") / " + SECONDS_PER_DAY + " + "
+                        + EPOCH_WEEK_OFFSET_DAYS + ") / 7)";
+            case MONTH:
+                return "(EXTRACT(YEAR FROM " + path + ") * 12 + EXTRACT(MONTH FROM " + path + ") - 1)";
+            case YEAR:
+                return "EXTRACT(YEAR FROM " + path + ")";
+            default:
+                return "FLOOR(EXTRACT(EPOCH FROM " + path + ") / " + SECONDS_PER_DAY + ")";
+        }
+    }
+
+    static long key(LocalDate date, TrendPeriod period) {
+        switch (period) {
+            case WEEK:
+                return Math.floorDiv(date.toEpochDay() + EPOCH_WEEK_OFFSET_DAYS, 7);
+            case MONTH:
+                return date.getYear() * 12L + date.getMonthValue() - 1;
+            case YEAR:
+                return date.getYear();
+            default:
+                return date.toEpochDay();
+        }
+    }
+
+    static LocalDate start(long key, TrendPeriod period) {
+        switch (period) {
+            case WEEK:
+                return LocalDate.ofEpochDay(key * 7 - EPOCH_WEEK_OFFSET_DAYS);
+            case MONTH:
+                return LocalDate.of((int) Math.floorDiv(key, 12), (int) Math.floorMod(key, 12) + 1, 1);
+            case YEAR:
+                return LocalDate.of((int) key, 1, 1);
+            default:
+                return LocalDate.ofEpochDay(key);
+        }
+    }
+
+    static LocalDate end(LocalDate start, TrendPeriod period) {
+        switch (period) {
+            case WEEK:
+                return start.plusDays(6);
+            case MONTH:
+                return start.plusMonths(1).minusDays(1);
+            case YEAR:
+                return start.plusYears(1).minusDays(1);
+            default:
+                return start;
+        }
+    }
+
+    static String label(LocalDate start, TrendPeriod period) {
+        switch (period) {
+            case WEEK:
+                return String.format("%d-W%02d", start.get(IsoFields.WEEK_BASED_YEAR),
+                        start.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+            case MONTH:
+                return String.format("%d-%02d", start.getYear(), start.getMonthValue());
+            case YEAR:
+                return String.valueOf(start.getYear());
+            default:
+                return start.toString();
+        }
+    }
+}
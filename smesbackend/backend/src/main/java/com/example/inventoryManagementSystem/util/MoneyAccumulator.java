@@ -0,0 +1,94 @@
+package com.example.inventoryManagementSystem.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.function.Function;
+import java.util.stream.Collector;
+
+/**
+ * Running money total held as a {@code long} count of cents. Every money column is stored
+ * with two decimals, so amounts are rounded half-up to cents on the way in and summed
+ * without further rounding. Arithmetic throws {@link ArithmeticException} on overflow
+ * rather than wrapping. Instances are not thread-safe.
+ */
+public final class MoneyAccumulator {
+
+    public static final int SCALE = 2;
+
+    private long cents;
+
+    public MoneyAccumulator add(BigDecimal amount) {
+        if (amount != null) {
+            cents = Math.addExact(cents, toCents(amount));
+        }
+        return this;
+    }
+
+    public MoneyAccumulator subtract(BigDecimal amount) {
+        if (amount != null) {
+            cents = Math.subtractExact(cents, toCents(amount));
+        }
+        return this;
+    }
+
+    // Adds unitPrice * quantity, the line total of an item
+    public MoneyAccumulator addLine(BigDecimal unitPrice, long quantity) {
+        if (unitPrice == null) {
+            return this;
+        }
+        long line = unitPrice.scale() <= SCALE
+                ? Math.multiplyExact(toCents(unitPrice), quantity)
+                : toCents(unitPrice.multiply(BigDecimal.valueOf(quantity)));
+        cents = Math.addExact(cents, line);
+        return this;
+    }
+
+    public MoneyAccumulator addCents(long amount) {
+        cents = Math.addExact(cents, amount);
+        return this;
+    }
+
+    public MoneyAccumulator add(MoneyAccumulator other) {
+        return addCents(other.cents);
+    }
+
+    public long cents() {
+        return cents;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return toBigDecimal(cents);
+    }
+
+    public static long toCents(BigDecimal amount) {
+        if (amount == null) {
+            return 0;
+        }
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).movePointRight(SCALE).longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    // Numeric column values from native queries; the text form keeps the exact digits, where
+    // going through double would not. Null counts as zero
+    public static BigDecimal decimalOf(Object value) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        }
+        return new BigDecimal(value.toString());
+    }
+
+    // Stream counterpart of reduce(BigDecimal.ZERO, BigDecimal::add); null amounts count as zero
+    public static <T> Collector<T, MoneyAccumulator, BigDecimal> summing(Function<? super T, BigDecimal> mapper) {
+        return Collector.of(
+                MoneyAccumulator::new,
+                (accumulator, element) -> accumulator.add(mapper.apply(element)),
+                MoneyAccumulator::add,
+                MoneyAccumulator::toBigDecimal);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.inventoryManagementSystem;
+
+import com.example.inventoryManagementSystem.model.Customer;
+import com.example.inventoryManagementSystem.model.Product;
+import com.example.inventoryManagementSystem.model.Sale;
+import com.example.inventoryManagementSystem.model.SaleItem;
+import com.example.inventoryManagementSystem.repository.CustomerRepository;
+import com.example.inventoryManagementSystem.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Inserts one sale with many lines with and without JDBC batching and compares the statements
+// sent. Needs a database with at least one customer and product; every run is rolled back.
+// Run with: mvn test -Dtest=SaleInsertBatchingBenchmark -Dbenchmark=true
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SaleInsertBatchingBenchmark {
+
+	private static final int LINES = 500;
+	private static final int ROUNDS = 5;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Test
+	void batchedInsertsUseFewerStatements() {
+		List<Customer> customers = customerRepository.findAll(PageRequest.of(0, 1)).getContent();
+		List<Product> products = productRepository.findAll(PageRequest.of(0, 1)).getContent();
+		assumeTrue(!customers.isEmpty() && !products.isEmpty(), "needs a customer and a product to sell");
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		// Warm-up, so pool and statement setup are not charged to either side
+		insertSale(customers.get(0).getId(), products.get(0).getId(), null);
+		insertSale(customers.get(0).getId(), products.get(0).getId(), 1);
+
+		long[] unbatched = measure(statistics, customers.get(0).getId(), products.get(0).getId(), 1);
+		long[] batched = measure(statistics, customers.get(0).getId(), products.get(0).getId(), null);
+
+		System.out.printf("%d sales x %d lines%n", ROUNDS, LINES);
+		System.out.printf("  one row per statement: %6d statements, %6d ms%n", unbatched[0], unbatched[1]);
+		System.out.printf("  JDBC batching:         %6d statements, %6d ms%n", batched[0], batched[1]);
+
+		assertTrue(batched[0] * 10 < unbatched[0],
+				"batched inserts should need a small fraction of the statements");
+	}
+
+	// Returns [statements prepared, elapsed millis] over all rounds
+	private long[] measure(Statistics statistics, Long customerId, Long productId, Integer batchSize) {
+		statistics.clear();
+		long start = System.nanoTime();
+		for (int round = 0; round < ROUNDS; round++) {
+			insertSale(customerId, productId, batchSize);
+		}
+		long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+		return new long[]{statistics.getPrepareStatementCount(), elapsedMs};
+	}
+
+	// A null batch size keeps the configured hibernate.jdbc.batch_size
+	private void insertSale(Long customerId, Long productId, Integer batchSize) {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			if (batchSize != null) {
+				entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+			}
+			Sale sale = new Sale();
+			sale.setCustomer(entityManager.getReference(Customer.class, customerId));
+			sale.setSaleDate(LocalDateTime.now());
+			sale.setStatus(Sale.SaleStatus.COMPLETED);
+			Product product = entityManager.getReference(Product.class, productId);
+			for (int i = 0; i < LINES; i++) {
+				SaleItem item = new SaleItem();
+				item.setProduct(product);
+				item.setQuantity(1);
+				item.setUnitPrice(BigDecimal.ONE);
+				item.setTotalPrice(BigDecimal.ONE);
+				item.setUnitCost(BigDecimal.ZERO);
+				item.setCostAmount(BigDecimal.ZERO);
+				item.setSale(sale);
+				sale.getItems().add(item);
+			}
+			sale.calculateTotals();
+			entityManager.persist(sale);
+			entityManager.flush();
+			status.setRollbackOnly();
+		});
+	}
+}
@@ -0,0 +1,123 @@
+package com.example.inventoryManagementSystem.config;
+
+import com.example.inventoryManagementSystem.exception.IdempotencyConflictException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyStoreTest {
+
+	private final IdempotencyStore store = new IdempotencyStore(new ObjectMapper(), 100, 60, 5);
+	private final AtomicInteger runs = new AtomicInteger();
+
+	@Test
+	void retryWithTheSameKeyReplaysTheStoredResponse() {
+		ResponseEntity<String> first = store.execute("sale.create", "alice", "key-1", body(10), this::created);
+		ResponseEntity<String> retry = store.execute("sale.create", "alice", "key-1", body(10), this::created);
+
+		assertThat(runs).hasValue(1);
+		assertThat(first.getHeaders().containsKey(IdempotencyStore.REPLAYED_HEADER)).isFalse();
+		assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+		assertThat(retry.getBody()).isEqualTo("sale-1");
+		assertThat(retry.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER)).isEqualTo("true");
+	}
+
+	@Test
+	void keyReusedWithADifferentBodyIsRejected() {
+		store.execute("sale.create", "alice", "key-1", body(10), this::created);
+
+		assertThatThrownBy(() -> store.execute("sale.create", "alice", "key-1", body(11), this::created))
+				.isInstanceOf(IdempotencyConflictException.class);
+		assertThat(runs).hasValue(1);
+	}
+
+	@Test
+	void keysAreScopedPerUser() {
+		store.execute("sale.create", "alice", "key-1", body(10), this::created);
+		ResponseEntity<String> other = store.execute("sale.create", "bob", "key-1", body(10), this::created);
+
+		assertThat(runs).hasValue(2);
+		assertThat(other.getHeaders().containsKey(IdempotencyStore.REPLAYED_HEADER)).isFalse();
+	}
+
+	@Test
+	void failedRequestCanBeRetriedUnderTheSameKey() {
+		ResponseEntity<String> rejected = store.execute("sale.create", "alice", "key-1", body(10),
+				() -> ResponseEntity.badRequest().body("rejected"));
+		ResponseEntity<String> retry = store.execute("sale.create", "alice", "key-1", body(10), this::created);
+
+		assertThat(rejected.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+		assertThat(retry.getBody()).isEqualTo("sale-1");
+	}
+
+	@Test
+	void duplicateArrivingWhileTheFirstRunsWaitsForItsResult() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Supplier<ResponseEntity<String>> slow = () -> {
+			started.countDown();
+			awaitQuietly(release);
+			return created();
+		};
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<ResponseEntity<String>> first = executor.submit(
+					() -> store.execute("sale.create", "alice", "key-1", body(10), slow));
+			assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+			Future<ResponseEntity<String>> duplicate = executor.submit(
+					() -> store.execute("sale.create", "alice", "key-1", body(10), slow));
+			// A different body under the same key is refused straight away, without waiting
+			assertThatThrownBy(() -> store.execute("sale.create", "alice", "key-1", body(11), slow))
+					.isInstanceOf(IdempotencyConflictException.class);
+			awaitWaiters(1);
+			release.countDown();
+
+			assertThat(first.get(5, TimeUnit.SECONDS).getBody()).isEqualTo("sale-1");
+			ResponseEntity<String> replayed = duplicate.get(5, TimeUnit.SECONDS);
+			assertThat(replayed.getBody()).isEqualTo("sale-1");
+			assertThat(replayed.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER)).isEqualTo("true");
+			assertThat(runs).hasValue(1);
+		} finally {
+			release.countDown();
+			executor.shutdownNow();
+		}
+	}
+
+	private ResponseEntity<String> created() {
+		return ResponseEntity.status(HttpStatus.CREATED).body("sale-" + runs.incrementAndGet());
+	}
+
+	private static Map<String, Object> body(int quantity) {
+		return Map.of("productId", 1, "quantity", quantity);
+	}
+
+	private void awaitWaiters(long expected) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (store.getStatistics().get("waits") < expected) {
+			assertThat(System.currentTimeMillis()).as("duplicate started waiting").isLessThan(deadline);
+			Thread.sleep(10);
+		}
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,96 @@
+package com.example.inventoryManagementSystem.repository;
+
+import com.example.inventoryManagementSystem.model.Customer;
+import com.example.inventoryManagementSystem.model.Sale;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs the keyset page query against the in-memory database of the test profile
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class SaleRepositoryPageTest {
+
+	private static final LocalDateTime SALE_DATE = LocalDateTime.of(2001, 2, 3, 4, 5, 6);
+
+	@Autowired
+	private SaleRepository saleRepository;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	private Customer customer;
+
+	@BeforeEach
+	void setUp() {
+		customer = new Customer();
+		customer.setName("Page test customer");
+		customer = customerRepository.saveAndFlush(customer);
+	}
+
+	@Test
+	void keysetWalksSalesSharingASaleDateWithoutSkippingOrRepeating() {
+		List<Long> expected = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			expected.add(saveSale(SALE_DATE).getId());
+		}
+		// Newest first, so the tied sales come before an older one
+		expected.sort(Comparator.reverseOrder());
+		expected.add(saveSale(SALE_DATE.minusSeconds(1)).getId());
+
+		List<Long> seen = new ArrayList<>();
+		LocalDateTime afterDate = null;
+		Long afterId = null;
+		for (int page = 0; page < 10; page++) {
+			List<Object[]> rows = saleRepository.findSalePage(null, null, null, customer.getId(), null,
+					afterDate, afterId, PageRequest.of(0, 2));
+			if (rows.isEmpty()) {
+				break;
+			}
+			rows.forEach(row -> seen.add(((Number) row[0]).longValue()));
+			Object[] last = rows.get(rows.size() - 1);
+			afterDate = (LocalDateTime) last[1];
+			afterId = ((Number) last[0]).longValue();
+		}
+
+		assertThat(seen).containsExactlyElementsOf(expected);
+	}
+
+	@Test
+	void rowsCarryTheListColumns() {
+		Sale sale = saveSale(SALE_DATE);
+
+		List<Object[]> rows = saleRepository.findSalePage(null, null, Sale.SaleStatus.COMPLETED, customer.getId(),
+				null, null, null, PageRequest.of(0, 10));
+
+		assertThat(rows).hasSize(1);
+		Object[] row = rows.get(0);
+		assertThat(((Number) row[0]).longValue()).isEqualTo(sale.getId());
+		assertThat(row[1]).isEqualTo(SALE_DATE);
+		assertThat(((Number) row[2]).longValue()).isEqualTo(customer.getId());
+		assertThat(row[3]).isEqualTo("Page test customer");
+		assertThat(row[5]).isEqualTo(Sale.SaleStatus.COMPLETED);
+		assertThat(((Number) row[6]).longValue()).isZero();
+	}
+
+	private Sale saveSale(LocalDateTime saleDate) {
+		Sale sale = new Sale();
+		sale.setCustomer(customer);
+		sale.setSaleDate(saleDate);
+		sale.setStatus(Sale.SaleStatus.COMPLETED);
+		sale.calculateTotals();
+		return saleRepository.saveAndFlush(sale);
+	}
+}
@@ -0,0 +1,69 @@
+package com.example.inventoryManagementSystem.service.impl;
+
+import com.example.inventoryManagementSystem.dto.response.SaleListItemResponse;
+import com.example.inventoryManagementSystem.dto.response.SalePageResponse;
+import com.example.inventoryManagementSystem.exception.BusinessException;
+import com.example.inventoryManagementSystem.model.Sale;
+import com.example.inventoryManagementSystem.repository.SaleRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SaleServiceImplPageTest {
+
+	private static final LocalDateTime SALE_DATE = LocalDateTime.of(2024, 3, 5, 14, 30, 15, 123_456_000);
+
+	@Mock
+	private SaleRepository saleRepository;
+
+	@InjectMocks
+	private SaleServiceImpl saleService;
+
+	@Test
+	void cursorResumesAfterTheLastSaleAmongThoseSharingItsDate() {
+		when(saleRepository.findSalePage(isNull(), isNull(), isNull(), isNull(), isNull(),
+				isNull(), isNull(), eq(PageRequest.of(0, 3))))
+				.thenReturn(List.of(row(30L), row(20L), row(10L)));
+		when(saleRepository.findSalePage(isNull(), isNull(), isNull(), isNull(), isNull(),
+				eq(SALE_DATE), eq(20L), eq(PageRequest.of(0, 3))))
+				.thenReturn(List.<Object[]>of(row(10L)));
+
+		SalePageResponse first = saleService.getSalesPage(null, null, null, null, null, null, 2);
+		assertThat(first.getSales()).extracting(SaleListItemResponse::getId).containsExactly(30L, 20L);
+		assertThat(first.isHasMore()).isTrue();
+		assertThat(first.getNextCursor()).isNotNull();
+
+		// The cursor carries the last row's date and id, so the tied sale 10 comes next
+		SalePageResponse second = saleService.getSalesPage(null, null, null, null, null, first.getNextCursor(), 2);
+		assertThat(second.getSales()).extracting(SaleListItemResponse::getId).containsExactly(10L);
+		assertThat(second.isHasMore()).isFalse();
+		assertThat(second.getNextCursor()).isNull();
+	}
+
+	@Test
+	void malformedCursorIsRejected() {
+		assertThatThrownBy(() -> saleService.getSalesPage(null, null, null, null, null, "not-a-cursor", 2))
+				.isInstanceOf(BusinessException.class)
+				.hasMessage("Invalid cursor");
+	}
+
+	// [id, saleDate, customerId, customerName, cashier, status, itemCount, subtotal, discountAmount, total, profit]
+	private static Object[] row(long id) {
+		return new Object[]{id, SALE_DATE, 1L, "Walk-in", "cashier", Sale.SaleStatus.COMPLETED, 2L,
+				BigDecimal.TEN, BigDecimal.ZERO, BigDecimal.TEN, BigDecimal.ONE};
+	}
+}
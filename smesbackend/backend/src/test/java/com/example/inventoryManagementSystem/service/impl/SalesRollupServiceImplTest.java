@@ -0,0 +1,100 @@
+package com.example.inventoryManagementSystem.service.impl;
+
+import com.example.inventoryManagementSystem.model.Category;
+import com.example.inventoryManagementSystem.model.DailySalesRollup;
+import com.example.inventoryManagementSystem.model.Product;
+import com.example.inventoryManagementSystem.model.Sale;
+import com.example.inventoryManagementSystem.model.SaleItem;
+import com.example.inventoryManagementSystem.repository.DailySalesRollupRepository;
+import com.example.inventoryManagementSystem.repository.SaleItemRepository;
+import com.example.inventoryManagementSystem.repository.SaleRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class SalesRollupServiceImplTest {
+
+	private static final LocalDateTime SALE_DATE = LocalDateTime.of(2024, 3, 5, 14, 30);
+
+	@Mock
+	private DailySalesRollupRepository rollupRepository;
+
+	@Mock
+	private SaleItemRepository saleItemRepository;
+
+	@Mock
+	private SaleRepository saleRepository;
+
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
+	@InjectMocks
+	private SalesRollupServiceImpl salesRollupService;
+
+	@Test
+	void productWithoutCategoryIsRecordedUnderTheUncategorisedKey() {
+		Product product = Product.builder().id(7L).build();
+		Sale sale = sale(line(product, 1, "10.00", "4.00"), line(product, 2, "20.00", "8.00"));
+
+		salesRollupService.recordSale(sale);
+
+		// Both lines collapse into one delta, keyed by 0 rather than NULL
+		verify(rollupRepository).upsertDelta(eq(LocalDate.of(2024, 3, 5)), eq(7L),
+				eq(DailySalesRollup.UNCATEGORIZED), eq("COMPLETED"), eq(3L), eq(2L),
+				eq(new BigDecimal("30.00")), eq(new BigDecimal("0.00")), eq(new BigDecimal("12.00")));
+		verifyNoMoreInteractions(rollupRepository);
+	}
+
+	@Test
+	void retractionSubtractsUnderTheCategoryTheSaleWasRecordedUnder() {
+		Category current = new Category();
+		current.setId(5L);
+		Product product = Product.builder().id(7L).category(current).build();
+		// Sold while the product was in category 3, since moved to 5
+		SaleItem item = line(product, 2, "20.00", "8.00");
+		item.setCategoryId(3L);
+		Sale sale = sale(item);
+
+		salesRollupService.retractSale(sale);
+
+		verify(rollupRepository).upsertDelta(eq(LocalDate.of(2024, 3, 5)), eq(7L), eq(3L), eq("COMPLETED"),
+				eq(-2L), eq(-1L), eq(new BigDecimal("-20.00")), eq(new BigDecimal("0.00")),
+				eq(new BigDecimal("-8.00")));
+		verifyNoMoreInteractions(rollupRepository);
+	}
+
+	private static Sale sale(SaleItem... items) {
+		Sale sale = new Sale();
+		sale.setSaleDate(SALE_DATE);
+		sale.setStatus(Sale.SaleStatus.COMPLETED);
+		BigDecimal subtotal = BigDecimal.ZERO;
+		for (SaleItem item : items) {
+			item.setSale(sale);
+			sale.getItems().add(item);
+			subtotal = subtotal.add(item.getTotalPrice());
+		}
+		sale.setSubtotal(subtotal);
+		return sale;
+	}
+
+	private static SaleItem line(Product product, int quantity, String totalPrice, String costAmount) {
+		SaleItem item = new SaleItem();
+		item.setProduct(product);
+		item.setQuantity(quantity);
+		item.setTotalPrice(new BigDecimal(totalPrice));
+		item.setCostAmount(new BigDecimal(costAmount));
+		return item;
+	}
+}
@@ -0,0 +1,99 @@
+package com.example.inventoryManagementSystem.service.impl;
+
+import com.example.inventoryManagementSystem.exception.InsufficientStockException;
+import com.example.inventoryManagementSystem.model.Product;
+import com.example.inventoryManagementSystem.service.StockMutationService.StockChange;
+import com.example.inventoryManagementSystem.service.StockReservationService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+// Runs the conditional stock updates against an in-memory products table
+class StockMutationServiceImplTest {
+
+	private JdbcTemplate jdbcTemplate;
+	private StockReservationService stockReservationService;
+	private StockMutationServiceImpl stockMutationService;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+				"jdbc:h2:mem:stock-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""));
+		jdbcTemplate.execute("CREATE TABLE products (id BIGINT PRIMARY KEY, quantity_in_stock INT NOT NULL, " +
+				"version BIGINT NOT NULL, updated_at TIMESTAMP)");
+		jdbcTemplate.update("INSERT INTO products (id, quantity_in_stock, version) VALUES (1, 5, 0), (2, 5, 0)");
+
+		stockReservationService = mock(StockReservationService.class);
+		stockMutationService = new StockMutationServiceImpl(jdbcTemplate, stockReservationService);
+		ReflectionTestUtils.setField(stockMutationService, "entityManager", mock(EntityManager.class));
+	}
+
+	@Test
+	void refusesDecrementBelowZero() {
+		StockChange change = StockChange.decrement(product(1L), 6);
+
+		List<StockChange> failed = stockMutationService.tryApply(List.of(change));
+
+		assertThat(failed).containsExactly(change);
+		assertThat(quantityOf(1L)).isEqualTo(5);
+		assertThat(versionOf(1L)).isZero();
+		verify(stockReservationService, never()).stockChanged(anyLong(), anyInt());
+	}
+
+	@Test
+	void appliesTheChangesThatFitAndReturnsTheRest() {
+		StockChange toZero = StockChange.decrement(product(1L), 5);
+		StockChange tooMany = StockChange.decrement(product(2L), 6);
+
+		List<StockChange> failed = stockMutationService.tryApply(List.of(toZero, tooMany));
+
+		assertThat(failed).containsExactly(tooMany);
+		assertThat(quantityOf(1L)).isZero();
+		assertThat(quantityOf(2L)).isEqualTo(5);
+		verify(stockReservationService).stockChanged(1L, -5);
+		verify(stockReservationService, never()).stockChanged(2L, -6);
+	}
+
+	@Test
+	void incrementIsNeverRefused() {
+		jdbcTemplate.update("UPDATE products SET quantity_in_stock = 0 WHERE id = 1");
+
+		assertThat(stockMutationService.tryApply(List.of(StockChange.increment(product(1L), 3)))).isEmpty();
+		assertThat(quantityOf(1L)).isEqualTo(3);
+	}
+
+	@Test
+	void applyListsTheRefusedChanges() {
+		StockChange tooMany = StockChange.decrement(product(1L), 6);
+
+		assertThatThrownBy(() -> stockMutationService.apply(List.of(tooMany)))
+				.isInstanceOf(InsufficientStockException.class)
+				.satisfies(e -> assertThat(((InsufficientStockException) e).getFailedChanges()).containsExactly(tooMany));
+	}
+
+	private int quantityOf(long productId) {
+		return jdbcTemplate.queryForObject("SELECT quantity_in_stock FROM products WHERE id = ?", Integer.class, productId);
+	}
+
+	private long versionOf(long productId) {
+		return jdbcTemplate.queryForObject("SELECT version FROM products WHERE id = ?", Long.class, productId);
+	}
+
+	private static Product product(long id) {
+		return Product.builder().id(id).build();
+	}
+}